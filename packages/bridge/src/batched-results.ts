@@ -0,0 +1,97 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2025 SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+import type { JsTsAnalysisOutput } from '../../jsts/src/analysis/analysis.js';
+import type { WsFileResult, WsIncrementalResult, WsMessage } from './request.js';
+
+/**
+ * How long small file results wait for the next ones before being sent
+ */
+export const BATCH_WINDOW_MS = 20;
+
+/**
+ * The maximum number of file results sent in a single batch
+ */
+export const MAX_BATCH_SIZE = 64;
+
+/**
+ * File results with more entries than this, e.g. issues, highlights or CPD tokens, are sent on
+ * their own: batching only pays off for the many small messages of tiny files.
+ */
+export const MAX_BATCHED_ENTRIES = 200;
+
+/**
+ * Wraps a WebSocket results channel so that small file results, produced in quick succession,
+ * are sent together in a single 'fileResults' message. A result arriving alone within the batch
+ * window is sent as usual, and pending results are sent before any other message to keep the
+ * order of the results.
+ *
+ * @returns the wrapped channel, and a function sending the pending results right away
+ */
+export function withBatchedFileResults(channel: (result: WsMessage) => void) {
+  let batch: WsFileResult[] = [];
+  let timer: NodeJS.Timeout | undefined;
+
+  const flush = () => {
+    if (timer) {
+      clearTimeout(timer);
+      timer = undefined;
+    }
+    if (batch.length === 1) {
+      channel(batch[0]);
+    } else if (batch.length > 1) {
+      channel({ messageType: 'fileResults', results: batch });
+    }
+    batch = [];
+  };
+
+  const batchedChannel = (result: WsIncrementalResult) => {
+    if (result.messageType === 'analyzing') {
+      // never sent to the plugin, so it does not need to wait for the pending results
+      channel(result);
+    } else if (result.messageType === 'fileResult' && isSmall(result)) {
+      batch.push(result);
+      if (batch.length >= MAX_BATCH_SIZE) {
+        flush();
+      } else {
+        timer ??= setTimeout(flush, BATCH_WINDOW_MS);
+      }
+    } else {
+      flush();
+      channel(result);
+    }
+  };
+
+  return { channel: batchedChannel, flush };
+}
+
+function isSmall(result: WsFileResult) {
+  const {
+    issues,
+    highlights,
+    highlightedSymbols,
+    cpdTokens,
+    ast,
+    hookData,
+  }: Partial<JsTsAnalysisOutput> = result;
+  const entries =
+    (issues?.length ?? 0) +
+    (highlights?.length ?? 0) +
+    (highlightedSymbols?.length ?? 0) +
+    (cpdTokens?.length ?? 0);
+  // hook data is sent in binary messages, which are not batched
+  return ast === undefined && hookData === undefined && entries <= MAX_BATCHED_ENTRIES;
+}
@@ -0,0 +1,98 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2025 SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+import { bridge } from './proto/file-result.js';
+import type { WsFileResult, WsIncrementalResult, WsMessage } from './request.js';
+import type { JsTsAnalysisOutput } from '../../jsts/src/analysis/analysis.js';
+import type { Location } from '../../jsts/src/linter/visitors/metrics/helpers/location.js';
+
+const { FileResult, TextType } = bridge;
+
+type FileResultFields = Partial<JsTsAnalysisOutput> & {
+  parsingError?: { message: string; code: string; line?: number };
+};
+
+/**
+ * Wraps a WebSocket results channel so that file results are sent as binary
+ * Protobuf messages, while the other incremental results are left untouched.
+ */
+export function withBinaryFileResults(channel: (result: WsMessage) => void) {
+  return (result: WsIncrementalResult) =>
+    channel(result.messageType === 'fileResult' ? encodeFileResult(result) : result);
+}
+
+/**
+ * Wraps a JSON results channel so that file results carrying hook data are sent as binary
+ * Protobuf messages nonetheless, since JSON messages cannot carry their raw bytes.
+ */
+export function withBinaryHookData(channel: (result: WsMessage) => void) {
+  return (result: WsIncrementalResult) =>
+    channel(
+      result.messageType === 'fileResult' && hasHookData(result)
+        ? encodeFileResult(result)
+        : result,
+    );
+}
+
+function hasHookData(result: WsFileResult) {
+  const { hookData }: FileResultFields = result;
+  return hookData !== undefined && hookData.length > 0;
+}
+
+/**
+ * Encodes a file result into a 'bridge.FileResult' Protobuf message.
+ *
+ * Locations of highlights, symbols and CPD tokens are flattened into packed
+ * arrays, and the AST is embedded as the raw bytes produced by the analyzer.
+ */
+export function encodeFileResult(result: WsFileResult): Uint8Array {
+  const {
+    filename,
+    parsingError,
+    issues,
+    highlights,
+    highlightedSymbols,
+    metrics,
+    cpdTokens,
+    ast,
+    hookData,
+  }: FileResultFields & { filename: string } = result;
+  return FileResult.encode(
+    FileResult.create({
+      filename,
+      parsingError,
+      issues: issues?.map(issue => ({
+        ...issue,
+        ruleEslintKeys: 'ruleESLintKeys' in issue ? issue.ruleESLintKeys : undefined,
+      })),
+      highlightLocations: highlights?.flatMap(highlight => flatten(highlight.location)),
+      highlightTypes: highlights?.map(highlight => TextType[highlight.textType]),
+      highlightedSymbols: highlightedSymbols?.map(symbol => ({
+        declaration: flatten(symbol.declaration),
+        references: symbol.references.flatMap(flatten),
+      })),
+      metrics,
+      cpdTokenLocations: cpdTokens?.flatMap(token => flatten(token.location)),
+      cpdTokenImages: cpdTokens?.map(token => token.image),
+      ast,
+      hookData,
+    }),
+  ).finish();
+}
+
+function flatten({ startLine, startCol, endLine, endCol }: Location) {
+  return [startLine, startCol, endLine, endCol];
+}
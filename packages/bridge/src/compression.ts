@@ -0,0 +1,70 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2025 SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+import type express from 'express';
+import { constants, gzipSync } from 'node:zlib';
+import type { PerMessageDeflateOptions } from 'ws';
+
+/**
+ * Payloads below this size are sent uncompressed, as compressing them costs more time than it
+ * saves, even over a slow network. The plugin uses the same threshold.
+ */
+export const COMPRESSION_THRESHOLD = 16 * 1024;
+
+/**
+ * The permessage-deflate settings of the WebSocket server. Frames are only compressed when the
+ * plugin offers the extension, which it does when the bridge is reached over a network.
+ */
+export const PER_MESSAGE_DEFLATE: PerMessageDeflateOptions = {
+  threshold: COMPRESSION_THRESHOLD,
+  zlibDeflateOptions: { level: constants.Z_BEST_SPEED },
+};
+
+/**
+ * Sends the result of an HTTP request, gzipped when it is large and the plugin accepts it.
+ * Gzipped request bodies need no handling, as the JSON body parser inflates them.
+ *
+ * @param response the response to the request
+ * @param result the result, sent as text when it is a string and as JSON otherwise
+ */
+export function sendResult(response: express.Response, result: unknown) {
+  if (typeof result === 'string') {
+    send(response.type('html'), result);
+  } else {
+    send(response.type('json'), toJson(result) ?? '');
+  }
+}
+
+/**
+ * Serializes a result to JSON, encoding binary fields such as the serialized AST in base64, as
+ * the plugin expects them in JSON messages.
+ */
+export function toJson(result: unknown): string {
+  return JSON.stringify(result, function (this: Record<string, unknown>, key, value) {
+    // buffers are already turned into plain objects by their 'toJSON' method at this point
+    const raw = this[key];
+    return raw instanceof Uint8Array ? Buffer.from(raw).toString('base64') : value;
+  });
+}
+
+function send(response: express.Response, body: string) {
+  if (Buffer.byteLength(body) >= COMPRESSION_THRESHOLD && response.req.acceptsEncodings('gzip')) {
+    response.set('Content-Encoding', 'gzip');
+    response.send(gzipSync(body, { level: constants.Z_BEST_SPEED }));
+  } else {
+    response.send(body);
+  }
+}
@@ -16,9 +16,17 @@
  */
 import type express from 'express';
 import { handleRequest } from './handle-request.js';
+import { sendResult, toJson } from './compression.js';
 import { info, debug, error } from '../../shared/src/helpers/logging.js';
 import type { Worker } from 'node:worker_threads';
-import type { BridgeRequest, RequestResult, RequestType, WsIncrementalResult } from './request.js';
+import type {
+  BridgeRequest,
+  RequestPriority,
+  RequestResult,
+  RequestType,
+  WsMessage,
+  WsResponse,
+} from './request.js';
 import type { WorkerData } from '../../shared/src/helpers/worker.js';
 import type { RawData, WebSocket } from 'ws';
 import type { WorkerMessageListeners } from './router.js';
@@ -47,25 +55,36 @@ function createHandler(type: RequestType, workerData: WorkerData) {
     response: express.Response,
     next: express.NextFunction,
   ) => {
-    handleResult(await handleRequest({ type, data: request.body }, workerData), response, next);
+    const bridgeRequest = { type, data: request.body, priority: priorityOf(request) };
+    handleResult(await handleRequest(bridgeRequest as BridgeRequest, workerData), response, next);
   };
 }
 
+/**
+ * Identifies the HTTP and WebSocket requests delegated to the worker, so that their results are
+ * sent back to the right client when several of them are processed at the same time
+ */
+let nextRequestId = 0;
+
 function createWorkerHandler(worker: Worker, type: RequestType, listeners: WorkerMessageListeners) {
   return async (
     request: express.Request,
     response: express.Response,
     next: express.NextFunction,
   ) => {
-    listeners.oneTimers.push(message => {
-      if (!message.ws) {
-        handleResult(message, response, next);
-      }
-    });
-    worker.postMessage({ type, data: request.body });
+    const id = nextRequestId++;
+    listeners.oneTimers.set(id, message => handleResult(message, response, next));
+    worker.postMessage({ id, type, data: request.body, priority: priorityOf(request) });
   };
 }
 
+/**
+ * HTTP requests tell their priority with the 'priority' query parameter
+ */
+function priorityOf(request: express.Request): RequestPriority | undefined {
+  return request.query.priority === 'interactive' ? 'interactive' : undefined;
+}
+
 function handleResult(
   message: RequestResult,
   response: express.Response,
@@ -73,7 +92,7 @@ function handleResult(
 ) {
   switch (message.type) {
     case 'success':
-      response.send(message.result);
+      sendResult(response, message.result);
       break;
 
     case 'failure':
@@ -92,25 +111,77 @@ export function createWsDelegator(
 ) {
   return (ws: WebSocket) => {
     info('WebSocket client connected on /ws');
+    /**
+     * The file being analyzed by the worker thread, reported to the plugin if the worker dies, so
+     * that it can resume the analysis without it
+     */
+    let analyzedFile: string | undefined;
+    const relayResult = (message: WsMessage) => {
+      if (!(message instanceof Uint8Array) && message.messageType === 'analyzing') {
+        analyzedFile = message.filename;
+        return;
+      }
+      if (
+        message instanceof Uint8Array ||
+        message.messageType === 'fileResult' ||
+        message.messageType === 'sharedFileResult'
+      ) {
+        analyzedFile = undefined;
+      }
+      if (
+        !(message instanceof Uint8Array) &&
+        message.messageType === 'fileResults' &&
+        message.results.some(result => result.filename === analyzedFile)
+      ) {
+        // batched results can arrive after the analysis of the next file has started
+        analyzedFile = undefined;
+      }
+      handleWsResult(ws, message);
+    };
+    const reportCrash = (code: number) => {
+      if (code !== 0 && analyzedFile) {
+        error(`The worker thread died while analyzing ${analyzedFile}`);
+        handleWsResult(ws, { messageType: 'crash', filename: analyzedFile });
+      }
+    };
+    const relayWorkerResult = (message: { ws?: boolean; results: WsMessage }) => {
+      if (message.ws) {
+        relayResult(message.results);
+      }
+    };
     if (worker) {
-      listeners.permanent.push(message => {
-        if (message.ws) {
-          handleWsResult(ws, message.results);
-        }
-      });
+      listeners.permanent.push(relayWorkerResult);
+      // runs before the server shuts down on the exit of the worker
+      worker.prependListener('exit', reportCrash);
     }
 
     ws.on('message', async message => {
-      const data: BridgeRequest = decodeMessage(message);
-      if (worker) {
+      const data: BridgeRequest & { requestId?: number } = decodeMessage(message);
+      const requestId = data.requestId;
+      if (requestId !== undefined) {
+        const respond = (result: RequestResult) =>
+          handleWsResult(ws, toWsResponse(requestId, result));
+        if (worker) {
+          const id = nextRequestId++;
+          listeners.oneTimers.set(id, respond);
+          worker.postMessage({ ...data, id });
+        } else {
+          respond(await handleRequest(data, workerData));
+        }
+      } else if (worker) {
         worker.postMessage({ ws: true, ...data });
       } else {
-        await handleRequest(data, workerData, message => handleWsResult(ws, message));
+        await handleRequest(data, workerData, relayResult);
       }
     });
 
     ws.on('close', (code, reason) => {
       debug(`WebSocket client disconnected: ${reason} with code ${code}`);
+      worker?.off('exit', reportCrash);
+      const index = listeners.permanent.indexOf(relayWorkerResult);
+      if (index !== -1) {
+        listeners.permanent.splice(index, 1);
+      }
     });
 
     ws.on('error', err => {
@@ -119,8 +190,18 @@ export function createWsDelegator(
   };
 }
 
-function handleWsResult(ws: WebSocket, message: WsIncrementalResult) {
-  ws.send(JSON.stringify(message));
+/**
+ * Requests sent over the WebSocket with a request id are answered with a single response carrying
+ * the same id, so that the client can have several of them in flight over the same connection
+ */
+function toWsResponse(requestId: number, message: RequestResult): WsResponse {
+  return message.type === 'success'
+    ? { messageType: 'response', requestId, result: message.result }
+    : { messageType: 'response', requestId, error: message.error };
+}
+
+function handleWsResult(ws: WebSocket, message: WsMessage) {
+  ws.send(message instanceof Uint8Array ? message : toJson(message));
 }
 
 function decodeMessage(message: RawData) {
@@ -0,0 +1,91 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2025 SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+type FileChunk = Record<string, unknown>;
+
+/**
+ * Project files received in chunks from the plugin, in 'on-project-files' messages following an
+ * 'on-analyze-project' request flagged with 'streamFiles'. The stream ends with an
+ * 'on-project-files-end' message, or when the analysis is cancelled.
+ */
+export class FileStream implements AsyncIterable<FileChunk> {
+  private readonly chunks: FileChunk[] = [];
+  private ended = false;
+  private wakeUp?: () => void;
+  cancelled = false;
+
+  push(chunk: FileChunk) {
+    this.chunks.push(chunk);
+    this.notify();
+  }
+
+  end(cancelled = false) {
+    this.ended = true;
+    this.cancelled ||= cancelled;
+    this.notify();
+  }
+
+  async *[Symbol.asyncIterator]() {
+    while (true) {
+      const chunk = this.chunks.shift();
+      if (chunk) {
+        yield chunk;
+      } else if (this.ended) {
+        return;
+      } else {
+        await new Promise<void>(resolve => (this.wakeUp = resolve));
+      }
+    }
+  }
+
+  private notify() {
+    this.wakeUp?.();
+    this.wakeUp = undefined;
+  }
+}
+
+let currentStream: FileStream | undefined;
+
+/**
+ * Whether the project analysis request announces that its files are streamed separately
+ */
+export function isStreamingFiles(data: unknown) {
+  return typeof data === 'object' && data !== null && 'streamFiles' in data && !!data.streamFiles;
+}
+
+/**
+ * Opens the stream receiving the files of the project analysis being started. It must be called
+ * synchronously when handling the request, before the first chunk can be received.
+ */
+export function openFileStream() {
+  currentStream?.end(true);
+  currentStream = new FileStream();
+  return currentStream;
+}
+
+export function pushFiles(files: unknown) {
+  if (!currentStream) {
+    throw new Error('Received project files while no project analysis is waiting for them');
+  }
+  if (typeof files === 'object' && files !== null) {
+    currentStream.push(files as FileChunk);
+  }
+}
+
+export function endFiles(cancelled = false) {
+  currentStream?.end(cancelled);
+  currentStream = undefined;
+}
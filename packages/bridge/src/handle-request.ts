@@ -20,79 +20,166 @@ import { analyzeJSTS } from '../../jsts/src/analysis/analyzer.js';
 import {
   analyzeProject,
   cancelAnalysis,
+  pauseAnalysis,
+  resumeAnalysis,
+  runInteractively,
 } from '../../jsts/src/analysis/projectAnalysis/analyzeProject.js';
+import { analyzeCssProject } from '../../jsts/src/analysis/projectAnalysis/analyzeCssProject.js';
 import { analyzeYAML } from '../../yaml/src/index.js';
 import { logHeapStatistics } from './memory.js';
 import { Linter } from '../../jsts/src/linter/linter.js';
 import {
   type BridgeRequest,
+  type RequestPriority,
   type RequestResult,
   serializeError,
-  type WsIncrementalResult,
+  type WsMessage,
 } from './request.js';
+import { withBinaryFileResults, withBinaryHookData } from './binary-result.js';
+import { withBatchedFileResults } from './batched-results.js';
+import { SharedResultsWriter, withSharedFileResults } from './shared-results.js';
+import { withRecycling } from './recycling.js';
+import { endFiles, isStreamingFiles, openFileStream, pushFiles } from './file-stream.js';
 import type { WorkerData } from '../../shared/src/helpers/worker.js';
 import {
   sanitizeAnalysisInput,
   sanitizeJsTsAnalysisInput,
   sanitizeCssAnalysisInput,
+  sanitizeCssProjectAnalysisInput,
   sanitizeInitLinterInput,
   sanitizeProjectAnalysisInput,
 } from '../../shared/src/helpers/sanitize.js';
 import { getShouldIgnoreParams } from '../../shared/src/helpers/configuration.js';
 
+/**
+ * Answer to an init-linter request referring to a configuration the bridge does not know
+ * (anymore), the plugin then sends the full configuration.
+ */
+export const UNKNOWN_FINGERPRINT = 'UNKNOWN_FINGERPRINT';
+
 export async function handleRequest(
   request: BridgeRequest,
   workerData: WorkerData,
-  incrementalResultsChannel?: (result: WsIncrementalResult) => void,
+  incrementalResultsChannel?: (result: WsMessage) => void,
 ): Promise<RequestResult> {
   try {
     switch (request.type) {
       case 'on-init-linter': {
         const sanitizedInput = sanitizeInitLinterInput(request.data);
-        await Linter.initialize(sanitizedInput);
+        if (!('baseDir' in sanitizedInput)) {
+          // the plugin only sent the fingerprint of a configuration it sent before
+          return {
+            type: 'success',
+            result: Linter.reuse(sanitizedInput.fingerprint) ? 'OK' : UNKNOWN_FINGERPRINT,
+          };
+        }
+        const { fingerprint, ...params } = sanitizedInput;
+        await Linter.initialize(params, fingerprint);
         return { type: 'success', result: 'OK' };
       }
       case 'on-analyze-jsts': {
-        const { input, configuration } = await sanitizeJsTsAnalysisInput(request.data);
-        const output = await analyzeJSTS(input, getShouldIgnoreParams(configuration));
+        const output = await withPriority(request.priority, async () => {
+          const { input, configuration } = await sanitizeJsTsAnalysisInput(request.data);
+          return analyzeJSTS(input, getShouldIgnoreParams(configuration));
+        });
+        // hook data is only delivered through binary file results
+        delete output.hookData;
         return { type: 'success', result: output };
       }
       case 'on-analyze-css': {
-        const { input, configuration } = await sanitizeCssAnalysisInput(request.data);
-        const output = await analyzeCSS(input, getShouldIgnoreParams(configuration));
+        const output = await withPriority(request.priority, async () => {
+          const { input, configuration } = await sanitizeCssAnalysisInput(request.data);
+          return analyzeCSS(input, getShouldIgnoreParams(configuration));
+        });
         return { type: 'success', result: output };
       }
       case 'on-analyze-yaml': {
-        const { input, configuration } = await sanitizeAnalysisInput(request.data);
-        const output = await analyzeYAML(input, getShouldIgnoreParams(configuration));
+        const output = await withPriority(request.priority, async () => {
+          const { input, configuration } = await sanitizeAnalysisInput(request.data);
+          return analyzeYAML(input, getShouldIgnoreParams(configuration));
+        });
         return { type: 'success', result: output };
       }
       case 'on-analyze-html': {
-        const { input, configuration } = await sanitizeAnalysisInput(request.data);
-        const output = await analyzeHTML(input, getShouldIgnoreParams(configuration));
+        const output = await withPriority(request.priority, async () => {
+          const { input, configuration } = await sanitizeAnalysisInput(request.data);
+          return analyzeHTML(input, getShouldIgnoreParams(configuration));
+        });
         return { type: 'success', result: output };
       }
       case 'on-analyze-project': {
         logHeapStatistics(workerData?.debugMemory);
+        const fileStream = isStreamingFiles(request.data) ? openFileStream() : undefined;
         // sanitizeProjectAnalysisInput initializes file stores internally
-        const sanitizedInput = await sanitizeProjectAnalysisInput(request.data);
+        const sanitizedInput = await sanitizeProjectAnalysisInput(request.data, fileStream);
+        if (fileStream?.cancelled) {
+          incrementalResultsChannel?.({ messageType: 'cancelled' });
+          return { type: 'success', result: 'OK' };
+        }
 
-        const output = await analyzeProject(
-          {
-            rules: sanitizedInput.rules,
-            bundles: sanitizedInput.bundles,
-            rulesWorkdir: sanitizedInput.rulesWorkdir,
-          },
-          sanitizedInput.configuration,
+        const { binaryResults, batchResults, recycleAfterFiles, recycleHeapPercent } =
+          sanitizedInput.configuration;
+        const sharedResults =
+          incrementalResultsChannel && binaryResults && sanitizedInput.resultsBuffer
+            ? SharedResultsWriter.open(sanitizedInput.resultsBuffer)
+            : undefined;
+        const batchedResults =
+          incrementalResultsChannel && batchResults && !binaryResults
+            ? withBatchedFileResults(withBinaryHookData(incrementalResultsChannel))
+            : undefined;
+        const channel =
+          batchedResults?.channel ??
+          resultsChannel(incrementalResultsChannel, binaryResults, sharedResults);
+        try {
+          const output = await analyzeProject(
+            {
+              rules: sanitizedInput.rules,
+              bundles: sanitizedInput.bundles,
+              rulesWorkdir: sanitizedInput.rulesWorkdir,
+              rulesFingerprint: sanitizedInput.rulesFingerprint,
+            },
+            sanitizedInput.configuration,
+            channel && withRecycling(channel, recycleAfterFiles, recycleHeapPercent),
+          );
+          logHeapStatistics(workerData?.debugMemory);
+          return { type: 'success', result: output };
+        } finally {
+          batchedResults?.flush();
+          sharedResults?.close();
+        }
+      }
+      case 'on-analyze-css-project': {
+        const fileStream = isStreamingFiles(request.data) ? openFileStream() : undefined;
+        const { cssRules, files, configuration } = sanitizeCssProjectAnalysisInput(request.data);
+        const output = await analyzeCssProject(
+          cssRules,
+          configuration,
+          fileStream ?? [files],
           incrementalResultsChannel,
         );
-        logHeapStatistics(workerData?.debugMemory);
         return { type: 'success', result: output };
       }
+      case 'on-project-files': {
+        pushFiles(request.data);
+        return { type: 'success', result: 'OK' };
+      }
+      case 'on-project-files-end': {
+        endFiles();
+        return { type: 'success', result: 'OK' };
+      }
       case 'on-cancel-analysis': {
+        endFiles(true);
         cancelAnalysis();
         return { type: 'success', result: 'OK' };
       }
+      case 'on-pause-analysis': {
+        pauseAnalysis();
+        return { type: 'success', result: 'OK' };
+      }
+      case 'on-resume-analysis': {
+        resumeAnalysis();
+        return { type: 'success', result: 'OK' };
+      }
       default: {
         // Handle unknown request types (e.g., from malformed WebSocket messages)
         const unknownType = (request as { type: unknown }).type;
@@ -112,3 +199,28 @@ export async function handleRequest(
     return { type: 'failure', error: serializeError(err) };
   }
 }
+
+function withPriority<T>(priority: RequestPriority | undefined, task: () => Promise<T>) {
+  return priority === 'interactive' ? runInteractively(task) : task();
+}
+
+/**
+ * The channel of the project analysis results, where file results are sent as binary Protobuf
+ * messages when enabled, possibly through the buffer shared with the plugin. Otherwise, only the
+ * file results carrying hook data are.
+ */
+function resultsChannel(
+  channel: ((result: WsMessage) => void) | undefined,
+  binaryResults: boolean,
+  sharedResults: SharedResultsWriter | undefined,
+) {
+  if (!channel) {
+    return channel;
+  }
+  if (!binaryResults) {
+    return withBinaryHookData(channel);
+  }
+  return sharedResults
+    ? withSharedFileResults(channel, sharedResults)
+    : withBinaryFileResults(channel);
+}
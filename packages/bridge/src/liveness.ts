@@ -0,0 +1,98 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2025 SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+import { monitorEventLoopDelay } from 'node:perf_hooks';
+import type { Worker } from 'node:worker_threads';
+import type { WebSocket } from 'ws';
+
+/**
+ * How often the worker thread records its heartbeat in the shared liveness buffer
+ */
+export const HEARTBEAT_INTERVAL_MS = 100;
+
+/**
+ * Slots of the shared liveness buffer: the time of the last heartbeat of the worker thread, and
+ * the maximum lag of its event loop since the main thread last read it
+ */
+const HEARTBEAT = 0;
+const MAX_LAG = 1;
+
+/**
+ * Answers the WebSocket pings of the plugin, which replace the polling of the '/status' endpoint
+ * to check that the bridge is alive.
+ *
+ * Pings are control frames handled as soon as they are read, without queuing behind the pending
+ * requests. Each pong carries the maximum lag of the event loops since the previous ping, so that
+ * the plugin can tell a busy bridge from a dead one. The analyses run in the worker thread, so
+ * its lag is included when there is one.
+ *
+ * @param ws the WebSocket connection of the plugin
+ * @param onPing called on every ping, as the plugin is still there
+ * @param workerLag returns the lag of the worker thread since it was last called, if any
+ */
+export function answerPings(ws: WebSocket, onPing: () => void, workerLag?: () => number) {
+  const eventLoopDelay = monitorEventLoopDelay({ resolution: 20 });
+  eventLoopDelay.enable();
+  ws.on('ping', () => {
+    onPing();
+    const eventLoopLag = Math.max(Math.round(eventLoopDelay.max / 1e6), workerLag?.() ?? 0);
+    eventLoopDelay.reset();
+    ws.pong(JSON.stringify({ eventLoopLag }));
+  });
+  ws.on('close', () => {
+    eventLoopDelay.disable();
+  });
+}
+
+/**
+ * Shares a liveness buffer with the worker thread, which records its heartbeat there without
+ * going through its event loop.
+ *
+ * @param worker the worker thread running the analyses
+ * @returns a function returning the lag of the worker since its previous call, that is the
+ *          longest time the worker went without a heartbeat, including the ongoing one
+ */
+export function monitorWorker(worker: Worker) {
+  const buffer = new SharedArrayBuffer(2 * BigInt64Array.BYTES_PER_ELEMENT);
+  const liveness = new BigInt64Array(buffer);
+  Atomics.store(liveness, HEARTBEAT, BigInt(Date.now()));
+  worker.postMessage({ type: 'monitor-liveness', buffer });
+  return () => {
+    const lastHeartbeat = Number(Atomics.load(liveness, HEARTBEAT));
+    const ongoingLag = Date.now() - lastHeartbeat - HEARTBEAT_INTERVAL_MS;
+    return Math.max(Number(Atomics.exchange(liveness, MAX_LAG, 0n)), ongoingLag, 0);
+  };
+}
+
+/**
+ * Records the heartbeat of the worker thread in the liveness buffer shared by the main thread.
+ * A heartbeat that comes late tells how long the event loop of the worker was blocked.
+ *
+ * @param buffer the liveness buffer created by the main thread
+ */
+export function recordHeartbeats(buffer: SharedArrayBuffer) {
+  const liveness = new BigInt64Array(buffer);
+  let previous = Date.now();
+  setInterval(() => {
+    const now = Date.now();
+    const lag = BigInt(Math.max(now - previous - HEARTBEAT_INTERVAL_MS, 0));
+    previous = now;
+    Atomics.store(liveness, HEARTBEAT, BigInt(now));
+    if (lag > Atomics.load(liveness, MAX_LAG)) {
+      Atomics.store(liveness, MAX_LAG, lag);
+    }
+  }, HEARTBEAT_INTERVAL_MS).unref();
+}
@@ -21,6 +21,8 @@ import { type NodeGCPerformanceDetail, constants, PerformanceObserver } from 'no
 import { debug, error, info, warn } from '../../shared/src/helpers/logging.js';
 
 const MB = 1024 * 1024;
+// cgroup v1 reports no memory limit as the largest page-aligned 64-bit value
+const UNLIMITED = 2 ** 60;
 
 export async function logMemoryConfiguration() {
   const osMem = Math.floor(os.totalmem() / MB);
@@ -32,12 +34,17 @@ export async function logMemoryConfiguration() {
     warn(
       `Node.js heap size limit ${heapSize} is higher than available memory ${osMem}. Check your configuration of sonar.javascript.node.maxspace`,
     );
+  } else if (dockerMemLimit && heapSize > dockerMemLimit) {
+    warn(
+      `Node.js heap size limit ${heapSize} is higher than the container memory limit ${dockerMemLimit}. Check your configuration of sonar.javascript.node.maxspace`,
+    );
   }
 }
 
 async function readDockerMemoryLimit() {
   return (
     (await readDockerMemoryLimitFrom('/sys/fs/cgroup/memory.max')) ??
+    (await readDockerMemoryLimitFrom('/sys/fs/cgroup/memory/memory.limit_in_bytes')) ??
     (await readDockerMemoryLimitFrom('/sys/fs/cgroup/memory.limit_in_bytes'))
   );
 }
@@ -45,8 +52,8 @@ async function readDockerMemoryLimit() {
 async function readDockerMemoryLimitFrom(cgroupPath: string) {
   try {
     const mem = Number.parseInt(await readFile(cgroupPath, { encoding: 'utf8' }));
-    if (Number.isInteger(mem)) {
-      return mem / MB;
+    if (Number.isInteger(mem) && mem < UNLIMITED) {
+      return Math.floor(mem / MB);
     }
   } catch {
     // probably not a docker env
@@ -58,6 +65,14 @@ function getHeapSize() {
   return Math.floor(v8.getHeapStatistics().heap_size_limit / MB);
 }
 
+/**
+ * Returns the heap used by the current thread, in percent of its heap size limit
+ */
+export function getHeapUsagePercent() {
+  const { used_heap_size, heap_size_limit } = v8.getHeapStatistics();
+  return (100 * used_heap_size) / heap_size_limit;
+}
+
 export function logMemoryError(err: any) {
   if (err?.code === 'ERR_WORKER_OUT_OF_MEMORY') {
     error(
@@ -0,0 +1,62 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2025 SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+import { recycleAnalysis } from '../../jsts/src/analysis/projectAnalysis/analyzeProject.js';
+import { debug } from '../../shared/src/helpers/logging.js';
+import { getHeapUsagePercent } from './memory.js';
+import type { WsIncrementalResult } from './request.js';
+
+/**
+ * Wraps the results channel of a project analysis so that the analysis stops before its next file
+ * once the worker thread analyzed the given number of files, or once its heap usage exceeds the
+ * given percentage of the heap size limit. TypeScript programs, caches and linter state then no
+ * longer pile up: the plugin restarts the bridge and analyzes the remaining files with it.
+ *
+ * @param channel the channel of the project analysis results
+ * @param maxFiles the number of files after which the analysis stops, 0 to never stop
+ * @param maxHeapPercent the heap usage above which the analysis stops, 0 to never stop
+ */
+export function withRecycling(
+  channel: (result: WsIncrementalResult) => void,
+  maxFiles: number,
+  maxHeapPercent: number,
+) {
+  if (maxFiles <= 0 && maxHeapPercent <= 0) {
+    return channel;
+  }
+  let analyzedFiles = 0;
+  let recycling = false;
+  return (result: WsIncrementalResult) => {
+    channel(result);
+    if (result.messageType !== 'fileResult' || recycling) {
+      return;
+    }
+    analyzedFiles++;
+    if (maxFiles > 0 && analyzedFiles >= maxFiles) {
+      debug(`Recycling the bridge after the analysis of ${analyzedFiles} file(s)`);
+      recycling = true;
+    } else if (maxHeapPercent > 0) {
+      const heapUsage = getHeapUsagePercent();
+      if (heapUsage >= maxHeapPercent) {
+        debug(`Recycling the bridge as its heap usage reached ${heapUsage.toFixed(1)}%`);
+        recycling = true;
+      }
+    }
+    if (recycling) {
+      recycleAnalysis();
+    }
+  };
+}
@@ -34,9 +34,61 @@ export type RequestResult =
 
 type WsAnalysisCancelled = { messageType: 'cancelled' };
 type WsMetaResult = { messageType: 'meta' } & ProjectAnalysisMeta;
-type WsFileResult = { filename: string; messageType: 'fileResult' } & FileResult;
+export type WsFileResult = { filename: string; messageType: 'fileResult' } & FileResult;
+/**
+ * Announces a binary file result written into the shared results buffer of the analysis
+ */
+export type WsSharedFileResult = {
+  messageType: 'sharedFileResult';
+  filename: string;
+  offset: number;
+  length: number;
+};
+/**
+ * Several small file results sent together, in the order they were produced
+ */
+export type WsFileResults = { messageType: 'fileResults'; results: WsFileResult[] };
 type WsError = { messageType: 'error'; error: unknown };
-export type WsIncrementalResult = WsFileResult | WsMetaResult | WsAnalysisCancelled | WsError;
+/**
+ * Announces the file about to be analyzed. It is kept by the main thread to report the file
+ * being analyzed if the worker thread dies, and is never sent to the plugin.
+ */
+export type WsAnalyzingFile = { messageType: 'analyzing'; filename: string };
+/**
+ * Sent by the main thread when the worker thread died while analyzing a file
+ */
+export type WsCrash = { messageType: 'crash'; filename: string };
+/**
+ * Ends a project analysis stopped before all its files were analyzed, asking the plugin to
+ * restart the bridge and to analyze the remaining files with it
+ */
+export type WsRecycle = { messageType: 'recycle' } & ProjectAnalysisMeta;
+export type WsIncrementalResult =
+  | WsFileResult
+  | WsMetaResult
+  | WsAnalysisCancelled
+  | WsError
+  | WsAnalyzingFile
+  | WsCrash
+  | WsRecycle;
+/**
+ * The result of a request sent over the WebSocket with a request id
+ */
+export type WsResponse = { messageType: 'response'; requestId: number } & (
+  | { result: string | AnalysisOutput | ProjectAnalysisOutput }
+  | { error: SerializedError }
+);
+/**
+ * A message sent over the WebSocket: either a JSON incremental result, a batch of file results,
+ * the response to a request or, when binary results are enabled, a file result encoded as a
+ * Protobuf message.
+ */
+export type WsMessage =
+  | WsIncrementalResult
+  | WsFileResults
+  | WsSharedFileResult
+  | WsResponse
+  | Uint8Array;
 
 export type RequestType = BridgeRequest['type'];
 
@@ -45,33 +97,57 @@ export type BridgeRequest =
   | JsTsRequest
   | EmbeddedRequest
   | ProjectAnalysisRequest
+  | ProjectFilesRequest
   | CancellationRequest
+  | BackpressureRequest
   | InitLinterRequest;
 
+/**
+ * Interactive single-file requests are served before the next file of a running project
+ * analysis, background ones wait for their turn like any other request
+ */
+export type RequestPriority = 'interactive' | 'background';
+
 type CssRequest = {
   type: 'on-analyze-css';
   data: unknown;
+  priority?: RequestPriority;
 };
 
 type EmbeddedRequest = {
   type: 'on-analyze-html' | 'on-analyze-yaml';
   data: unknown;
+  priority?: RequestPriority;
 };
 
 type JsTsRequest = {
   type: 'on-analyze-jsts';
   data: unknown;
+  priority?: RequestPriority;
 };
 
 type ProjectAnalysisRequest = {
-  type: 'on-analyze-project';
+  type: 'on-analyze-project' | 'on-analyze-css-project';
   data: unknown;
 };
 
+type ProjectFilesRequest =
+  | {
+      type: 'on-project-files';
+      data: unknown;
+    }
+  | {
+      type: 'on-project-files-end';
+    };
+
 type CancellationRequest = {
   type: 'on-cancel-analysis';
 };
 
+type BackpressureRequest = {
+  type: 'on-pause-analysis' | 'on-resume-analysis';
+};
+
 type InitLinterRequest = {
   type: 'on-init-linter';
   data: unknown;
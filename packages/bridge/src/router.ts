@@ -23,7 +23,8 @@ import type { WebSocketServer } from 'ws';
 
 export type WorkerMessageListeners = {
   permanent: ((message: any) => void)[];
-  oneTimers: ((message: any) => void)[];
+  // keyed by the id of the request waiting for its result, as several can be in flight
+  oneTimers: Map<number, (message: any) => void>;
 };
 
 export default function router(
@@ -31,16 +32,17 @@ export default function router(
   workerData: WorkerData,
   wss: WebSocketServer,
 ): express.Router {
-  const workerMessageListeners: WorkerMessageListeners = { permanent: [], oneTimers: [] };
+  const workerMessageListeners: WorkerMessageListeners = { permanent: [], oneTimers: new Map() };
   if (worker) {
     worker.on('message', message => {
       for (const listener of workerMessageListeners.permanent) {
         listener(message);
       }
-      for (const listener of workerMessageListeners.oneTimers) {
-        listener(message);
+      if (message.id !== undefined) {
+        const listener = workerMessageListeners.oneTimers.get(message.id);
+        workerMessageListeners.oneTimers.delete(message.id);
+        listener?.(message);
       }
-      workerMessageListeners.oneTimers = [];
     });
   }
 
@@ -28,12 +28,41 @@ import {
   logMemoryError,
 } from './memory.js';
 import { WebSocketServer } from 'ws';
+import { answerPings, monitorWorker } from './liveness.js';
+import { PER_MESSAGE_DEFLATE } from './compression.js';
 
 /**
  * The maximum request body size
  */
 const MAX_REQUEST_SIZE = '50mb';
 
+/**
+ * The features of the bridge, announced to the plugin once the server is ready
+ */
+const CAPABILITIES = [
+  'websocket',
+  'binary-results',
+  'file-chunks',
+  'css-project',
+  'request-ids',
+  'ping-lag',
+  'shared-results',
+  'batched-results',
+];
+
+/**
+ * Returns the line to write on the standard output once the bridge server is ready to accept
+ * requests, which spares the plugin from polling its status
+ *
+ * @param server the listening server
+ * @param socketPath the Unix domain socket the server listens to, if any
+ */
+export function readyMessage(server: http.Server, socketPath?: string) {
+  const port = socketPath ? 0 : (server.address() as AddressInfo).port;
+  const announcement = { port, socket: socketPath, capabilities: CAPABILITIES };
+  return `SONARJS_BRIDGE_READY ${JSON.stringify(announcement)}`;
+}
+
 /**
  * Starts the bridge
  *
@@ -52,6 +81,7 @@ const MAX_REQUEST_SIZE = '50mb';
  * @param worker Worker thread to handle analysis requests
  * @param debugMemory print memory usage for debugging purposes
  * @param timeout timeout in ms to shut down the server if unresponsive, if 0, no timeout will be enforced
+ * @param socketPath Unix domain socket to listen to instead of the port and host, if provided
  * @returns an http server
  */
 export async function start(
@@ -60,6 +90,7 @@ export async function start(
   worker?: Worker,
   debugMemory = false,
   timeout = 0,
+  socketPath?: string,
 ): Promise<{ server: http.Server; serverClosed: Promise<void> }> {
   let unregisterGarbageCollectionObserver = () => {};
   const pendingCloseRequests: express.Response[] = [];
@@ -87,7 +118,12 @@ export async function start(
 
     const app = express();
     const server = http.createServer(app);
-    const wss = new WebSocketServer({ noServer: true, maxPayload: 0 });
+    const wss = new WebSocketServer({
+      noServer: true,
+      maxPayload: 0,
+      autoPong: false,
+      perMessageDeflate: PER_MESSAGE_DEFLATE,
+    });
 
     server.on('upgrade', (request, socket, head) => {
       // Only handle upgrade requests for /ws
@@ -114,6 +150,8 @@ export async function start(
     if (orphanTimeout) {
       app.use(orphanTimeout.middleware);
     }
+    const workerLag = worker ? monitorWorker(worker) : undefined;
+    wss.on('connection', ws => answerPings(ws, () => orphanTimeout?.touch(), workerLag));
 
     app.use(router(worker, { debugMemory }, wss));
     app.use(errorMiddleware);
@@ -134,15 +172,26 @@ export async function start(
     });
 
     server.on('listening', () => {
-      /**
-       * Since we use 0 as the default port, Node.js assigns a random port to the server,
-       * which we get using server.address().
-       */
-      debug(`The bridge server is listening on port ${(server.address() as AddressInfo)?.port}`);
+      if (socketPath) {
+        debug(`The bridge server is listening on socket ${socketPath}`);
+      } else {
+        /**
+         * Since we use 0 as the default port, Node.js assigns a random port to the server,
+         * which we get using server.address().
+         */
+        debug(`The bridge server is listening on port ${(server.address() as AddressInfo)?.port}`);
+      }
       resolve({ server, serverClosed });
     });
 
-    server.listen(port, host);
+    if (socketPath) {
+      /**
+       * The socket file is removed by Node.js when the server closes.
+       */
+      server.listen(socketPath);
+    } else {
+      server.listen(port, host);
+    }
 
     /**
      * Shutdown the server and the worker thread
@@ -0,0 +1,128 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2025 SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+import fs from 'node:fs';
+import { encodeFileResult } from './binary-result.js';
+import type { WsIncrementalResult, WsMessage } from './request.js';
+import { warn } from '../../shared/src/helpers/logging.js';
+
+/**
+ * The size of the header of the shared results buffer, which starts with the position up to
+ * which the plugin has read the results, as a 64-bit little-endian integer
+ */
+export const HEADER_SIZE = 64;
+
+/**
+ * The memory-mapped file created by the plugin for the file results of a project analysis
+ */
+export type ResultsBuffer = { path: string; size: number };
+
+/**
+ * Writes binary file results into the ring buffer shared with a plugin running on the same host.
+ *
+ * Positions count the bytes written since the beginning, and results wrap around the end of the
+ * buffer. The space of a result is reused once the plugin has read past it.
+ */
+export class SharedResultsWriter {
+  private readonly capacity: number;
+  /** The position of the next result */
+  private head = 0;
+  /** The position up to which the plugin has read, as last read from the header */
+  private tail = 0;
+  private readonly tailBytes = Buffer.alloc(8);
+
+  private constructor(
+    private readonly fd: number,
+    size: number,
+  ) {
+    this.capacity = size - HEADER_SIZE;
+  }
+
+  /**
+   * Opens the buffer created by the plugin, or returns undefined if it cannot be
+   * opened, in which case the results are sent over the WebSocket connection.
+   */
+  static open({ path, size }: ResultsBuffer) {
+    try {
+      return new SharedResultsWriter(fs.openSync(path, 'r+'), size);
+    } catch (e) {
+      warn(`Failed to open the shared results buffer ${path}: ${e}`);
+      return undefined;
+    }
+  }
+
+  /**
+   * Writes a result into the buffer
+   *
+   * @returns the position of the result, or undefined if the buffer is too full
+   */
+  write(bytes: Uint8Array): number | undefined {
+    if (!this.hasRoomFor(bytes.length)) {
+      return undefined;
+    }
+    const position = this.head;
+    const start = position % this.capacity;
+    const first = Math.min(bytes.length, this.capacity - start);
+    fs.writeSync(this.fd, bytes, 0, first, HEADER_SIZE + start);
+    if (first < bytes.length) {
+      fs.writeSync(this.fd, bytes, first, bytes.length - first, HEADER_SIZE);
+    }
+    this.head += bytes.length;
+    return position;
+  }
+
+  close() {
+    fs.closeSync(this.fd);
+  }
+
+  private hasRoomFor(length: number) {
+    if (this.head + length - this.tail <= this.capacity) {
+      return true;
+    }
+    fs.readSync(this.fd, this.tailBytes, 0, 8, 0);
+    this.tail = Number(this.tailBytes.readBigInt64LE(0));
+    return this.head + length - this.tail <= this.capacity;
+  }
+}
+
+/**
+ * Wraps a WebSocket results channel so that file results are written into the shared results
+ * buffer, only their position being sent over the connection. Results that do not fit in the
+ * buffer are sent as binary Protobuf messages instead.
+ */
+export function withSharedFileResults(
+  channel: (result: WsMessage) => void,
+  writer: SharedResultsWriter,
+) {
+  return (result: WsIncrementalResult) => {
+    if (result.messageType !== 'fileResult') {
+      channel(result);
+      return;
+    }
+    const bytes = encodeFileResult(result);
+    const offset = writer.write(bytes);
+    channel(
+      offset === undefined
+        ? bytes
+        : {
+            messageType: 'sharedFileResult',
+            filename: result.filename,
+            offset,
+            length: bytes.length,
+          },
+    );
+  };
+}
@@ -21,7 +21,7 @@ import { Timeout } from './timeout.js';
  * Express.js middleware that timeouts after a lapse of time and triggers a function.
  * @param f the timeout function
  * @param delay the timeout delay
- * @returns the timeout middleware with capability to stop the internal timeout
+ * @returns the timeout middleware with capabilities to restart and stop the internal timeout
  */
 export function timeoutMiddleware(f: () => void, delay: number) {
   const timeout = new Timeout(f, delay);
@@ -39,6 +39,11 @@ export function timeoutMiddleware(f: () => void, delay: number) {
       }
       next();
     },
+    touch() {
+      if (!cancelled) {
+        timeout.start();
+      }
+    },
     cancel() {
       cancelled = true;
       timeout.stop();
@@ -16,7 +16,8 @@
  */
 import { parentPort, workerData } from 'node:worker_threads';
 import { handleRequest } from './handle-request.js';
-import type { BridgeRequest, WsIncrementalResult } from './request.js';
+import { recordHeartbeats } from './liveness.js';
+import type { BridgeRequest, WsMessage } from './request.js';
 
 /**
  * Code executed by the worker thread
@@ -25,16 +26,24 @@ if (parentPort) {
   const parentThread = parentPort;
   parentThread.on(
     'message',
-    async (message: (BridgeRequest | { type: 'close' }) & { ws?: boolean }) => {
-      const { type, ws } = message;
+    async (
+      message: (
+        | BridgeRequest
+        | { type: 'close' }
+        | { type: 'monitor-liveness'; buffer: SharedArrayBuffer }
+      ) & { ws?: boolean; id?: number },
+    ) => {
+      const { type, ws, id } = message;
       if (type === 'close') {
         parentThread.close();
+      } else if (type === 'monitor-liveness') {
+        recordHeartbeats(message.buffer);
       } else if (ws) {
-        await handleRequest(message, workerData, (results: WsIncrementalResult) =>
+        await handleRequest(message, workerData, (results: WsMessage) =>
           parentThread.postMessage({ ws: true, results }),
         );
       } else {
-        parentThread.postMessage(await handleRequest(message, workerData));
+        parentThread.postMessage({ ...(await handleRequest(message, workerData)), id });
       }
     },
   );
@@ -0,0 +1,99 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2025 SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+import { describe, it } from 'node:test';
+import { expect } from 'expect';
+import {
+  BATCH_WINDOW_MS,
+  MAX_BATCH_SIZE,
+  MAX_BATCHED_ENTRIES,
+  withBatchedFileResults,
+} from '../src/batched-results.js';
+import type { WsFileResult, WsMessage } from '../src/request.js';
+
+function fileResult(filename: string, issueCount = 0) {
+  return {
+    filename,
+    messageType: 'fileResult',
+    issues: Array.from({ length: issueCount }, () => ({ ruleId: 'S1234', line: 1 })),
+  } as unknown as WsFileResult;
+}
+
+describe('batched file results', () => {
+  it('should send small file results together', ({ mock }) => {
+    mock.timers.enable({ apis: ['setTimeout'] });
+    const messages: WsMessage[] = [];
+    const { channel } = withBatchedFileResults(message => messages.push(message));
+
+    channel(fileResult('/project/a.js'));
+    channel({ messageType: 'analyzing', filename: '/project/b.js' });
+    channel(fileResult('/project/b.js'));
+    expect(messages).toEqual([{ messageType: 'analyzing', filename: '/project/b.js' }]);
+
+    mock.timers.tick(BATCH_WINDOW_MS);
+    expect(messages.slice(1)).toEqual([
+      {
+        messageType: 'fileResults',
+        results: [fileResult('/project/a.js'), fileResult('/project/b.js')],
+      },
+    ]);
+  });
+
+  it('should send a file result alone within the batch window as usual', ({ mock }) => {
+    mock.timers.enable({ apis: ['setTimeout'] });
+    const messages: WsMessage[] = [];
+    const { channel } = withBatchedFileResults(message => messages.push(message));
+
+    channel(fileResult('/project/a.js'));
+    mock.timers.tick(BATCH_WINDOW_MS);
+
+    expect(messages).toEqual([fileResult('/project/a.js')]);
+  });
+
+  it('should send full batches right away', () => {
+    const messages: WsMessage[] = [];
+    const { channel } = withBatchedFileResults(message => messages.push(message));
+
+    for (let i = 0; i < MAX_BATCH_SIZE; i++) {
+      channel(fileResult(`/project/${i}.js`));
+    }
+
+    expect(messages).toHaveLength(1);
+    expect(messages[0]).toMatchObject({ messageType: 'fileResults' });
+    expect((messages[0] as { results: WsFileResult[] }).results).toHaveLength(MAX_BATCH_SIZE);
+  });
+
+  it('should keep the order of large results and other messages', () => {
+    const messages: WsMessage[] = [];
+    const { channel, flush } = withBatchedFileResults(message => messages.push(message));
+    const large = fileResult('/project/large.js', MAX_BATCHED_ENTRIES + 1);
+
+    channel(fileResult('/project/a.js'));
+    channel(large);
+    channel(fileResult('/project/b.js'));
+    channel({ messageType: 'meta', warnings: [] });
+    channel(fileResult('/project/c.js'));
+    flush();
+
+    expect(messages).toEqual([
+      fileResult('/project/a.js'),
+      large,
+      fileResult('/project/b.js'),
+      { messageType: 'meta', warnings: [] },
+      fileResult('/project/c.js'),
+    ]);
+  });
+});
@@ -0,0 +1,107 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2025 SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+import { describe, it } from 'node:test';
+import { expect } from 'expect';
+import {
+  encodeFileResult,
+  withBinaryFileResults,
+  withBinaryHookData,
+} from '../src/binary-result.js';
+import { bridge } from '../src/proto/file-result.js';
+import type { WsFileResult, WsMessage } from '../src/request.js';
+
+describe('binary file results', () => {
+  it('should encode file results with flattened locations', () => {
+    const result = {
+      filename: '/project/file.js',
+      messageType: 'fileResult',
+      issues: [
+        {
+          ruleId: 'S1234',
+          line: 1,
+          column: 2,
+          endLine: 1,
+          endColumn: 5,
+          message: 'message',
+          language: 'js',
+          secondaryLocations: [],
+          ruleESLintKeys: ['rule-key'],
+          filePath: '/project/file.js',
+        },
+      ],
+      highlights: [
+        { location: { startLine: 1, startCol: 0, endLine: 1, endCol: 8 }, textType: 'KEYWORD' },
+      ],
+      highlightedSymbols: [
+        {
+          declaration: { startLine: 1, startCol: 4, endLine: 1, endCol: 5 },
+          references: [{ startLine: 2, startCol: 0, endLine: 2, endCol: 1 }],
+        },
+      ],
+      metrics: { ncloc: [1, 2], nosonarLines: [], functions: 3 },
+      cpdTokens: [{ location: { startLine: 1, startCol: 0, endLine: 1, endCol: 3 }, image: 'var' }],
+      ast: new Uint8Array([8, 2]),
+    } as unknown as WsFileResult;
+
+    const decoded = bridge.FileResult.decode(encodeFileResult(result));
+
+    expect(decoded.filename).toEqual('/project/file.js');
+    expect(decoded.issues[0].ruleId).toEqual('S1234');
+    expect(decoded.issues[0].ruleEslintKeys).toEqual(['rule-key']);
+    expect(decoded.highlightLocations).toEqual([1, 0, 1, 8]);
+    expect(decoded.highlightTypes).toEqual([bridge.TextType.KEYWORD]);
+    expect(decoded.highlightedSymbols[0].declaration).toEqual([1, 4, 1, 5]);
+    expect(decoded.highlightedSymbols[0].references).toEqual([2, 0, 2, 1]);
+    expect(decoded.metrics?.ncloc).toEqual([1, 2]);
+    expect(decoded.cpdTokenLocations).toEqual([1, 0, 1, 3]);
+    expect(decoded.cpdTokenImages).toEqual(['var']);
+    expect(Array.from(decoded.ast)).toEqual([8, 2]);
+  });
+
+  it('should only encode file results', () => {
+    const messages: WsMessage[] = [];
+    const channel = withBinaryFileResults(message => messages.push(message));
+
+    channel({ messageType: 'fileResult', filename: '/project/file.js', issues: [] });
+    channel({ messageType: 'meta', warnings: [] });
+
+    expect(messages[0]).toBeInstanceOf(Uint8Array);
+    expect(messages[1]).toEqual({ messageType: 'meta', warnings: [] });
+  });
+
+  it('should only encode file results carrying hook data', () => {
+    const messages: WsMessage[] = [];
+    const channel = withBinaryHookData(message => messages.push(message));
+    const hookData = [{ name: 'hook', type: 'hook.Data', payload: new Uint8Array([8, 1]) }];
+
+    channel({ messageType: 'fileResult', filename: '/project/a.js', issues: [] });
+    channel({ messageType: 'fileResult', filename: '/project/b.js', issues: [], hookData });
+
+    expect(messages[0]).toEqual({
+      messageType: 'fileResult',
+      filename: '/project/a.js',
+      issues: [],
+    });
+    expect(messages[1]).toBeInstanceOf(Uint8Array);
+    const decoded = bridge.FileResult.decode(messages[1] as Uint8Array);
+    expect(decoded.filename).toEqual('/project/b.js');
+    expect(decoded.hookData).toHaveLength(1);
+    expect(decoded.hookData[0].name).toEqual('hook');
+    expect(decoded.hookData[0].type).toEqual('hook.Data');
+    expect(Array.from(decoded.hookData[0].payload)).toEqual([8, 1]);
+  });
+});
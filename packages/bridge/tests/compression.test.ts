@@ -0,0 +1,36 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2025 SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+import { describe, it } from 'node:test';
+import { expect } from 'expect';
+import { toJson } from '../src/compression.js';
+
+describe('compression', () => {
+  it('should encode binary fields in base64 in JSON messages', () => {
+    const json = toJson({
+      messageType: 'fileResults',
+      results: [
+        { filename: '/project/a.js', ast: new Uint8Array([8, 2]) },
+        { filename: '/project/b.js', ast: Buffer.from([8, 3]) },
+      ],
+    });
+
+    expect(JSON.parse(json).results).toEqual([
+      { filename: '/project/a.js', ast: Buffer.from([8, 2]).toString('base64') },
+      { filename: '/project/b.js', ast: Buffer.from([8, 3]).toString('base64') },
+    ]);
+  });
+});
@@ -0,0 +1,74 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2025 SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+import { describe, it } from 'node:test';
+import { expect } from 'expect';
+import {
+  endFiles,
+  isStreamingFiles,
+  openFileStream,
+  pushFiles,
+  type FileStream,
+} from '../src/file-stream.js';
+
+async function collect(stream: FileStream) {
+  const chunks = [];
+  for await (const chunk of stream) {
+    chunks.push(chunk);
+  }
+  return chunks;
+}
+
+describe('file stream', () => {
+  it('should detect streamed project analysis requests', () => {
+    expect(isStreamingFiles({ streamFiles: true })).toBe(true);
+    expect(isStreamingFiles({ files: {} })).toBe(false);
+    expect(isStreamingFiles(undefined)).toBe(false);
+  });
+
+  it('should yield chunks as they are received', async () => {
+    const stream = openFileStream();
+    const chunks = collect(stream);
+
+    pushFiles({ '/a.js': { filePath: '/a.js' } });
+    await new Promise(resolve => setImmediate(resolve));
+    pushFiles({ '/b.js': { filePath: '/b.js' } });
+    endFiles();
+
+    expect(await chunks).toEqual([
+      { '/a.js': { filePath: '/a.js' } },
+      { '/b.js': { filePath: '/b.js' } },
+    ]);
+    expect(stream.cancelled).toBe(false);
+  });
+
+  it('should end the stream on cancellation', async () => {
+    const stream = openFileStream();
+    const chunks = collect(stream);
+
+    pushFiles({ '/a.js': { filePath: '/a.js' } });
+    endFiles(true);
+
+    expect(await chunks).toEqual([{ '/a.js': { filePath: '/a.js' } }]);
+    expect(stream.cancelled).toBe(true);
+  });
+
+  it('should reject files without a pending analysis', () => {
+    expect(() => pushFiles({})).toThrow(
+      'Received project files while no project analysis is waiting for them',
+    );
+  });
+});
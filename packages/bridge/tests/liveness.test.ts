@@ -0,0 +1,49 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2025 SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+import { describe, it } from 'node:test';
+import { expect } from 'expect';
+import { setTimeout } from 'node:timers/promises';
+import type { Worker } from 'node:worker_threads';
+import { HEARTBEAT_INTERVAL_MS, monitorWorker, recordHeartbeats } from '../src/liveness.js';
+
+describe('liveness', () => {
+  it('should report how long the worker thread was blocked', async () => {
+    let buffer: SharedArrayBuffer | undefined;
+    const worker = {
+      postMessage: (message: { buffer: SharedArrayBuffer }) => (buffer = message.buffer),
+    };
+    const workerLag = monitorWorker(worker as unknown as Worker);
+    recordHeartbeats(buffer!);
+
+    block(5 * HEARTBEAT_INTERVAL_MS);
+    // the heartbeat of the blocked worker is overdue
+    expect(workerLag()).toBeGreaterThanOrEqual(3 * HEARTBEAT_INTERVAL_MS);
+
+    block(5 * HEARTBEAT_INTERVAL_MS);
+    await setTimeout(2 * HEARTBEAT_INTERVAL_MS);
+    // the late heartbeat recorded the lag once the worker was unblocked
+    expect(workerLag()).toBeGreaterThanOrEqual(3 * HEARTBEAT_INTERVAL_MS);
+    expect(workerLag()).toBeLessThan(3 * HEARTBEAT_INTERVAL_MS);
+  });
+});
+
+function block(ms: number) {
+  const start = Date.now();
+  while (Date.now() - start < ms) {
+    // keeps the event loop busy
+  }
+}
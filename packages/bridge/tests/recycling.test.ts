@@ -0,0 +1,69 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2025 SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+import { beforeEach, describe, it } from 'node:test';
+import { expect } from 'expect';
+import { withRecycling } from '../src/recycling.js';
+import {
+  isAnalysisStopped,
+  resetAnalysisStatus,
+} from '../../jsts/src/analysis/projectAnalysis/analyzeProject.js';
+import type { WsFileResult, WsIncrementalResult } from '../src/request.js';
+
+function fileResult(filename: string) {
+  return { filename, messageType: 'fileResult', issues: [] } as unknown as WsFileResult;
+}
+
+describe('recycling', () => {
+  beforeEach(() => {
+    resetAnalysisStatus();
+  });
+
+  it('should stop the analysis after the given number of files', () => {
+    const messages: WsIncrementalResult[] = [];
+    const channel = withRecycling(message => messages.push(message), 2, 0);
+
+    channel({ messageType: 'analyzing', filename: '/project/a.js' });
+    channel(fileResult('/project/a.js'));
+    expect(isAnalysisStopped()).toBe(false);
+
+    channel({ messageType: 'analyzing', filename: '/project/b.js' });
+    channel(fileResult('/project/b.js'));
+    expect(isAnalysisStopped()).toBe(true);
+    expect(messages).toEqual([
+      { messageType: 'analyzing', filename: '/project/a.js' },
+      fileResult('/project/a.js'),
+      { messageType: 'analyzing', filename: '/project/b.js' },
+      fileResult('/project/b.js'),
+    ]);
+  });
+
+  it('should stop the analysis once the heap usage reaches the watermark', () => {
+    const channel = withRecycling(() => {}, 0, Number.MIN_VALUE);
+
+    channel(fileResult('/project/a.js'));
+    expect(isAnalysisStopped()).toBe(true);
+  });
+
+  it('should never stop the analysis without thresholds', () => {
+    const send = () => {};
+    const channel = withRecycling(send, 0, 0);
+
+    expect(channel).toBe(send);
+    channel(fileResult('/project/a.js'));
+    expect(isAnalysisStopped()).toBe(false);
+  });
+});
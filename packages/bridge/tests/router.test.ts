@@ -106,6 +106,17 @@ describe('router', () => {
     });
   });
 
+  it('should send the results of concurrent requests to their own clients', async () => {
+    const filePath = path.join(fixtures, 'file.css');
+    const rules = [{ key: S5362.ruleName, configurations: [] }];
+    const [withRules, withoutRules] = await Promise.all([
+      request(server, '/analyze-css', 'POST', { filePath, rules }),
+      request(server, '/analyze-css', 'POST', { filePath, rules: [] }),
+    ]);
+    expect(JSON.parse(withRules as string).issues).toHaveLength(1);
+    expect(JSON.parse(withoutRules as string).issues).toHaveLength(0);
+  });
+
   it('should route /analyze-jsts requests', async () => {
     await requestInitLinter(server, [
       {
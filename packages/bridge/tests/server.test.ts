@@ -14,8 +14,10 @@
  * You should have received a copy of the Sonar Source-Available License
  * along with this program; if not, see https://sonarsource.com/license/ssal/
  */
-import { start } from '../src/server.js';
+import { readyMessage, start } from '../src/server.js';
 import * as path from 'node:path';
+import fs from 'node:fs/promises';
+import os from 'node:os';
 import { AddressInfo } from 'node:net';
 import { request } from './tools/index.js';
 import * as http from 'node:http';
@@ -27,6 +29,8 @@ import { join } from 'node:path/posix';
 import { normalizeToAbsolutePath } from '../../shared/src/helpers/files.js';
 import { BridgeRequest } from '../src/request.js';
 import { Worker } from 'node:worker_threads';
+import { WebSocket as WsClient } from 'ws';
+import { gunzipSync, gzipSync } from 'node:zlib';
 
 const workerPath = path.join(import.meta.dirname, '..', '..', '..', 'server.mjs');
 const port = 0;
@@ -54,6 +58,47 @@ describe('server', () => {
     await serverClosed;
   });
 
+  it('should listen to a unix domain socket', async () => {
+    const socketPath = path.join(
+      await fs.mkdtemp(path.join(os.tmpdir(), 'sonarjs-')),
+      'bridge.sock',
+    );
+    const { server, serverClosed } = await start(port, undefined, undefined, false, 0, socketPath);
+
+    expect(server.address()).toEqual(socketPath);
+    expect(await requestOverSocket(socketPath, '/status', 'GET')).toEqual('OK');
+
+    await requestOverSocket(socketPath, '/close', 'POST');
+    await serverClosed;
+  });
+
+  it('should announce its readiness with the bound port', async () => {
+    const { server, serverClosed } = await start(port);
+
+    const [token, announcement] = readyMessage(server).split(' ');
+    expect(token).toEqual('SONARJS_BRIDGE_READY');
+    expect(JSON.parse(announcement)).toEqual({
+      port: (server.address() as AddressInfo).port,
+      capabilities: expect.arrayContaining(['websocket']),
+    });
+
+    await request(server, '/close', 'POST');
+    await serverClosed;
+  });
+
+  it('should answer pings with its event loop lag', async t => {
+    for (const worker of [await createWorker(workerPath), undefined]) {
+      await t.test(worker ? 'with worker' : 'without worker', async () => {
+        const { server, serverClosed } = await start(port, '127.0.0.1', worker, false, 60_000);
+
+        expect(await pingBridge(server)).toEqual({ eventLoopLag: expect.any(Number) });
+
+        await request(server, '/close', 'POST');
+        await serverClosed;
+      });
+    }
+  });
+
   it('should fail when linter is not initialized', async () => {
     const { server, serverClosed } = await start(port);
 
@@ -138,6 +183,95 @@ describe('server', () => {
     }
   });
 
+  it('should route ws responses to their requests', async t => {
+    for (const worker of [await createWorker(workerPath), undefined]) {
+      await t.test(worker ? 'with worker' : 'without worker', async () => {
+        const { server, serverClosed } = await start(port, undefined, worker);
+        await requestInitLinter(server, 'MAIN', 'S1116');
+        const ws = new WsClient(`ws://127.0.0.1:${(server.address() as AddressInfo)?.port}/ws`);
+        await new Promise(resolve => ws.once('open', resolve));
+
+        const responses = new Map<number, unknown>();
+        const received = new Promise<void>(resolve =>
+          ws.on('message', data => {
+            const response = JSON.parse(data.toString());
+            responses.set(response.requestId, response);
+            if (responses.size === 3) {
+              resolve();
+            }
+          }),
+        );
+        const filePath = path.join(import.meta.dirname, 'fixtures', 'routing.js');
+        for (const requestId of [1, 2]) {
+          ws.send(
+            JSON.stringify({
+              type: 'on-analyze-jsts',
+              requestId,
+              data: { filePath, fileType: 'MAIN' },
+            }),
+          );
+        }
+        ws.send(JSON.stringify({ type: 'on-analyze-jsts', requestId: 3, data: {} }));
+        await received;
+        ws.close();
+
+        for (const requestId of [1, 2]) {
+          expect(responses.get(requestId)).toEqual(
+            expect.objectContaining({
+              messageType: 'response',
+              result: expect.objectContaining({
+                issues: [expect.objectContaining({ ruleId: 'S1116' })],
+              }),
+            }),
+          );
+        }
+        expect(responses.get(3)).toEqual(
+          expect.objectContaining({ messageType: 'response', error: expect.anything() }),
+        );
+        await request(server, '/close', 'POST');
+        await serverClosed;
+      });
+    }
+  });
+
+  it('should compress large payloads', async () => {
+    const { server, serverClosed } = await start(port);
+    await requestInitLinter(server, 'MAIN', 'S1116');
+
+    const filePath = path.join(import.meta.dirname, 'fixtures', 'routing.js');
+    const fileContent = ';\n'.repeat(1000);
+    const response = await new Promise<http.IncomingMessage>((resolve, reject) => {
+      const req = http.request(
+        {
+          host: '127.0.0.1',
+          port: (server.address() as AddressInfo).port,
+          path: '/analyze-jsts',
+          method: 'POST',
+          headers: {
+            'Content-Type': 'application/json',
+            'Content-Encoding': 'gzip',
+            'Accept-Encoding': 'gzip',
+          },
+        },
+        resolve,
+      );
+      req.on('error', reject);
+      req.end(gzipSync(JSON.stringify({ filePath, fileType: 'MAIN', fileContent })));
+    });
+    const chunks: Buffer[] = [];
+    for await (const chunk of response) {
+      chunks.push(chunk);
+    }
+
+    expect(response.headers['content-encoding']).toEqual('gzip');
+    const { issues } = JSON.parse(gunzipSync(Buffer.concat(chunks)).toString());
+    expect(issues.length).toBeGreaterThan(100);
+    expect(await request(server, '/status', 'GET')).toEqual('OK');
+
+    await request(server, '/close', 'POST');
+    await serverClosed;
+  });
+
   it('should log memory', async ({ mock }) => {
     console.log = mock.fn(console.log);
     const { server, serverClosed } = await start(port, undefined, undefined, true);
@@ -225,6 +359,25 @@ describe('server', () => {
     await serverClosed;
   });
 
+  it('should report the file being analyzed when the worker dies', async () => {
+    const worker = await createWorker(workerPath);
+    const { server, serverClosed } = await start(port, '127.0.0.1', worker);
+    const ws = new WsClient(`ws://127.0.0.1:${(server.address() as AddressInfo)?.port}/ws`);
+    await new Promise(resolve => ws.once('open', resolve));
+    const crash = new Promise(resolve =>
+      ws.once('message', data => resolve(JSON.parse(data.toString()))),
+    );
+
+    worker.emit('message', {
+      ws: true,
+      results: { messageType: 'analyzing', filename: '/project/file.ts' },
+    });
+    await worker.terminate();
+
+    expect(await crash).toEqual({ messageType: 'crash', filename: '/project/file.ts' });
+    await serverClosed;
+  });
+
   it('should timeout', async ({ mock }) => {
     console.log = mock.fn(console.log);
     mock.timers.enable({ apis: ['setTimeout'] });
@@ -276,6 +429,16 @@ describe('server', () => {
   });
 });
 
+async function pingBridge(server: http.Server) {
+  const ws = new WsClient(`ws://127.0.0.1:${(server.address() as AddressInfo)?.port}/ws`);
+  await new Promise(resolve => ws.once('open', resolve));
+  const pong = new Promise<Buffer>(resolve => ws.once('pong', resolve));
+  ws.ping();
+  const data = await pong;
+  ws.close();
+  return JSON.parse(data.toString('utf8'));
+}
+
 async function testWSWithTypedRequest(worker: Worker | undefined, requestData: BridgeRequest) {
   return await testWSWithWorker(worker, JSON.stringify(requestData));
 }
@@ -314,6 +477,18 @@ async function testWSWithWorker(worker: Worker | undefined, requestJSON: string)
   };
 }
 
+function requestOverSocket(socketPath: string, path: string, method: string) {
+  return new Promise<string>((resolve, reject) => {
+    const req = http.request({ socketPath, path, method }, res => {
+      let data = '';
+      res.on('data', chunk => (data += chunk));
+      res.on('end', () => resolve(data));
+    });
+    req.on('error', reject);
+    req.end();
+  });
+}
+
 async function requestAnalyzeJs(server: http.Server, fileType: string) {
   const filePath = path.join(import.meta.dirname, 'fixtures', 'routing.js');
   const analysisInput = { filePath, fileType };
@@ -0,0 +1,95 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2025 SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+import { describe, it } from 'node:test';
+import { expect } from 'expect';
+import fs from 'node:fs';
+import os from 'node:os';
+import path from 'node:path';
+import { HEADER_SIZE, SharedResultsWriter, withSharedFileResults } from '../src/shared-results.js';
+import { encodeFileResult } from '../src/binary-result.js';
+import { bridge } from '../src/proto/file-result.js';
+import type { WsFileResult, WsMessage } from '../src/request.js';
+
+function createBuffer(capacity: number) {
+  const file = path.join(fs.mkdtempSync(path.join(os.tmpdir(), 'shared-results-')), 'results');
+  fs.writeFileSync(file, Buffer.alloc(HEADER_SIZE + capacity));
+  return { path: file, size: HEADER_SIZE + capacity };
+}
+
+function setReadPosition(file: string, position: number) {
+  const header = Buffer.alloc(8);
+  header.writeBigInt64LE(BigInt(position));
+  const fd = fs.openSync(file, 'r+');
+  fs.writeSync(fd, header, 0, 8, 0);
+  fs.closeSync(fd);
+}
+
+describe('shared file results', () => {
+  it('should write results around the ring once the plugin has read them', () => {
+    const buffer = createBuffer(16);
+    const writer = SharedResultsWriter.open(buffer)!;
+
+    expect(writer.write(Buffer.alloc(10, 1))).toEqual(0);
+    expect(writer.write(Buffer.alloc(10, 2))).toBeUndefined();
+
+    setReadPosition(buffer.path, 10);
+    expect(writer.write(Buffer.alloc(10, 2))).toEqual(10);
+    writer.close();
+
+    const data = fs.readFileSync(buffer.path).subarray(HEADER_SIZE);
+    expect([...data]).toEqual([2, 2, 2, 2, 1, 1, 1, 1, 1, 1, 2, 2, 2, 2, 2, 2]);
+  });
+
+  it('should announce the position of file results', () => {
+    const buffer = createBuffer(1024);
+    const writer = SharedResultsWriter.open(buffer)!;
+    const messages: WsMessage[] = [];
+    const channel = withSharedFileResults(message => messages.push(message), writer);
+    const result = {
+      filename: '/project/file.js',
+      messageType: 'fileResult',
+      metrics: { ncloc: [1], functions: 1 },
+    } as unknown as WsFileResult;
+
+    channel(result);
+    channel({ messageType: 'meta', warnings: [] });
+    writer.close();
+
+    const { length } = encodeFileResult(result);
+    expect(messages).toEqual([
+      { messageType: 'sharedFileResult', filename: '/project/file.js', offset: 0, length },
+      { messageType: 'meta', warnings: [] },
+    ]);
+    const bytes = fs.readFileSync(buffer.path).subarray(HEADER_SIZE, HEADER_SIZE + length);
+    expect(bridge.FileResult.decode(bytes).filename).toEqual('/project/file.js');
+  });
+
+  it('should send results over the connection when the buffer is full', () => {
+    const writer = SharedResultsWriter.open(createBuffer(4))!;
+    const messages: WsMessage[] = [];
+    const result = { filename: '/project/file.js', messageType: 'fileResult' } as WsFileResult;
+
+    withSharedFileResults(message => messages.push(message), writer)(result);
+    writer.close();
+
+    expect(messages).toEqual([encodeFileResult(result)]);
+  });
+
+  it('should not fail when the buffer cannot be opened', () => {
+    expect(SharedResultsWriter.open({ path: '/non/existing/file', size: 1024 })).toBeUndefined();
+  });
+});
@@ -22,6 +22,7 @@ import type { SymbolHighlight } from '../linter/visitors/symbol-highlighting.js'
 import type { Metrics } from '../linter/visitors/metrics/metrics.js';
 import type { CpdToken } from '../linter/visitors/cpd.js';
 import type { JsTsIssue } from '../linter/issues/issue.js';
+import type { HookData } from '../linter/hook-data.js';
 import type { CssIssue } from '../../../css/src/linter/issues/issue.js';
 import type { Program } from 'typescript';
 
@@ -100,5 +101,6 @@ export interface JsTsAnalysisOutput extends AnalysisOutput<JsTsIssue | CssIssue>
   highlightedSymbols?: SymbolHighlight[];
   metrics?: Metrics;
   cpdTokens?: CpdToken[];
-  ast?: string; // Base64 encoded Protobuf binary representation
+  ast?: Uint8Array; // Protobuf binary representation, base64 encoded in JSON messages
+  hookData?: HookData[]; // Only sent in binary file results
 }
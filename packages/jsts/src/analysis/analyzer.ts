@@ -67,7 +67,7 @@ export async function analyzeJSTS(
       debug('Clearing dependencies cache');
       clearDependenciesCache();
     }
-    const { issues, highlightedSymbols, cognitiveComplexity } = Linter.lint(
+    const { issues, highlightedSymbols, cognitiveComplexity, hookData } = Linter.lint(
       parseResult,
       filePath,
       fileType,
@@ -85,6 +85,7 @@ export async function analyzeJSTS(
     const result = {
       issues,
       ...extendedMetrics,
+      ...(hookData && { hookData }),
     };
 
     if (!input.skipAst) {
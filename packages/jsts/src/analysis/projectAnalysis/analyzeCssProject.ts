@@ -0,0 +1,99 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2025 SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+import {
+  type FileResult,
+  type ProjectAnalysisOutput,
+  createFileResults,
+} from './projectAnalysis.js';
+import { handleFileResult } from './handleFileResult.js';
+import { isAnalysisCancelled, resetAnalysisStatus, waitForNextFile } from './analyzeProject.js';
+import { handleError } from '../../../../bridge/src/errors/index.js';
+import { type WsIncrementalResult, serializeError } from '../../../../bridge/src/request.js';
+import { analyzeCSS } from '../../../../css/src/analysis/analyzer.js';
+import type { RuleConfig as CssRuleConfig } from '../../../../css/src/linter/config.js';
+import { linter as cssLinter } from '../../../../css/src/linter/wrapper.js';
+import {
+  type Configuration,
+  getShouldIgnoreParams,
+} from '../../../../shared/src/helpers/configuration.js';
+import { error } from '../../../../shared/src/helpers/logging.js';
+import { sanitizeRawInputFiles } from '../../../../shared/src/helpers/sanitize.js';
+
+/**
+ * Analyzes the stylesheets of a project, including the style blocks of web and Vue files,
+ * in a single run
+ *
+ * Unlike analyzeProject, no TypeScript program is involved: the CSS linter is initialized once
+ * with the active rules, and each file is linted as soon as the chunk including it is received.
+ *
+ * @param cssRules the active CSS rules
+ * @param configuration the configuration instance with analysis settings
+ * @param fileChunks the raw input files to analyze, possibly received in several chunks
+ * @param incrementalResultsChannel if provided, a function to send results incrementally after each analyzed file
+ * @returns the CSS project analysis output
+ */
+export async function analyzeCssProject(
+  cssRules: CssRuleConfig[],
+  configuration: Configuration,
+  fileChunks: AsyncIterable<Record<string, unknown>> | Iterable<Record<string, unknown>>,
+  incrementalResultsChannel?: (result: WsIncrementalResult) => void,
+): Promise<ProjectAnalysisOutput> {
+  resetAnalysisStatus();
+  const results: ProjectAnalysisOutput = {
+    files: createFileResults(),
+    meta: {
+      warnings: [],
+    },
+  };
+  const shouldIgnoreParams = getShouldIgnoreParams(configuration);
+  cssLinter.initialize(cssRules);
+  // Without any active rule, the linter has no stored configuration to fall back on
+  const rules = cssLinter.isInitialized() ? undefined : cssRules;
+
+  chunks: for await (const chunk of fileChunks) {
+    const files = await sanitizeRawInputFiles(chunk, configuration);
+    for (const file of Object.values(files)) {
+      await waitForNextFile();
+      if (isAnalysisCancelled()) {
+        break chunks;
+      }
+      let result: FileResult;
+      try {
+        result = await analyzeCSS(
+          {
+            filePath: file.filePath,
+            fileContent: file.fileContent,
+            sonarlint: configuration.sonarlint,
+            rules,
+          },
+          shouldIgnoreParams,
+        );
+      } catch (e) {
+        result = handleError(serializeError(e));
+      }
+      handleFileResult(result, file.filePath, results, incrementalResultsChannel);
+    }
+  }
+
+  if (isAnalysisCancelled()) {
+    error('Analysis has been cancelled');
+    incrementalResultsChannel?.({ messageType: 'cancelled' });
+  } else {
+    incrementalResultsChannel?.({ ...results.meta, messageType: 'meta' });
+  }
+  return results;
+}
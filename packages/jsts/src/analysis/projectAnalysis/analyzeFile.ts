@@ -38,6 +38,7 @@ import type { ShouldIgnoreFileParams } from '../../../../shared/src/helpers/filt
 import { analyzeCSS } from '../../../../css/src/analysis/analyzer.js';
 import { linter as cssLinter } from '../../../../css/src/linter/wrapper.js';
 import { error } from '../../../../shared/src/helpers/logging.js';
+import { waitForNextFile } from './analyzeProject.js';
 
 /**
  * Analyzes a single file, optionally with a TypeScript program for type-checking.
@@ -69,7 +70,9 @@ export async function analyzeFile(
   progressReport: ProgressReport,
   incrementalResultsChannel?: (result: WsIncrementalResult) => void,
 ) {
+  await waitForNextFile();
   progressReport.nextFile(fileName);
+  incrementalResultsChannel?.({ messageType: 'analyzing', filename: fileName });
 
   // Extract shouldIgnoreParams separately as it's not part of JsTsAnalysisInput
   const { shouldIgnoreParams, ...jsTsConfigFields } = configFields;
@@ -35,18 +35,101 @@ import { setSourceFilesContext } from '../../program/cache/sourceFileCache.js';
 import { sourceFileStore } from './file-stores/index.js';
 import type { NormalizedAbsolutePath } from '../../../../shared/src/helpers/files.js';
 
-const analysisStatus = {
+const analysisStatus: {
+  cancelled: boolean;
+  recycling: boolean;
+  paused?: { promise: Promise<void>; resume: () => void };
+} = {
   cancelled: false,
+  recycling: false,
 };
 
+/**
+ * Clears the cancellation, recycling and pause state left over by a previous analysis
+ */
+export function resetAnalysisStatus() {
+  analysisStatus.cancelled = false;
+  analysisStatus.recycling = false;
+  resumeAnalysis();
+}
+
 export function cancelAnalysis() {
   analysisStatus.cancelled = true;
+  resumeAnalysis();
 }
 
 export function isAnalysisCancelled() {
   return analysisStatus.cancelled;
 }
 
+/**
+ * Stops the analysis before the next file, so that the plugin restarts the bridge and analyzes
+ * the remaining files with a fresh heap.
+ */
+export function recycleAnalysis() {
+  analysisStatus.recycling = true;
+}
+
+/**
+ * Whether the analysis should stop before the next file, because it was either cancelled or
+ * stopped for recycling
+ */
+export function isAnalysisStopped() {
+  return analysisStatus.cancelled || analysisStatus.recycling;
+}
+
+/**
+ * Pauses the analysis before the next file, used by the plugin as backpressure
+ * when it cannot keep up with the incoming file results.
+ */
+export function pauseAnalysis() {
+  if (!analysisStatus.paused) {
+    let resume = () => {};
+    const promise = new Promise<void>(resolve => (resume = resolve));
+    analysisStatus.paused = { promise, resume };
+  }
+}
+
+export function resumeAnalysis() {
+  analysisStatus.paused?.resume();
+  analysisStatus.paused = undefined;
+}
+
+/**
+ * Interactive requests, e.g. the analysis of the file a developer just saved, are served before
+ * the next file of a running project analysis, which waits until none of them is pending.
+ */
+const interactiveLane: { pending: number; idle: Promise<void>; release: () => void } = {
+  pending: 0,
+  idle: Promise.resolve(),
+  release: () => {},
+};
+
+export async function runInteractively<T>(task: () => Promise<T>): Promise<T> {
+  if (interactiveLane.pending++ === 0) {
+    interactiveLane.idle = new Promise<void>(resolve => (interactiveLane.release = resolve));
+  }
+  try {
+    return await task();
+  } finally {
+    if (--interactiveLane.pending === 0) {
+      interactiveLane.release();
+    }
+  }
+}
+
+/**
+ * Resolves once the next file of the analysis can be analyzed, i.e. when the analysis is not
+ * paused and no interactive request is pending. It first yields to the event loop, so that the
+ * requests received while analyzing the previous file get dispatched.
+ */
+export async function waitForNextFile() {
+  await new Promise(resolve => setImmediate(resolve));
+  while (analysisStatus.paused || interactiveLane.pending) {
+    await (analysisStatus.paused?.promise ?? interactiveLane.idle);
+  }
+}
+
 /**
  * Analyzes a JavaScript / TypeScript project in a single run
  *
@@ -60,8 +143,8 @@ export async function analyzeProject(
   configuration: Configuration,
   incrementalResultsChannel?: (result: WsIncrementalResult) => void,
 ): Promise<ProjectAnalysisOutput> {
-  analysisStatus.cancelled = false;
-  const { rules, bundles, rulesWorkdir } = input;
+  resetAnalysisStatus();
+  const { rules, bundles, rulesWorkdir, rulesFingerprint } = input;
   const filesToAnalyze = sourceFileStore.getFiles();
 
   // All files go into pendingFiles — analyzeFile decides per-file whether to
@@ -77,15 +160,18 @@ export async function analyzeProject(
   const { baseDir, environments, globals, sonarlint, canAccessFileSystem } = configuration;
   const jsTsConfigFields = getJsTsConfigFields(configuration);
   setSourceFilesContext(filesToAnalyze);
-  await Linter.initialize({
-    rules,
-    environments,
-    globals,
-    sonarlint,
-    bundles,
-    baseDir,
-    rulesWorkdir,
-  });
+  await Linter.initialize(
+    {
+      rules,
+      environments,
+      globals,
+      sonarlint,
+      bundles,
+      baseDir,
+      rulesWorkdir,
+    },
+    rulesFingerprint,
+  );
 
   // Initialize CSS linter with active CSS rules (mirrors Linter.initialize for JS/TS).
   // Always called to reset state between analysis runs: when cssRules is empty,
@@ -117,7 +203,7 @@ export async function analyzeProject(
         incrementalResultsChannel,
       );
     }
-    if (pendingFiles.size) {
+    if (pendingFiles.size && !isAnalysisStopped()) {
       info(
         `Found ${pendingFiles.size} file(s) not part of any tsconfig.json: they will be analyzed without type information`,
       );
@@ -136,6 +222,9 @@ export async function analyzeProject(
   if (analysisStatus.cancelled) {
     error('Analysis has been cancelled');
     incrementalResultsChannel?.({ messageType: 'cancelled' });
+  } else if (analysisStatus.recycling) {
+    info(`Stopping the analysis to recycle the bridge, ${pendingFiles.size} file(s) remaining`);
+    incrementalResultsChannel?.({ ...results.meta, messageType: 'recycle' });
   } else {
     incrementalResultsChannel?.({ ...results.meta, messageType: 'meta' });
   }
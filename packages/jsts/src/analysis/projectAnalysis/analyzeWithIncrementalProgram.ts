@@ -19,7 +19,7 @@ import { isJsTsFile } from '../../../../shared/src/helpers/configuration.js';
 import { tsConfigStore } from './file-stores/index.js';
 import type { ProgressReport } from '../../../../shared/src/helpers/progress-report.js';
 import type { WsIncrementalResult } from '../../../../bridge/src/request.js';
-import { isAnalysisCancelled } from './analyzeProject.js';
+import { isAnalysisStopped } from './analyzeProject.js';
 import { error, info, warn } from '../../../../shared/src/helpers/logging.js';
 import { analyzeFile } from './analyzeFile.js';
 import { dirname } from 'node:path/posix';
@@ -70,7 +70,7 @@ export async function analyzeWithIncrementalProgram(
 
   const foundProgramOptions: ProgramOptions[] = [];
   for (const filename of rootNames) {
-    if (isAnalysisCancelled()) {
+    if (isAnalysisStopped()) {
       return;
     }
 
@@ -21,7 +21,7 @@ import { tsConfigStore } from './file-stores/index.js';
 import ts from 'typescript';
 import type { ProgressReport } from '../../../../shared/src/helpers/progress-report.js';
 import type { WsIncrementalResult } from '../../../../bridge/src/request.js';
-import { isAnalysisCancelled } from './analyzeProject.js';
+import { isAnalysisStopped } from './analyzeProject.js';
 import { isJsTsFile } from '../../../../shared/src/helpers/configuration.js';
 import merge from 'lodash.merge';
 import type { NormalizedAbsolutePath } from '../../../../shared/src/helpers/files.js';
@@ -70,7 +70,7 @@ export async function analyzeWithProgram(
   // When a tsconfig has project references, we add them via addDiscoveredTsConfig(),
   // and they will be included in this iteration since getTsConfigs() returns a live iterable.
   for (const tsConfig of tsconfigs) {
-    if (isAnalysisCancelled()) {
+    if (isAnalysisStopped()) {
       return;
     }
     if (!pendingFiles.size) {
@@ -161,7 +161,7 @@ async function analyzeFilesFromEntryPoint(
   const tsProgram = createStandardProgram(programOptions);
 
   for (const fileName of rootNames) {
-    if (isAnalysisCancelled()) {
+    if (isAnalysisStopped()) {
       return;
     }
 
@@ -239,7 +239,7 @@ async function analyzeFilesFromTsConfig(
 
   // Analyze each file using the same program
   for (const fileName of filesToAnalyze) {
-    if (isAnalysisCancelled()) {
+    if (isAnalysisStopped()) {
       return;
     }
 
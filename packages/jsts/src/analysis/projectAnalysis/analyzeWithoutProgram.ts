@@ -20,7 +20,7 @@ import { debug, warn } from '../../../../shared/src/helpers/logging.js';
 import { relative } from 'node:path/posix';
 import type { ProgressReport } from '../../../../shared/src/helpers/progress-report.js';
 import type { WsIncrementalResult } from '../../../../bridge/src/request.js';
-import { isAnalysisCancelled } from './analyzeProject.js';
+import { isAnalysisStopped } from './analyzeProject.js';
 import { analyzeFile } from './analyzeFile.js';
 import type { NormalizedAbsolutePath } from '../../rules/helpers/index.js';
 
@@ -46,7 +46,7 @@ export async function analyzeWithoutProgram(
 ) {
   const { jsSuffixes, tsSuffixes, cssSuffixes } = jsTsConfigFields.shouldIgnoreParams;
   for (const filename of filenames) {
-    if (isAnalysisCancelled()) {
+    if (isAnalysisStopped()) {
       return;
     }
     const relativePath = relative(baseDir, filename);
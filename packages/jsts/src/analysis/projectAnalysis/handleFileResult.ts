@@ -15,6 +15,7 @@
  * along with this program; if not, see https://sonarsource.com/license/ssal/
  */
 import type { FileResult, ProjectAnalysisOutput } from './projectAnalysis.js';
+import type { JsTsAnalysisOutput } from '../analysis.js';
 import type { WsIncrementalResult } from '../../../../bridge/src/request.js';
 import type { NormalizedAbsolutePath } from '../../rules/helpers/index.js';
 
@@ -31,6 +32,8 @@ export function handleFileResult(
       messageType: 'fileResult',
     });
   } else {
+    // hook data is only delivered through binary file results
+    delete (result as JsTsAnalysisOutput).hookData;
     results.files[filename] = result;
   }
 }
@@ -115,4 +115,5 @@ export type ProjectAnalysisInput = {
   cssRules?: CssRuleConfig[];
   bundles: NormalizedAbsolutePath[];
   rulesWorkdir?: NormalizedAbsolutePath;
+  rulesFingerprint?: string;
 };
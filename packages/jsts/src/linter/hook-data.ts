@@ -0,0 +1,38 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2025 SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+/**
+ * A named payload published by an ESLint hook for the file being linted
+ *
+ * The payload is typically a serialized Protobuf message, whose type tells the plugin how to
+ * decode it. Hook data is only delivered through binary file results of project analyses, as
+ * JSON messages cannot carry raw bytes.
+ *
+ * @param name the name of the payload, e.g. the key of the hook
+ * @param type the type of the payload, e.g. the fully qualified name of a Protobuf message
+ * @param payload the bytes of the payload
+ */
+export type HookData = { name: string; type: string; payload: Uint8Array };
+
+/**
+ * The key of the rule context settings where ESLint hooks find the function publishing
+ * hook data for the file being linted:
+ *
+ * ```js
+ * context.settings.publishHookData?.({ name, type, payload });
+ * ```
+ */
+export const PUBLISH_HOOK_DATA = 'publishHookData';
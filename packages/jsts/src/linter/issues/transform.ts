@@ -20,6 +20,7 @@ import type { JsTsIssue } from './issue.js';
 import { convertMessage } from './message.js';
 import { extractCognitiveComplexity, extractHighlightedSymbols } from './extract.js';
 import type { SymbolHighlight } from '../visitors/symbol-highlighting.js';
+import type { HookData } from '../hook-data.js';
 import type { JsTsLanguage } from '../../../../shared/src/helpers/configuration.js';
 import { type SonarMeta, type NormalizedAbsolutePath } from '../../rules/helpers/index.js';
 
@@ -35,11 +36,13 @@ import { type SonarMeta, type NormalizedAbsolutePath } from '../../rules/helpers
  * @param issues the issues found in the code
  * @param highlightedSymbols the symbol highlighting of the code
  * @param cognitiveComplexity the cognitive complexity of the code
+ * @param hookData the data published by ESLint hooks, if any
  */
 export type LintingResult = {
   issues: JsTsIssue[];
   highlightedSymbols: SymbolHighlight[];
   cognitiveComplexity?: number;
+  hookData?: HookData[];
 };
 
 /**
@@ -21,6 +21,7 @@ import type { CustomRule } from './custom-rules/custom-rule.js';
 import type { JsTsLanguage } from '../../../shared/src/helpers/configuration.js';
 import type { FileType } from '../../../shared/src/helpers/files.js';
 import { type LintingResult, transformMessages } from './issues/transform.js';
+import { type HookData, PUBLISH_HOOK_DATA } from './hook-data.js';
 import { customRules } from './custom-rules/rules.js';
 import * as internalRules from '../rules/rules.js';
 import {
@@ -53,6 +54,23 @@ interface InitializeParams {
   rulesWorkdir?: NormalizedAbsolutePath;
 }
 
+/**
+ * The state of the linter for a given configuration
+ */
+interface LinterState {
+  linter: ESLintLinter;
+  ruleConfigs: RuleConfig[] | undefined;
+  globals: Map<string, ESLintLinter.GlobalConf>;
+  rulesWorkdir?: NormalizedAbsolutePath;
+  sonarlint: boolean;
+  baseDir: NormalizedAbsolutePath;
+}
+
+/**
+ * The maximum number of configurations whose linter is kept for reuse
+ */
+const MAX_LINTER_STATES = 4;
+
 /**
  * A singleton ESLint linter
  *
@@ -104,6 +122,10 @@ export class Linter {
   /** whether we are running in sonarlint context */
   private static sonarlint: boolean;
   private static baseDir: NormalizedAbsolutePath;
+  /** The fingerprint of the current configuration, if any */
+  private static fingerprint?: string;
+  /** The recently initialized configurations, keyed by fingerprint, least recently used first */
+  private static readonly states: Map<string, LinterState> = new Map();
 
   /** Linter is a static class and cannot be instantiated */
   private constructor() {
@@ -126,16 +148,24 @@ export class Linter {
    * @param bundles paths to external rule bundles to import
    * @param baseDir the working directory
    * @param rulesWorkdir the working directory for rules accessing FS (architecture, dbd)
+   * @param fingerprint the fingerprint of the configuration, computed by the plugin, which
+   *                    allows reusing the linter of a configuration that was initialized before
    */
-  static async initialize({
-    rules,
-    environments = [],
-    globals = [],
-    sonarlint = false,
-    bundles = [],
-    baseDir,
-    rulesWorkdir,
-  }: InitializeParams) {
+  static async initialize(
+    {
+      rules,
+      environments = [],
+      globals = [],
+      sonarlint = false,
+      bundles = [],
+      baseDir,
+      rulesWorkdir,
+    }: InitializeParams,
+    fingerprint?: string,
+  ) {
+    if (fingerprint !== undefined && Linter.reuse(fingerprint)) {
+      return;
+    }
     debug(`Initializing linter with ${rules?.map(rule => rule.key)}`);
     Linter.ruleConfigs = rules;
     Linter.sonarlint = sonarlint;
@@ -152,6 +182,55 @@ export class Linter {
     for (const ruleBundle of bundles) {
       await Linter.loadRulesFromBundle(ruleBundle);
     }
+    Linter.fingerprint = fingerprint;
+    if (fingerprint !== undefined) {
+      Linter.states.set(fingerprint, {
+        linter: Linter.linter,
+        ruleConfigs: rules,
+        globals: new Map(Linter.globals),
+        rulesWorkdir,
+        sonarlint,
+        baseDir,
+      });
+      const oldest = Linter.states.keys().next().value;
+      if (Linter.states.size > MAX_LINTER_STATES && oldest) {
+        Linter.states.delete(oldest);
+      }
+    }
+  }
+
+  /**
+   * Switches to the linter of a configuration that was initialized before
+   *
+   * The rules configurations are recomputed lazily, as they depend on the
+   * dependencies declared in package.json files, which may have changed since.
+   *
+   * @param fingerprint the fingerprint of the configuration
+   * @returns false if the configuration is unknown and must be provided in full
+   */
+  static reuse(fingerprint: string): boolean {
+    const state = Linter.states.get(fingerprint);
+    if (!state) {
+      return false;
+    }
+    debug(`Reusing linter of configuration ${fingerprint}`);
+    // moves the configuration to the most recently used position
+    Linter.states.delete(fingerprint);
+    Linter.states.set(fingerprint, state);
+    if (Linter.fingerprint !== fingerprint) {
+      Linter.linter = state.linter;
+      Linter.ruleConfigs = state.ruleConfigs;
+      Linter.rulesWorkdir = state.rulesWorkdir;
+      Linter.sonarlint = state.sonarlint;
+      Linter.baseDir = state.baseDir;
+      Linter.globals.clear();
+      for (const [global, value] of state.globals) {
+        Linter.globals.set(global, value);
+      }
+      Linter.fingerprint = fingerprint;
+    }
+    Linter.rulesConfigCache.clear();
+    return true;
   }
 
   private static async loadRulesFromBundle(ruleBundle: NormalizedAbsolutePath) {
@@ -188,6 +267,7 @@ export class Linter {
     if (!Linter.linter) {
       throw APIError.linterError(`Linter does not exist. Did you call /init-linter?`);
     }
+    const hookData: HookData[] = [];
     const config = {
       languageOptions: {
         globals: Object.fromEntries(Linter.globals),
@@ -209,12 +289,14 @@ export class Linter {
         fileType,
         sonarRuntime: true,
         workDir: Linter.rulesWorkdir,
+        [PUBLISH_HOOK_DATA]: (data: HookData) => hookData.push(data),
       },
       files: [`**/*${path.posix.extname(normalizePath(filePath))}`],
     };
 
     const messages = Linter.linter.verify(sourceCode, config, createOptions(filePath));
-    return transformMessages(messages, language, { sourceCode, ruleMetas, filePath });
+    const result = transformMessages(messages, language, { sourceCode, ruleMetas, filePath });
+    return hookData.length > 0 ? { ...result, hookData } : result;
   }
 
   /**
@@ -29,7 +29,7 @@ const unsupportedNodeTypes = new Map<string, number>();
 export function serializeInProtobuf(
   ast: TSESTree.Program,
   filePath: NormalizedAbsolutePath,
-): string {
+): Uint8Array {
   unsupportedNodeTypes.clear();
   const protobufAST = parseInProtobuf(ast);
   if (unsupportedNodeTypes.size > 0) {
@@ -40,8 +40,7 @@ export function serializeInProtobuf(
           .join(', '),
     );
   }
-  const binaryArray = NODE_TYPE.encode(NODE_TYPE.create(protobufAST)).finish();
-  return base64.encode(binaryArray, 0, binaryArray.length);
+  return NODE_TYPE.encode(NODE_TYPE.create(protobufAST)).finish();
 }
 
 /**
@@ -55,7 +54,10 @@ export function parseInProtobuf(ast: TSESTree.Program) {
 /**
  * Only used for tests
  */
-export function deserializeProtobuf(serialized: string): any {
+export function deserializeProtobuf(serialized: string | Uint8Array): any {
+  if (serialized instanceof Uint8Array) {
+    return NODE_TYPE.decode(serialized);
+  }
   const computedLength = base64.length(serialized);
   const buffer = new Uint8Array(computedLength);
   base64.decode(serialized, buffer, 0);
@@ -0,0 +1,97 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2025 SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+import { describe, it } from 'node:test';
+import { expect } from 'expect';
+import { join } from 'node:path/posix';
+import { normalizePath, normalizeToAbsolutePath } from '../../src/rules/helpers/index.js';
+import { analyzeCssProject } from '../../src/analysis/projectAnalysis/analyzeCssProject.js';
+import { cancelAnalysis } from '../../src/analysis/projectAnalysis/analyzeProject.js';
+import { sanitizeCssProjectAnalysisInput } from '../../../shared/src/helpers/sanitize.js';
+import type { WsIncrementalResult } from '../../../bridge/src/request.js';
+
+const fixtures = normalizePath(
+  join(import.meta.dirname, '..', '..', '..', 'css', 'tests', 'analysis', 'fixtures'),
+);
+
+const cssRules = [{ key: 'block-no-empty', configurations: [] }];
+
+describe('analyzeCssProject', () => {
+  it('should analyze stylesheets received in several chunks', async () => {
+    const file = join(fixtures, 'file.css');
+    const malformed = join(fixtures, 'malformed.css');
+    const { configuration } = sanitizeCssProjectAnalysisInput({
+      configuration: { baseDir: fixtures },
+    });
+    const messages: WsIncrementalResult[] = [];
+
+    await analyzeCssProject(
+      cssRules,
+      configuration,
+      [{ [file]: { filePath: file } }, { [malformed]: { filePath: malformed } }],
+      message => messages.push(message),
+    );
+
+    expect(messages).toEqual([
+      {
+        filename: normalizeToAbsolutePath(file),
+        messageType: 'fileResult',
+        issues: [expect.objectContaining({ ruleId: 'block-no-empty', line: 1 })],
+      },
+      {
+        filename: normalizeToAbsolutePath(malformed),
+        messageType: 'fileResult',
+        issues: [expect.objectContaining({ ruleId: 'CssSyntaxError' })],
+      },
+      { messageType: 'meta', warnings: [] },
+    ]);
+  });
+
+  it('should return the results when no channel is provided', async () => {
+    const file = join(fixtures, 'file.css');
+    const { cssRules: rules, files, configuration } = sanitizeCssProjectAnalysisInput({
+      configuration: { baseDir: fixtures },
+      cssRules,
+      files: { [file]: { filePath: file, fileContent: 'a {}' } },
+    });
+
+    const result = await analyzeCssProject(rules, configuration, [files]);
+
+    expect(result.files[normalizeToAbsolutePath(file)]).toEqual({
+      issues: [expect.objectContaining({ ruleId: 'block-no-empty' })],
+    });
+  });
+
+  it('should stop once the analysis is cancelled', async () => {
+    const file = join(fixtures, 'file.css');
+    const malformed = join(fixtures, 'malformed.css');
+    const { configuration } = sanitizeCssProjectAnalysisInput({
+      configuration: { baseDir: fixtures },
+    });
+    const messages: WsIncrementalResult[] = [];
+
+    async function* chunks() {
+      yield { [file]: { filePath: file } };
+      cancelAnalysis();
+      yield { [malformed]: { filePath: malformed } };
+    }
+    await analyzeCssProject(cssRules, configuration, chunks(), message =>
+      messages.push(message),
+    );
+
+    expect(messages.map(message => message.messageType)).toEqual(['fileResult', 'cancelled']);
+  });
+});
@@ -24,6 +24,8 @@ import { normalizePath, normalizeToAbsolutePath } from '../../src/rules/helpers/
 import {
   analyzeProject,
   cancelAnalysis,
+  runInteractively,
+  waitForNextFile,
 } from '../../src/analysis/projectAnalysis/analyzeProject.js';
 import { ErrorCode } from '../../../shared/src/errors/error.js';
 import {
@@ -505,3 +507,22 @@ describe('SonarLint tsconfig change detection', () => {
     expect(errorMessages.some(msg => msg?.startsWith(expectedPrefix))).toBe(true);
   });
 });
+
+describe('Interactive requests', () => {
+  it('should be served before the next file of a project analysis', async () => {
+    let finishRequest = () => {};
+    const request = runInteractively(
+      () => new Promise<string>(resolve => (finishRequest = () => resolve('done'))),
+    );
+    let nextFile = false;
+    const waiting = waitForNextFile().then(() => (nextFile = true));
+
+    await new Promise(resolve => setTimeout(resolve, 10));
+    expect(nextFile).toBe(false);
+
+    finishRequest();
+    expect(await request).toEqual('done');
+    await waiting;
+    expect(nextFile).toBe(true);
+  });
+});
@@ -22,6 +22,7 @@ import { normalizePath, normalizeToAbsolutePath } from '../../src/rules/helpers/
 import {
   analyzeProject,
   cancelAnalysis,
+  recycleAnalysis,
 } from '../../src/analysis/projectAnalysis/analyzeProject.js';
 import {
   sourceFileStore,
@@ -295,6 +296,31 @@ describe('SonarQube project analysis', () => {
     await analysisPromise;
   });
 
+  it('should stop the analysis to recycle the bridge', async () => {
+    const baseDir = join(fixtures, 'multiple-tsconfigs');
+    const frontendFile = join(baseDir, 'frontend/app.ts');
+    const backendFile = join(baseDir, 'backend/server.ts');
+
+    const configuration = await initForTest(
+      { baseDir },
+      {
+        [frontendFile]: { filePath: frontendFile, fileType: 'MAIN' },
+        [backendFile]: { filePath: backendFile, fileType: 'MAIN' },
+      },
+    );
+
+    const messageTypes: string[] = [];
+    const result = await analyzeProject({ rules, bundles: [] }, configuration, message => {
+      messageTypes.push(message.messageType);
+      if (message.messageType === 'fileResult') {
+        recycleAnalysis();
+      }
+    });
+
+    expect(messageTypes).toEqual(['analyzing', 'fileResult', 'recycle']);
+    expect(Object.keys(result.files)).toHaveLength(1);
+  });
+
   it('should handle invalid tsconfig gracefully', async () => {
     const baseDir = join(fixtures, 'invalid-tsconfig');
 
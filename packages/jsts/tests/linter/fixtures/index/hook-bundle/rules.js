@@ -0,0 +1,23 @@
+exports.rules = [
+  {
+    ruleId: "publishing-hook",
+    ruleModule: {
+      create(context) {
+        let calls = 0;
+        return {
+          CallExpression() {
+            calls++;
+          },
+          "Program:exit"() {
+            context.settings.publishHookData?.({
+              name: "publishing-hook",
+              type: "hook.Calls",
+              payload: new Uint8Array([calls]),
+            });
+          },
+        };
+      },
+    },
+    ruleConfig: [],
+  },
+];
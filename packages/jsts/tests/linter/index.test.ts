@@ -62,6 +62,38 @@ describe('Linter', () => {
     );
   });
 
+  it('should reuse the linter of a known configuration', async () => {
+    const baseDir = normalizeToAbsolutePath(import.meta.dirname);
+    const filePath = normalizeToAbsolutePath(
+      path.join(import.meta.dirname, 'fixtures', 'index', 'regular.js'),
+    );
+    const ruleConfig = (key: string): RuleConfig => ({
+      key,
+      configurations: [],
+      fileTypeTargets: ['MAIN'],
+      language: 'js',
+      analysisModes: ['DEFAULT'],
+    });
+
+    expect(Linter.reuse('unknown')).toBe(false);
+
+    await Linter.initialize({ baseDir, rules: [ruleConfig('S1116')] }, 'first');
+    await Linter.initialize({ baseDir, rules: [] }, 'second');
+
+    const ruleIds = async () =>
+      Linter.lint(await parseJavaScriptSourceFile(filePath), filePath).issues.map(
+        issue => issue.ruleId,
+      );
+    expect(await ruleIds()).not.toContain('S1116');
+
+    expect(Linter.reuse('first')).toBe(true);
+    expect(await ruleIds()).toContain('S1116');
+
+    // the configuration is not re-initialized when its fingerprint is known
+    await Linter.initialize({ baseDir, rules: [] }, 'first');
+    expect(await ruleIds()).toContain('S1116');
+  });
+
   it('should load rule bundles', async ({ mock }) => {
     const bundlePath = normalizeToAbsolutePath(
       path.join(import.meta.dirname, 'fixtures', 'index', 'custom-rule-bundle', 'rules.js'),
@@ -111,6 +143,39 @@ describe('Linter', () => {
     );
   });
 
+  it('should collect the data published by hooks', async () => {
+    await Linter.initialize({
+      baseDir: normalizeToAbsolutePath(import.meta.dirname),
+      rules: [
+        {
+          key: 'publishing-hook',
+          configurations: [],
+          fileTypeTargets: ['MAIN'],
+          language: 'js',
+          analysisModes: ['DEFAULT'],
+        },
+      ],
+      bundles: [
+        normalizeToAbsolutePath(
+          path.join(import.meta.dirname, 'fixtures', 'index', 'hook-bundle', 'rules.js'),
+        ),
+      ],
+    });
+
+    const filePath = normalizeToAbsolutePath(
+      path.join(import.meta.dirname, 'fixtures', 'index', 'custom.js'),
+    );
+    const { issues, hookData } = Linter.lint(
+      await parseJavaScriptSourceFile(filePath, [], 'MAIN', false, false),
+      filePath,
+    );
+
+    expect(issues).toEqual([]);
+    expect(hookData).toEqual([
+      { name: 'publishing-hook', type: 'hook.Calls', payload: new Uint8Array([1]) },
+    ]);
+  });
+
   it('should enable environments', async () => {
     await Linter.initialize({
       baseDir: normalizeToAbsolutePath(import.meta.dirname),
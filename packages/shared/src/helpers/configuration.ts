@@ -75,6 +75,10 @@ export type Configuration = {
   detectBundles: boolean /* sonar.javascript.detectBundles - whether files looking like bundled code should be ignored */;
   createTSProgramForOrphanFiles: boolean /* sonar.javascript.createTSProgramForOrphanFiles - whether to create a TS program for orphan files */;
   reportNclocForTestFiles: boolean /* In gRPC/A3S context, ncloc for test files is computed by the analyzer. In SQ context, ncloc is not computed for tests. */;
+  binaryResults: boolean /* sonar.javascript.bridge.binaryResults - whether project analysis file results are sent as binary Protobuf WebSocket frames */;
+  batchResults: boolean /* sonar.javascript.bridge.batchResults - whether small JSON file results of project analyses are sent in batches */;
+  recycleAfterFiles: number /* sonar.javascript.bridge.recycleAfterFiles - number of files after which a project analysis stops to let the plugin restart the bridge, 0 to never stop */;
+  recycleHeapPercent: number /* sonar.javascript.bridge.recycleHeapPercent - heap usage, in percent of the heap size limit, above which a project analysis stops to let the plugin restart the bridge, 0 to never stop */;
 };
 
 // Patterns enforced to be ignored no matter what the user configures on sonar.properties
@@ -214,6 +218,10 @@ export function createConfiguration(raw: unknown): Configuration {
     reportNclocForTestFiles: isBoolean(raw.reportNclocForTestFiles)
       ? raw.reportNclocForTestFiles
       : false,
+    binaryResults: isBoolean(raw.binaryResults) ? raw.binaryResults : false,
+    batchResults: isBoolean(raw.batchResults) ? raw.batchResults : false,
+    recycleAfterFiles: isNumber(raw.recycleAfterFiles) ? raw.recycleAfterFiles : 0,
+    recycleHeapPercent: isNumber(raw.recycleHeapPercent) ? raw.recycleHeapPercent : 0,
   };
 }
 
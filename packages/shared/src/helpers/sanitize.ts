@@ -382,16 +382,35 @@ interface SanitizedInitLinterInput {
   sonarlint: boolean;
   bundles: NormalizedAbsolutePath[];
   rulesWorkdir?: NormalizedAbsolutePath;
+  fingerprint?: string;
+}
+
+/**
+ * Sanitized input of an init-linter request that only refers to a configuration
+ * the bridge was initialized with before.
+ */
+interface SanitizedLinterFingerprint {
+  fingerprint: string;
 }
 
 /**
  * Sanitizes the init-linter request data.
+ *
+ * The configuration may be omitted when the fingerprint of a configuration
+ * that was sent before is provided.
  */
-export function sanitizeInitLinterInput(raw: unknown): SanitizedInitLinterInput {
+export function sanitizeInitLinterInput(
+  raw: unknown,
+): SanitizedInitLinterInput | SanitizedLinterFingerprint {
   if (!isObject(raw)) {
     throw new Error('Invalid init-linter input: expected object');
   }
 
+  const fingerprint = isString(raw.fingerprint) ? raw.fingerprint : undefined;
+  if (fingerprint !== undefined && raw.baseDir === undefined) {
+    return { fingerprint };
+  }
+
   // baseDir is required
   if (!isString(raw.baseDir)) {
     throw new Error('Invalid init-linter input: baseDir must be a string');
@@ -408,6 +427,7 @@ export function sanitizeInitLinterInput(raw: unknown): SanitizedInitLinterInput
     rulesWorkdir: isString(raw.rulesWorkdir)
       ? normalizeToAbsolutePath(raw.rulesWorkdir, baseDir)
       : undefined,
+    fingerprint,
   };
 }
 
@@ -419,6 +439,8 @@ interface SanitizedProjectAnalysisInput {
   baseDir: NormalizedAbsolutePath;
   bundles: NormalizedAbsolutePath[];
   rulesWorkdir?: NormalizedAbsolutePath;
+  rulesFingerprint?: string;
+  resultsBuffer?: { path: string; size: number };
   configuration: Configuration; // Ready-to-use Configuration instance
 }
 
@@ -427,10 +449,11 @@ interface SanitizedProjectAnalysisInput {
  *
  * Returns a ready-to-use Configuration instance. The configuration is fully
  * validated and normalized. File stores are initialized with the provided
- * input files or by scanning the file system.
+ * input files, either inline or streamed in chunks, or by scanning the file system.
  */
 export async function sanitizeProjectAnalysisInput(
   raw: unknown,
+  fileChunks?: AsyncIterable<Record<string, unknown>>,
 ): Promise<SanitizedProjectAnalysisInput> {
   if (!isObject(raw)) {
     throw new Error('Invalid project analysis input: expected object');
@@ -445,9 +468,12 @@ export async function sanitizeProjectAnalysisInput(
   const configuration = createConfiguration(raw.configuration);
 
   // Sanitize raw input files first (if provided), then initialize file stores
-  const inputFiles = isObject(raw.files)
-    ? await sanitizeRawInputFiles(raw.files, configuration)
-    : undefined;
+  let inputFiles: JsTsFiles | undefined;
+  if (fileChunks) {
+    inputFiles = await sanitizeRawInputFileChunks(fileChunks, configuration);
+  } else if (isObject(raw.files)) {
+    inputFiles = await sanitizeRawInputFiles(raw.files, configuration);
+  }
 
   await initFileStores(configuration, inputFiles);
 
@@ -458,10 +484,65 @@ export async function sanitizeProjectAnalysisInput(
     rulesWorkdir: isString(raw.rulesWorkdir)
       ? normalizeToAbsolutePath(raw.rulesWorkdir, configuration.baseDir)
       : undefined,
+    rulesFingerprint: isString(raw.rulesFingerprint) ? raw.rulesFingerprint : undefined,
+    resultsBuffer:
+      isObject(raw.resultsBuffer) &&
+      isString(raw.resultsBuffer.path) &&
+      isNumber(raw.resultsBuffer.size)
+        ? { path: raw.resultsBuffer.path, size: raw.resultsBuffer.size }
+        : undefined,
     configuration, // Ready-to-use Configuration instance
   };
 }
 
+/**
+ * Sanitized input for the analysis of the stylesheets of a project.
+ */
+interface SanitizedCssProjectAnalysisInput {
+  cssRules: CssRuleConfig[];
+  files: Record<string, unknown>; // Raw input files, sanitized while they are analyzed
+  configuration: Configuration;
+}
+
+/**
+ * Sanitizes CSS project analysis request data.
+ *
+ * Unlike sanitizeProjectAnalysisInput, file stores are left untouched: stylesheets are linted
+ * one by one and do not need the project-wide view the TypeScript programs rely on.
+ */
+export function sanitizeCssProjectAnalysisInput(raw: unknown): SanitizedCssProjectAnalysisInput {
+  if (!isObject(raw)) {
+    throw new Error('Invalid CSS project analysis input: expected object');
+  }
+  if (!isObject(raw.configuration)) {
+    throw new Error('Invalid CSS project analysis input: configuration is required');
+  }
+  return {
+    cssRules: isCssRuleConfigArray(raw.cssRules) ? (raw.cssRules as CssRuleConfig[]) : [],
+    files: isObject(raw.files) ? raw.files : {},
+    configuration: createConfiguration(raw.configuration),
+  };
+}
+
+/**
+ * Sanitizes raw input files received in several chunks, each chunk being processed as soon as it
+ * is received rather than once all of them are known.
+ *
+ * @param fileChunks - The chunks of raw input files, keyed like the 'files' of the request
+ * @param configuration - The project configuration for path normalization and filtering
+ * @returns A promise of all the sanitized JsTsFiles
+ */
+export async function sanitizeRawInputFileChunks(
+  fileChunks: AsyncIterable<Record<string, unknown>>,
+  configuration: Configuration,
+): Promise<JsTsFiles> {
+  const files = createJsTsFiles();
+  for await (const chunk of fileChunks) {
+    Object.assign(files, await sanitizeRawInputFiles(chunk, configuration));
+  }
+  return files;
+}
+
 /**
  * Sanitizes raw input files and filters them before returning.
  * This handles the conversion from raw input (HTTP/gRPC) to JsTsFiles,
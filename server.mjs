@@ -1,6 +1,6 @@
 #!/usr/bin/env node
 import { isMainThread } from 'node:worker_threads';
-import { start } from './lib/bridge/src/server.js';
+import { readyMessage, start } from './lib/bridge/src/server.js';
 import { createWorker } from './lib/shared/src/helpers/worker.js';
 
 // import containing code which is only executed if it's a child process
@@ -14,20 +14,30 @@ if (isMainThread) {
    * host - host address on which server.mjs should listen
    * debugMemory - print memory usage
    * timeoutSeconds - timeout for the node server to wait before shutting down. If not provided or 0,
+   * socketPath - optional Unix domain socket on which server.mjs should listen instead of port and host
    */
 
   const port = process.argv[2];
   const host = process.argv[3];
   const debugMemory = process.argv[4] === 'true';
   const timeoutSeconds = Number(process.argv[5]) || 0;
+  const socketPath = process.argv[6] || undefined;
+
+  // the plugin may exit before the bridge, when it is left running as a daemon
+  for (const stream of [process.stdout, process.stderr]) {
+    stream.on('error', () => {});
+  }
 
   Promise.resolve().then(async () => {
-    return start(
+    const { server } = await start(
       Number.parseInt(port, 10),
       host,
       await createWorker(new URL(import.meta.url), { debugMemory }),
       debugMemory,
       timeoutSeconds,
+      socketPath,
     );
+    // readiness handshake, the plugin waits for this line instead of polling the server status
+    console.log(readyMessage(server, socketPath));
   });
 }
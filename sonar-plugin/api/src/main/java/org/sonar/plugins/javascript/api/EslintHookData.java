@@ -0,0 +1,53 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2025 SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.plugins.javascript.api;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A named payload published by an {@link EslintHook} on the JS side for an analyzed file.
+ *
+ * Hooks publish their data with {@code context.settings.publishHookData({ name, type, payload })}.
+ * The data is delivered to {@link JsAnalysisConsumer}s during project analyses, without going
+ * through the JSON results.
+ *
+ * @param name the name of the payload, e.g. the key of the hook
+ * @param type how to decode the payload, e.g. the full name of a Protobuf message
+ * @param payload the bytes of the payload
+ */
+public record EslintHookData(String name, String type, byte[] payload) {
+  @Override
+  public boolean equals(Object o) {
+    return (
+      o instanceof EslintHookData other &&
+      name.equals(other.name) &&
+      type.equals(other.type) &&
+      Arrays.equals(payload, other.payload)
+    );
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(name, type, Arrays.hashCode(payload));
+  }
+
+  @Override
+  public String toString() {
+    return "EslintHookData{name=" + name + ", type=" + type + ", size=" + payload.length + "}";
+  }
+}
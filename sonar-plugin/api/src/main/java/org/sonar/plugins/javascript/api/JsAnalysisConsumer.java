@@ -16,6 +16,7 @@
  */
 package org.sonar.plugins.javascript.api;
 
+import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.sensor.SensorContext;
 import org.sonar.api.scanner.ScannerSide;
 import org.sonarsource.api.sonarlint.SonarLintSide;
@@ -33,6 +34,16 @@ public interface JsAnalysisConsumer {
    */
   void accept(JsFile jsFile);
 
+  /**
+   * Called for each payload published by an {@link EslintHook} for a file during a project
+   * analysis.
+   * @param inputFile the file which was analyzed
+   * @param data the payload published by the hook
+   */
+  default void accept(InputFile inputFile, EslintHookData data) {
+    // Consumers only interested in the AST ignore the data of hooks
+  }
+
   /**
    *
    * Called at the end of the analysis.
@@ -51,6 +51,14 @@ public interface AnalysisConfiguration {
 
   boolean shouldCreateTSProgramForOrphanFiles();
 
+  boolean useBinaryResults();
+
+  boolean useBatchedResults();
+
+  int getRecycleAfterFiles();
+
+  int getRecycleHeapPercent();
+
   List<String> getSources();
 
   List<String> getInclusions();
@@ -0,0 +1,215 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2025 SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.plugins.javascript.bridge;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.sonar.plugins.javascript.nodejs.NodeCommandBuilderImpl.NODE_EXECUTABLE_PROPERTY;
+import static org.sonar.plugins.javascript.nodejs.NodeCommandBuilderImpl.NODE_FORCE_HOST_PROPERTY;
+import static org.sonar.plugins.javascript.nodejs.NodeCommandBuilderImpl.SKIP_NODE_PROVISIONING_PROPERTY;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonar.api.config.Configuration;
+
+/**
+ * A bridge server left running after an analysis, to be reused by the following analyses on the
+ * same machine.
+ * <p>
+ * The daemon is registered in a file of the SonarQube user home, together with the version of the
+ * plugin and a fingerprint of the settings and rules bundles it was started with. It is only
+ * reused when both match. An analysis holds a lock next to the registry for as long as it uses the
+ * daemon, so that concurrent analyses start their own bridge server instead. The daemon shuts
+ * itself down once it did not receive any request for its idle timeout.
+ */
+class BridgeDaemon implements Closeable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(BridgeDaemon.class);
+  private static final Gson GSON = BridgeJson.GSON;
+
+  // internal property to leave the bridge server running after the analysis to reuse it later
+  static final String DAEMON_PROPERTY = "sonar.javascript.bridge.daemon";
+  // internal property to set how long, in seconds, an unused daemon waits before shutting down
+  static final String IDLE_TIMEOUT_PROPERTY = "sonar.javascript.bridge.daemonIdleTimeout";
+  private static final int DEFAULT_IDLE_TIMEOUT_SECONDS = 30 * 60;
+  private static final String DEPLOY_LOCATION = Path.of("js", "bridge-daemon").toString();
+  private static final String REGISTRY_FILENAME = "registry.json";
+  private static final List<String> FINGERPRINT_PROPERTIES = List.of(
+    BridgeServerImpl.MAX_OLD_SPACE_SIZE_PROPERTY,
+    NodeHeapSizing.AUTO_SIZING_PROPERTY,
+    BridgeServerImpl.DEBUG_MEMORY,
+    NODE_EXECUTABLE_PROPERTY,
+    SKIP_NODE_PROVISIONING_PROPERTY,
+    NODE_FORCE_HOST_PROPERTY
+  );
+
+  private final Path directory;
+  private final FileChannel lockChannel;
+  private final FileLock lock;
+  private final String version;
+  private final String fingerprint;
+  private final int idleTimeoutSeconds;
+
+  /**
+   * The content of the registry file
+   */
+  record Registration(int port, String version, String fingerprint) {}
+
+  private BridgeDaemon(
+    Path directory,
+    FileChannel lockChannel,
+    FileLock lock,
+    String fingerprint,
+    int idleTimeoutSeconds
+  ) {
+    this.directory = directory;
+    this.lockChannel = lockChannel;
+    this.lock = lock;
+    this.version = String.valueOf(PluginInfo.getVersion());
+    this.fingerprint = fingerprint;
+    this.idleTimeoutSeconds = idleTimeoutSeconds;
+  }
+
+  /**
+   * Locks the daemon for the current analysis.
+   *
+   * @return null if the daemon mode is disabled or if the daemon is used by another analysis
+   */
+  @Nullable
+  static BridgeDaemon acquire(Configuration configuration, RulesBundles rulesBundles)
+    throws IOException {
+    if (!configuration.getBoolean(DAEMON_PROPERTY).orElse(false)) {
+      return null;
+    }
+    var directory = new Environment(configuration).getSonarUserHome().resolve(DEPLOY_LOCATION);
+    Files.createDirectories(directory);
+    var channel = FileChannel.open(directory.resolve("lockfile"), CREATE, WRITE);
+    FileLock lock;
+    try {
+      lock = channel.tryLock();
+    } catch (OverlappingFileLockException e) {
+      lock = null;
+    }
+    if (lock == null) {
+      channel.close();
+      LOG.debug("The bridge daemon is used by another analysis, starting a dedicated one");
+      return null;
+    }
+    return new BridgeDaemon(
+      directory,
+      channel,
+      lock,
+      fingerprint(configuration, rulesBundles),
+      configuration.getInt(IDLE_TIMEOUT_PROPERTY).orElse(DEFAULT_IDLE_TIMEOUT_SECONDS)
+    );
+  }
+
+  private static String fingerprint(Configuration configuration, RulesBundles rulesBundles) {
+    var inputs = new ArrayList<String>();
+    for (var key : FINGERPRINT_PROPERTIES) {
+      inputs.add(key + "=" + configuration.get(key).orElse(""));
+    }
+    inputs.addAll(rulesBundles.fingerprint());
+    try {
+      var digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(
+        digest.digest(String.join("\n", inputs).getBytes(StandardCharsets.UTF_8))
+      );
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Where the bridge bundle is deployed, as it must outlive the temporary folder of the analysis
+   */
+  Path bundleLocation() {
+    return directory.resolve("bundle");
+  }
+
+  int idleTimeoutMs() {
+    return idleTimeoutSeconds * 1000;
+  }
+
+  Optional<Registration> registration() throws IOException {
+    var registry = directory.resolve(REGISTRY_FILENAME);
+    if (!Files.exists(registry)) {
+      return Optional.empty();
+    }
+    try {
+      return Optional.ofNullable(GSON.fromJson(Files.readString(registry), Registration.class));
+    } catch (JsonSyntaxException e) {
+      LOG.debug("Ignoring malformed bridge daemon registry {}", registry);
+      return Optional.empty();
+    }
+  }
+
+  boolean isCompatible(Registration registration) {
+    if (!Objects.equals(version, registration.version())) {
+      LOG.debug(
+        "The bridge daemon runs version {} instead of {}, it will be replaced",
+        registration.version(),
+        version
+      );
+      return false;
+    }
+    if (!fingerprint.equals(registration.fingerprint())) {
+      LOG.debug("The bridge daemon was started with different settings, it will be replaced");
+      return false;
+    }
+    return true;
+  }
+
+  void register(int port) throws IOException {
+    Files.writeString(
+      directory.resolve(REGISTRY_FILENAME),
+      GSON.toJson(new Registration(port, version, fingerprint))
+    );
+    LOG.debug("Registered the bridge daemon on port {}", port);
+  }
+
+  void unregister() throws IOException {
+    Files.deleteIfExists(directory.resolve(REGISTRY_FILENAME));
+  }
+
+  /**
+   * Releases the daemon for other analyses, leaving it running
+   */
+  @Override
+  public void close() throws IOException {
+    lock.release();
+    lockChannel.close();
+  }
+}
@@ -0,0 +1,359 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2025 SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.plugins.javascript.bridge;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Nullable;
+import org.sonar.plugins.javascript.bridge.BridgeServer.CpdToken;
+import org.sonar.plugins.javascript.bridge.BridgeServer.Highlight;
+import org.sonar.plugins.javascript.bridge.BridgeServer.Issue;
+import org.sonar.plugins.javascript.bridge.BridgeServer.IssueLocation;
+import org.sonar.plugins.javascript.bridge.BridgeServer.Location;
+import org.sonar.plugins.javascript.bridge.BridgeServer.QuickFix;
+
+/**
+ * The JSON (de)serialization of the payloads exchanged with the bridge.
+ * <p>
+ * Gson decodes records reflectively, boxing every number and allocating a new string for every
+ * occurrence of the same rule key. The records making up the bulk of analysis results, i.e. the
+ * locations of highlights, symbols and CPD tokens and the issues, are instead decoded by streaming
+ * adapters, which intern the strings repeated across results.
+ */
+public final class BridgeJson {
+
+  public static final Gson GSON = new GsonBuilder()
+    .registerTypeAdapter(Location.class, new LocationAdapter().nullSafe())
+    .registerTypeAdapter(CpdToken.class, new CpdTokenAdapter().nullSafe())
+    .registerTypeAdapter(Highlight.class, new HighlightAdapter().nullSafe())
+    .registerTypeAdapter(IssueLocation.class, new IssueLocationAdapter().nullSafe())
+    .registerTypeAdapterFactory(new IssueAdapterFactory())
+    .create();
+
+  private BridgeJson() {}
+
+  static class LocationAdapter extends TypeAdapter<Location> {
+
+    @Override
+    public void write(JsonWriter out, Location location) throws IOException {
+      out.beginObject();
+      out.name("startLine").value(location.startLine());
+      out.name("startCol").value(location.startCol());
+      out.name("endLine").value(location.endLine());
+      out.name("endCol").value(location.endCol());
+      out.endObject();
+    }
+
+    @Override
+    public Location read(JsonReader in) throws IOException {
+      int startLine = 0;
+      int startCol = 0;
+      int endLine = 0;
+      int endCol = 0;
+      in.beginObject();
+      while (in.hasNext()) {
+        switch (in.nextName()) {
+          case "startLine" -> startLine = in.nextInt();
+          case "startCol" -> startCol = in.nextInt();
+          case "endLine" -> endLine = in.nextInt();
+          case "endCol" -> endCol = in.nextInt();
+          default -> in.skipValue();
+        }
+      }
+      in.endObject();
+      return new Location(startLine, startCol, endLine, endCol);
+    }
+  }
+
+  static class CpdTokenAdapter extends TypeAdapter<CpdToken> {
+
+    private final LocationAdapter locationAdapter = new LocationAdapter();
+
+    @Override
+    public void write(JsonWriter out, CpdToken token) throws IOException {
+      out.beginObject();
+      out.name("location");
+      locationAdapter.write(out, token.location());
+      out.name("image").value(token.image());
+      out.endObject();
+    }
+
+    @Override
+    public CpdToken read(JsonReader in) throws IOException {
+      Location location = null;
+      String image = null;
+      in.beginObject();
+      while (in.hasNext()) {
+        switch (in.nextName()) {
+          case "location" -> location = locationAdapter.read(in);
+          case "image" -> image = nextString(in);
+          default -> in.skipValue();
+        }
+      }
+      in.endObject();
+      return new CpdToken(location, image);
+    }
+  }
+
+  static class HighlightAdapter extends TypeAdapter<Highlight> {
+
+    private final LocationAdapter locationAdapter = new LocationAdapter();
+
+    @Override
+    public void write(JsonWriter out, Highlight highlight) throws IOException {
+      out.beginObject();
+      out.name("location");
+      locationAdapter.write(out, highlight.location());
+      out.name("textType").value(highlight.textType());
+      out.endObject();
+    }
+
+    @Override
+    public Highlight read(JsonReader in) throws IOException {
+      Location location = null;
+      String textType = null;
+      in.beginObject();
+      while (in.hasNext()) {
+        switch (in.nextName()) {
+          case "location" -> location = locationAdapter.read(in);
+          case "textType" -> textType = intern(nextString(in));
+          default -> in.skipValue();
+        }
+      }
+      in.endObject();
+      return new Highlight(location, textType);
+    }
+  }
+
+  static class IssueLocationAdapter extends TypeAdapter<IssueLocation> {
+
+    @Override
+    public void write(JsonWriter out, IssueLocation location) throws IOException {
+      out.beginObject();
+      out.name("line").value(location.line());
+      out.name("column").value(location.column());
+      out.name("endLine").value(location.endLine());
+      out.name("endColumn").value(location.endColumn());
+      out.name("message").value(location.message());
+      out.endObject();
+    }
+
+    @Override
+    public IssueLocation read(JsonReader in) throws IOException {
+      Integer line = null;
+      Integer column = null;
+      Integer endLine = null;
+      Integer endColumn = null;
+      String message = null;
+      in.beginObject();
+      while (in.hasNext()) {
+        switch (in.nextName()) {
+          case "line" -> line = nextInteger(in);
+          case "column" -> column = nextInteger(in);
+          case "endLine" -> endLine = nextInteger(in);
+          case "endColumn" -> endColumn = nextInteger(in);
+          case "message" -> message = nextString(in);
+          default -> in.skipValue();
+        }
+      }
+      in.endObject();
+      return new IssueLocation(line, column, endLine, endColumn, message);
+    }
+  }
+
+  /**
+   * Creates the adapter of issues, which delegates their rare quick fixes to Gson.
+   */
+  static class IssueAdapterFactory implements TypeAdapterFactory {
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+      if (type.getRawType() != Issue.class) {
+        return null;
+      }
+      var quickFixesAdapter = gson.getAdapter(new TypeToken<List<QuickFix>>() {});
+      return (TypeAdapter<T>) new IssueAdapter(quickFixesAdapter).nullSafe();
+    }
+  }
+
+  static class IssueAdapter extends TypeAdapter<Issue> {
+
+    private final IssueLocationAdapter locationAdapter = new IssueLocationAdapter();
+    private final TypeAdapter<List<QuickFix>> quickFixesAdapter;
+
+    IssueAdapter(TypeAdapter<List<QuickFix>> quickFixesAdapter) {
+      this.quickFixesAdapter = quickFixesAdapter;
+    }
+
+    @Override
+    public void write(JsonWriter out, Issue issue) throws IOException {
+      out.beginObject();
+      out.name("line").value(issue.line());
+      out.name("column").value(issue.column());
+      out.name("endLine").value(issue.endLine());
+      out.name("endColumn").value(issue.endColumn());
+      out.name("message").value(issue.message());
+      out.name("ruleId").value(issue.ruleId());
+      out.name("language").value(issue.language());
+      if (issue.secondaryLocations() != null) {
+        out.name("secondaryLocations").beginArray();
+        for (var location : issue.secondaryLocations()) {
+          locationAdapter.write(out, location);
+        }
+        out.endArray();
+      }
+      out.name("cost").value(issue.cost());
+      if (issue.quickFixes() != null) {
+        out.name("quickFixes");
+        quickFixesAdapter.write(out, issue.quickFixes());
+      }
+      if (issue.ruleESLintKeys() != null) {
+        out.name("ruleESLintKeys").beginArray();
+        for (var key : issue.ruleESLintKeys()) {
+          out.value(key);
+        }
+        out.endArray();
+      }
+      out.name("filePath").value(issue.filePath());
+      out.endObject();
+    }
+
+    @Override
+    public Issue read(JsonReader in) throws IOException {
+      Integer line = null;
+      Integer column = null;
+      Integer endLine = null;
+      Integer endColumn = null;
+      String message = null;
+      String ruleId = null;
+      String language = null;
+      List<IssueLocation> secondaryLocations = null;
+      Double cost = null;
+      List<QuickFix> quickFixes = null;
+      List<String> ruleESLintKeys = null;
+      String filePath = null;
+      in.beginObject();
+      while (in.hasNext()) {
+        switch (in.nextName()) {
+          case "line" -> line = nextInteger(in);
+          case "column" -> column = nextInteger(in);
+          case "endLine" -> endLine = nextInteger(in);
+          case "endColumn" -> endColumn = nextInteger(in);
+          case "message" -> message = nextString(in);
+          case "ruleId" -> ruleId = intern(nextString(in));
+          case "language" -> language = intern(nextString(in));
+          case "secondaryLocations" -> secondaryLocations = readSecondaryLocations(in);
+          case "cost" -> cost = nextDouble(in);
+          case "quickFixes" -> quickFixes = quickFixesAdapter.read(in);
+          case "ruleESLintKeys" -> ruleESLintKeys = readInternedStrings(in);
+          case "filePath" -> filePath = intern(nextString(in));
+          default -> in.skipValue();
+        }
+      }
+      in.endObject();
+      return new Issue(
+        line,
+        column,
+        endLine,
+        endColumn,
+        message,
+        ruleId,
+        language,
+        secondaryLocations,
+        cost,
+        quickFixes,
+        ruleESLintKeys,
+        filePath
+      );
+    }
+
+    @Nullable
+    private List<IssueLocation> readSecondaryLocations(JsonReader in) throws IOException {
+      if (in.peek() == JsonToken.NULL) {
+        in.nextNull();
+        return null;
+      }
+      var locations = new ArrayList<IssueLocation>();
+      in.beginArray();
+      while (in.hasNext()) {
+        locations.add(locationAdapter.read(in));
+      }
+      in.endArray();
+      return locations;
+    }
+
+    @Nullable
+    private static List<String> readInternedStrings(JsonReader in) throws IOException {
+      if (in.peek() == JsonToken.NULL) {
+        in.nextNull();
+        return null;
+      }
+      var strings = new ArrayList<String>();
+      in.beginArray();
+      while (in.hasNext()) {
+        strings.add(intern(nextString(in)));
+      }
+      in.endArray();
+      return strings;
+    }
+  }
+
+  @Nullable
+  private static String nextString(JsonReader in) throws IOException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+    return in.nextString();
+  }
+
+  @Nullable
+  private static Integer nextInteger(JsonReader in) throws IOException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+    return in.nextInt();
+  }
+
+  @Nullable
+  private static Double nextDouble(JsonReader in) throws IOException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+    return in.nextDouble();
+  }
+
+  /**
+   * Rule keys, languages, file paths and highlight types take few distinct values.
+   */
+  @Nullable
+  private static String intern(@Nullable String value) {
+    return value == null ? null : value.intern();
+  }
+}
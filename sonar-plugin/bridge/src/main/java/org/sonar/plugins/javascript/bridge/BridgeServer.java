@@ -20,9 +20,12 @@ import static org.sonarsource.api.sonarlint.SonarLintSide.INSTANCE;
 
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Stream;
 import javax.annotation.Nullable;
 import org.sonar.api.Startable;
 import org.sonar.api.batch.fs.InputFile;
@@ -30,6 +33,8 @@ import org.sonar.api.batch.fs.TextRange;
 import org.sonar.api.scanner.ScannerSide;
 import org.sonar.api.utils.Version;
 import org.sonar.plugins.javascript.api.AnalysisMode;
+import org.sonar.plugins.javascript.api.EslintHookData;
+import org.sonar.plugins.javascript.bridge.protobuf.FileResultProto;
 import org.sonar.plugins.javascript.bridge.protobuf.Node;
 import org.sonarsource.api.sonarlint.SonarLintSide;
 
@@ -38,6 +43,10 @@ import org.sonarsource.api.sonarlint.SonarLintSide;
 public interface BridgeServer extends Startable {
   void startServerLazily(BridgeServerConfig context) throws IOException;
 
+  void restartServer(BridgeServerConfig context) throws IOException;
+
+  boolean recycleServer(BridgeServerConfig context) throws IOException;
+
   void initLinter(
     List<EslintRule> rules,
     List<String> environments,
@@ -74,6 +83,12 @@ public interface BridgeServer extends Startable {
 
   void analyzeProject(WebSocketMessageHandler<ProjectAnalysisRequest> handler);
 
+  /**
+   * Analyzes the stylesheets of the request with its CSS rules, which the bridge sets up once
+   * for the whole analysis. Results are streamed to the handler like for {@link #analyzeProject}.
+   */
+  void analyzeCssProject(WebSocketMessageHandler<ProjectAnalysisRequest> handler);
+
   record ProjectAnalysisOutputDTO(
     Map<String, AnalysisResponseDTO> files,
     ProjectAnalysisMetaResponse meta
@@ -133,13 +148,24 @@ public interface BridgeServer extends Startable {
     @Nullable String fileContent
   ) {}
 
+  /**
+   * The memory-mapped file where the bridge writes the file results of a project analysis
+   */
+  record ResultsBuffer(String path, int size) {}
+
   class ProjectAnalysisRequest {
 
     private Map<String, JsTsFile> files;
+    // files resolved lazily, while they are sent to the bridge, excluded from the JSON payload
+    private transient Stream<JsTsFile> lazyFiles;
+    private Boolean streamFiles;
     private List<EslintRule> rules;
+    private List<StylelintRule> cssRules;
     public ProjectAnalysisConfiguration configuration;
     private List<String> bundles;
     private String rulesWorkdir;
+    private String rulesFingerprint;
+    private ResultsBuffer resultsBuffer;
 
     public ProjectAnalysisRequest(
       Map<String, JsTsFile> files,
@@ -151,10 +177,64 @@ public interface BridgeServer extends Startable {
       this.configuration = configuration;
     }
 
+    /**
+     * Creates a request whose files are only resolved when they are consumed, so that they can
+     * be streamed to the bridge without holding all of them in memory.
+     */
+    public ProjectAnalysisRequest(
+      Stream<JsTsFile> files,
+      List<EslintRule> rules,
+      ProjectAnalysisConfiguration configuration
+    ) {
+      this.lazyFiles = files;
+      this.rules = rules;
+      this.configuration = configuration;
+    }
+
+    /**
+     * Returns all the files of the request, resolving them first if they are lazy.
+     */
     public Map<String, JsTsFile> getFiles() {
+      if (files == null) {
+        var resolved = new LinkedHashMap<String, JsTsFile>();
+        takeFiles().forEach(file -> resolved.put(file.filePath(), file));
+        files = resolved;
+      }
       return files;
     }
 
+    /**
+     * Detaches the files from the request, which then announces that they are sent separately
+     * in 'on-project-files' chunks.
+     */
+    public Stream<JsTsFile> streamFiles() {
+      var stream = takeFiles();
+      files = null;
+      streamFiles = true;
+      return stream;
+    }
+
+    private Stream<JsTsFile> takeFiles() {
+      if (lazyFiles != null) {
+        var stream = lazyFiles;
+        lazyFiles = null;
+        return stream;
+      }
+      return files == null ? Stream.empty() : files.values().stream();
+    }
+
+    public List<EslintRule> getRules() {
+      return rules;
+    }
+
+    public List<StylelintRule> getCssRules() {
+      return cssRules;
+    }
+
+    public void setCssRules(List<StylelintRule> cssRules) {
+      this.cssRules = cssRules;
+    }
+
     public ProjectAnalysisConfiguration getConfiguration() {
       return configuration;
     }
@@ -166,6 +246,14 @@ public interface BridgeServer extends Startable {
     public void setRulesWorkdir(String rulesWorkdir) {
       this.rulesWorkdir = rulesWorkdir;
     }
+
+    public void setRulesFingerprint(String rulesFingerprint) {
+      this.rulesFingerprint = rulesFingerprint;
+    }
+
+    public void setResultsBuffer(@Nullable ResultsBuffer resultsBuffer) {
+      this.resultsBuffer = resultsBuffer;
+    }
   }
 
   class ProjectAnalysisConfiguration {
@@ -194,6 +282,10 @@ public interface BridgeServer extends Startable {
     boolean detectBundles;
     boolean canAccessFileSystem;
     boolean createTSProgramForOrphanFiles;
+    boolean binaryResults;
+    boolean batchResults;
+    int recycleAfterFiles;
+    int recycleHeapPercent;
 
     /*
     We do not set sources, inclusions, exclusions, tests, testInclusions nor testExclusions as Sonar Engine
@@ -230,6 +322,10 @@ public interface BridgeServer extends Startable {
       this.canAccessFileSystem = analysisConfiguration.canAccessFileSystem();
       this.createTSProgramForOrphanFiles =
         analysisConfiguration.shouldCreateTSProgramForOrphanFiles();
+      this.binaryResults = analysisConfiguration.useBinaryResults();
+      this.batchResults = analysisConfiguration.useBatchedResults();
+      this.recycleAfterFiles = analysisConfiguration.getRecycleAfterFiles();
+      this.recycleHeapPercent = analysisConfiguration.getRecycleHeapPercent();
     }
 
     public boolean skipAst() {
@@ -247,6 +343,14 @@ public interface BridgeServer extends Startable {
     public void setFsEvents(Map<String, String> fsEvents) {
       this.fsEvents = fsEvents;
     }
+
+    /**
+     * The analysis then runs to its end in the same bridge server, whatever its heap usage.
+     */
+    public void disableRecycling() {
+      this.recycleAfterFiles = 0;
+      this.recycleHeapPercent = 0;
+    }
   }
 
   record ProjectAnalysisMetaResponse(List<String> warnings) {
@@ -289,7 +393,8 @@ public interface BridgeServer extends Startable {
     List<HighlightedSymbol> highlightedSymbols,
     Metrics metrics,
     List<CpdToken> cpdTokens,
-    @Nullable Node ast
+    @Nullable Node ast,
+    List<EslintHookData> hookData
   ) {
     public AnalysisResponse() {
       this(null, List.of(), List.of(), List.of(), new Metrics(), List.of(), null);
@@ -303,6 +408,22 @@ public interface BridgeServer extends Startable {
       @Nullable Metrics metrics,
       @Nullable List<CpdToken> cpdTokens,
       @Nullable Node ast
+    ) {
+      this(parsingError, issues, highlights, highlightedSymbols, metrics, cpdTokens, ast, null);
+    }
+
+    /**
+     * @param hookData the data published by ESLint hooks, only sent in binary file results
+     */
+    public AnalysisResponse(
+      @Nullable ParsingError parsingError,
+      @Nullable List<Issue> issues,
+      @Nullable List<Highlight> highlights,
+      @Nullable List<HighlightedSymbol> highlightedSymbols,
+      @Nullable Metrics metrics,
+      @Nullable List<CpdToken> cpdTokens,
+      @Nullable Node ast,
+      @Nullable List<EslintHookData> hookData
     ) {
       this.parsingError = parsingError;
       this.issues = issues != null ? issues : List.of();
@@ -311,6 +432,7 @@ public interface BridgeServer extends Startable {
       this.metrics = metrics != null ? metrics : new Metrics();
       this.cpdTokens = cpdTokens != null ? cpdTokens : List.of();
       this.ast = ast;
+      this.hookData = hookData != null ? hookData : List.of();
     }
 
     public static AnalysisResponse fromDTO(AnalysisResponseDTO analysisResponseDTO) {
@@ -332,14 +454,97 @@ public interface BridgeServer extends Startable {
         ast
       );
     }
+
+    public static AnalysisResponse fromProtobuf(FileResultProto.FileResult fileResult) {
+      Node ast = null;
+      if (!fileResult.getAst().isEmpty()) {
+        try {
+          ast = AstProtoUtils.readProtobufFromBytes(fileResult.getAst().toByteArray());
+        } catch (IOException e) {
+          throw new IllegalStateException("Failed to parse protobuf", e);
+        }
+      }
+      return new AnalysisResponse(
+        fileResult.hasParsingError()
+          ? ParsingError.fromProtobuf(fileResult.getParsingError())
+          : null,
+        fileResult.getIssuesList().stream().map(Issue::fromProtobuf).toList(),
+        highlightsFromProtobuf(fileResult),
+        fileResult
+          .getHighlightedSymbolsList()
+          .stream()
+          .map(HighlightedSymbol::fromProtobuf)
+          .toList(),
+        fileResult.hasMetrics() ? Metrics.fromProtobuf(fileResult.getMetrics()) : null,
+        cpdTokensFromProtobuf(fileResult),
+        ast,
+        fileResult.getHookDataList().stream().map(AnalysisResponse::hookDataFromProtobuf).toList()
+      );
+    }
+
+    private static EslintHookData hookDataFromProtobuf(FileResultProto.HookData hookData) {
+      return new EslintHookData(
+        hookData.getName(),
+        hookData.getType(),
+        hookData.getPayload().toByteArray()
+      );
+    }
+
+    private static List<Highlight> highlightsFromProtobuf(FileResultProto.FileResult fileResult) {
+      var locations = Location.fromProtobuf(fileResult.getHighlightLocationsList());
+      var types = fileResult.getHighlightTypesList();
+      var highlights = new ArrayList<Highlight>(locations.size());
+      for (int i = 0; i < locations.size(); i++) {
+        highlights.add(new Highlight(locations.get(i), types.get(i).name()));
+      }
+      return highlights;
+    }
+
+    private static List<CpdToken> cpdTokensFromProtobuf(FileResultProto.FileResult fileResult) {
+      var locations = Location.fromProtobuf(fileResult.getCpdTokenLocationsList());
+      var images = fileResult.getCpdTokenImagesList();
+      var cpdTokens = new ArrayList<CpdToken>(locations.size());
+      for (int i = 0; i < locations.size(); i++) {
+        cpdTokens.add(new CpdToken(locations.get(i), images.get(i)));
+      }
+      return cpdTokens;
+    }
+  }
+
+  record ParsingError(String message, Integer line, ParsingErrorCode code) {
+    static ParsingError fromProtobuf(FileResultProto.ParsingError parsingError) {
+      return new ParsingError(
+        parsingError.getMessage(),
+        parsingError.hasLine() ? parsingError.getLine() : null,
+        ParsingErrorCode.fromName(parsingError.getCode())
+      );
+    }
   }
 
-  record ParsingError(String message, Integer line, ParsingErrorCode code) {}
+  /**
+   * The priority class of single-file analysis requests. The bridge serves interactive requests,
+   * e.g. the analysis of the file a developer just saved, before the next file of a running
+   * project analysis.
+   */
+  enum RequestPriority {
+    INTERACTIVE,
+    BACKGROUND,
+  }
 
   enum ParsingErrorCode {
     PARSING,
     FAILING_TYPESCRIPT,
-    GENERAL_ERROR,
+    GENERAL_ERROR;
+
+    @Nullable
+    static ParsingErrorCode fromName(String name) {
+      for (ParsingErrorCode code : values()) {
+        if (code.name().equals(name)) {
+          return code;
+        }
+      }
+      return null;
+    }
   }
 
   record Issue(
@@ -355,11 +560,39 @@ public interface BridgeServer extends Startable {
     List<QuickFix> quickFixes,
     List<String> ruleESLintKeys,
     String filePath
-  ) {}
+  ) {
+    static Issue fromProtobuf(FileResultProto.Issue issue) {
+      return new Issue(
+        issue.getLine(),
+        issue.getColumn(),
+        issue.hasEndLine() ? issue.getEndLine() : null,
+        issue.hasEndColumn() ? issue.getEndColumn() : null,
+        issue.getMessage(),
+        issue.getRuleId(),
+        issue.getLanguage(),
+        issue.getSecondaryLocationsList().stream().map(IssueLocation::fromProtobuf).toList(),
+        issue.hasCost() ? issue.getCost() : null,
+        issue.getQuickFixesList().stream().map(QuickFix::fromProtobuf).toList(),
+        issue.getRuleEslintKeysList(),
+        issue.getFilePath()
+      );
+    }
+  }
 
-  record QuickFix(String message, List<QuickFixEdit> edits) {}
+  record QuickFix(String message, List<QuickFixEdit> edits) {
+    static QuickFix fromProtobuf(FileResultProto.QuickFix quickFix) {
+      return new QuickFix(
+        quickFix.getMessage(),
+        quickFix.getEditsList().stream().map(QuickFixEdit::fromProtobuf).toList()
+      );
+    }
+  }
 
-  record QuickFixEdit(String text, IssueLocation loc) {}
+  record QuickFixEdit(String text, IssueLocation loc) {
+    static QuickFixEdit fromProtobuf(FileResultProto.QuickFixEdit edit) {
+      return new QuickFixEdit(edit.getText(), IssueLocation.fromProtobuf(edit.getLoc()));
+    }
+  }
 
   record IssueLocation(
     Integer line,
@@ -367,11 +600,28 @@ public interface BridgeServer extends Startable {
     Integer endLine,
     Integer endColumn,
     String message
-  ) {}
+  ) {
+    static IssueLocation fromProtobuf(FileResultProto.IssueLocation location) {
+      return new IssueLocation(
+        location.getLine(),
+        location.getColumn(),
+        location.getEndLine(),
+        location.getEndColumn(),
+        location.hasMessage() ? location.getMessage() : null
+      );
+    }
+  }
 
   record Highlight(Location location, String textType) {}
 
-  record HighlightedSymbol(Location declaration, List<Location> references) {}
+  record HighlightedSymbol(Location declaration, List<Location> references) {
+    static HighlightedSymbol fromProtobuf(FileResultProto.HighlightedSymbol symbol) {
+      return new HighlightedSymbol(
+        Location.fromProtobuf(symbol.getDeclarationList()).get(0),
+        Location.fromProtobuf(symbol.getReferencesList())
+      );
+    }
+  }
 
   record Location(int startLine, int startCol, int endLine, int endCol) {
     public TextRange toTextRange(InputFile inputFile) {
@@ -382,6 +632,24 @@ public interface BridgeServer extends Startable {
     public String toString() {
       return String.format("%d:%d-%d:%d", startLine, startCol, endLine, endCol);
     }
+
+    /**
+     * Decodes locations flattened as consecutive [startLine, startCol, endLine, endCol] tuples.
+     */
+    static List<Location> fromProtobuf(List<Integer> flattened) {
+      var locations = new ArrayList<Location>(flattened.size() / 4);
+      for (int i = 0; i + 3 < flattened.size(); i += 4) {
+        locations.add(
+          new Location(
+            flattened.get(i),
+            flattened.get(i + 1),
+            flattened.get(i + 2),
+            flattened.get(i + 3)
+          )
+        );
+      }
+      return locations;
+    }
   }
 
   record Metrics(
@@ -398,6 +666,20 @@ public interface BridgeServer extends Startable {
     public Metrics() {
       this(List.of(), List.of(), List.of(), List.of(), 0, 0, 0, 0, 0);
     }
+
+    static Metrics fromProtobuf(FileResultProto.Metrics metrics) {
+      return new Metrics(
+        metrics.getNclocList(),
+        metrics.getCommentLinesList(),
+        metrics.getNosonarLinesList(),
+        metrics.getExecutableLinesList(),
+        metrics.getFunctions(),
+        metrics.getStatements(),
+        metrics.getClasses(),
+        metrics.getComplexity(),
+        metrics.getCognitiveComplexity()
+      );
+    }
   }
 
   record CpdToken(Location location, String image) {}
@@ -16,7 +16,11 @@
  */
 package org.sonar.plugins.javascript.bridge;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.function.LongSupplier;
 import org.sonar.api.SonarProduct;
+import org.sonar.api.batch.fs.FileSystem;
 import org.sonar.api.batch.sensor.SensorContext;
 import org.sonar.api.config.Configuration;
 
@@ -25,17 +29,43 @@ import org.sonar.api.config.Configuration;
  * However, {@link org.sonar.api.batch.sensor.SensorContext} is a big object, containing more than what we need.
  * This class will contain only information required by {@link BridgeServerImpl}.
  * This will reduce the dependency on external API, and ease the testing.
+ *
+ * @param sourceSize the size in bytes of the JavaScript/TypeScript sources, only computed when
+ *                   needed to size the heap of the bridge
  */
 public record BridgeServerConfig(
   Configuration config,
   String workDirAbsolutePath,
-  SonarProduct product
+  SonarProduct product,
+  LongSupplier sourceSize
 ) {
+  public BridgeServerConfig(
+    Configuration config,
+    String workDirAbsolutePath,
+    SonarProduct product
+  ) {
+    this(config, workDirAbsolutePath, product, () -> 0L);
+  }
+
   public static BridgeServerConfig fromSensorContext(SensorContext context) {
+    var fileSystem = context.fileSystem();
     return new BridgeServerConfig(
       context.config(),
-      context.fileSystem().workDir().getAbsolutePath(),
-      context.runtime().getProduct()
+      fileSystem.workDir().getAbsolutePath(),
+      context.runtime().getProduct(),
+      () -> sourceSize(fileSystem)
     );
   }
+
+  private static long sourceSize(FileSystem fileSystem) {
+    var size = 0L;
+    for (var inputFile : fileSystem.inputFiles(fileSystem.predicates().hasLanguages("js", "ts"))) {
+      try {
+        size += Files.size(inputFile.path());
+      } catch (IOException e) {
+        // the file is not counted
+      }
+    }
+    return size;
+  }
 }
@@ -22,29 +22,47 @@ import static org.sonar.plugins.javascript.nodejs.NodeCommandBuilderImpl.NODE_FO
 import static org.sonar.plugins.javascript.nodejs.NodeCommandBuilderImpl.SKIP_NODE_PROVISIONING_PROPERTY;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonIOException;
 import com.google.gson.JsonSyntaxException;
 import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
 import java.net.InetAddress;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.Nullable;
+import org.java_websocket.exceptions.WebsocketNotConnectedException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sonar.api.SonarProduct;
@@ -67,8 +85,34 @@ public class BridgeServerImpl implements BridgeServer {
   private static final int DEFAULT_TIMEOUT_SECONDS = 5 * 60;
   private static final int TIME_AFTER_FAILURE_TO_RESTART_MS = 60 * 1000;
   // internal property to set "--max-old-space-size" for Node process running this server
-  private static final String MAX_OLD_SPACE_SIZE_PROPERTY = "sonar.javascript.node.maxspace";
-  private static final String DEBUG_MEMORY = "sonar.javascript.node.debugMemory";
+  static final String MAX_OLD_SPACE_SIZE_PROPERTY = "sonar.javascript.node.maxspace";
+  static final String DEBUG_MEMORY = "sonar.javascript.node.debugMemory";
+  // internal properties to tune the processing of project analysis results
+  static final String RESULT_WORKERS_PROPERTY = "sonar.javascript.bridge.resultWorkers";
+  static final String RESULT_QUEUE_CAPACITY_PROPERTY =
+    "sonar.javascript.bridge.resultQueueCapacity";
+  private static final int DEFAULT_RESULT_WORKERS = 2;
+  private static final int DEFAULT_RESULT_QUEUE_CAPACITY = 100;
+  // internal property to set the number of files per 'on-project-files' message, 0 sends them all
+  // within the 'on-analyze-project' message
+  static final String FILE_CHUNK_SIZE_PROPERTY = "sonar.javascript.bridge.fileChunkSize";
+  private static final int DEFAULT_FILE_CHUNK_SIZE = 500;
+  // internal property to talk to the bridge over a Unix domain socket instead of loopback TCP
+  static final String UNIX_SOCKET_PROPERTY = "sonar.javascript.bridge.unixSocket";
+  // socket paths are limited to 104 bytes on macOS and 108 bytes on Linux
+  private static final int MAX_UNIX_SOCKET_PATH_LENGTH = 100;
+  private static final AtomicInteger UNIX_SOCKET_COUNTER = new AtomicInteger();
+  // internal property to deploy and start the bridge in the background as soon as the plugin starts
+  static final String WARM_UP_PROPERTY = "sonar.javascript.bridge.warmUp";
+  // internal property to send single-file requests over the WebSocket connection, so that several
+  // of them can be in flight at once, e.g. for the editors opened in SonarLint
+  static final String MULTIPLEX_REQUESTS_PROPERTY = "sonar.javascript.bridge.multiplexRequests";
+  // internal property to compress large payloads exchanged with the bridge, by default only when
+  // it runs in another process given by SONARJS_EXISTING_NODE_PROCESS_PORT, e.g. in a container
+  static final String COMPRESSION_PROPERTY = "sonar.javascript.bridge.compression";
+  // internal property to have a bridge running on the same host write binary file results into a
+  // memory-mapped ring buffer, rather than sending them over the WebSocket connection
+  static final String SHARED_RESULTS_PROPERTY = "sonar.javascript.bridge.sharedMemoryResults";
   public static final String SONARLINT_BUNDLE_PATH = "sonar.js.internal.bundlePath";
   /**
    * The default timeout to shut down server if no request is received
@@ -81,28 +125,47 @@ public class BridgeServerImpl implements BridgeServer {
   public static final String NODE_TIMEOUT_PROPERTY = "sonar.javascript.node.timeout";
   public static final String SONARJS_EXISTING_NODE_PROCESS_PORT =
     "SONARJS_EXISTING_NODE_PROCESS_PORT";
-  private static final Gson GSON = new Gson();
+  private static final Gson GSON = BridgeJson.GSON;
   private static final String BRIDGE_DEPLOY_LOCATION = "bridge-bundle";
+  // answered by the bridge to an init-linter request referring to a configuration it does not know
+  static final String UNKNOWN_FINGERPRINT = "UNKNOWN_FINGERPRINT";
+  // written by the bridge on its standard output once it accepts requests
+  static final String READY_TOKEN = "SONARJS_BRIDGE_READY";
 
   private final NodeCommandBuilder nodeCommandBuilder;
   private final int timeoutSeconds;
   private final Bundle bundle;
   private final String hostAddress;
   private int port;
+  private Path unixSocket;
+  private Http unixSocketHttp;
   private NodeCommand nodeCommand;
   private Status status = Status.NOT_STARTED;
   private final RulesBundles rulesBundles;
   private List<Path> deployedBundles = Collections.emptyList();
   private String workdir;
+  // fingerprints of the linter configurations sent to the running bridge server
+  private final Set<String> linterFingerprints = ConcurrentHashMap.newKeySet();
+  private boolean multiplexRequests;
+  private boolean compression;
+  private boolean sharedResults;
+  private RequestPriority requestPriority = RequestPriority.BACKGROUND;
   private final NodeDeprecationWarning deprecationWarning;
   private final Path temporaryDeployLocation;
   private final EmbeddedNode embeddedNode;
   private static final int HEARTBEAT_INTERVAL_SECONDS = 5;
+  // the bridge is considered busy when its event loop lags more than this
+  private static final long BUSY_EVENT_LOOP_LAG_MS = 1000;
   private final ScheduledExecutorService heartbeatService;
   private ScheduledFuture<?> heartbeatFuture;
   private final Http http;
   private Long latestOKIsAliveTimestamp;
+  private volatile long latestPongTimestamp;
   private JSWebSocketClient client;
+  private CompletableFuture<Readiness> readiness = new CompletableFuture<>();
+  private CompletableFuture<Void> warmUp;
+  private BridgeDaemon daemon;
+  private NodeHeapSizing.HeapSize uncheckedHeapSize;
 
   // Used by pico container for dependency injection
   public BridgeServerImpl(
@@ -167,13 +230,51 @@ public class BridgeServerImpl implements BridgeServer {
     this.http = http;
   }
 
+  /**
+   * Pings the bridge server over the WebSocket connection when it is open, as pongs are answered
+   * even while the bridge is busy, see {@link #onPong(long)}. The status of the server is checked
+   * otherwise.
+   */
   void heartbeat() {
-    LOG.trace("Pinging the bridge server");
+    var webSocket = client;
+    if (webSocket != null && webSocket.isOpen()) {
+      LOG.trace("Pinging the bridge server over the WebSocket");
+      try {
+        webSocket.sendPing();
+        return;
+      } catch (WebsocketNotConnectedException e) {
+        LOG.trace("The WebSocket connection is closed, checking the bridge server status");
+      }
+    } else {
+      LOG.trace("Pinging the bridge server");
+    }
     isAlive();
   }
 
+  private void onPong(long eventLoopLag) {
+    latestPongTimestamp = System.currentTimeMillis();
+    latestOKIsAliveTimestamp = latestPongTimestamp;
+    if (eventLoopLag >= BUSY_EVENT_LOOP_LAG_MS) {
+      LOG.debug("The bridge server is busy, its event loop lags by {} ms", eventLoopLag);
+    }
+  }
+
+  /**
+   * Whether the bridge server answered a ping during the last heartbeats, meaning that it is alive
+   * even if too busy to answer its status in time.
+   */
+  private boolean hasAnsweredPings() {
+    var webSocket = client;
+    return (
+      webSocket != null &&
+      webSocket.isOpen() &&
+      System.currentTimeMillis() - latestPongTimestamp < 2_000L * HEARTBEAT_INTERVAL_SECONDS
+    );
+  }
+
   void serverHasStarted() {
     status = Status.STARTED;
+    linterFingerprints.clear();
     if (heartbeatFuture == null) {
       LOG.trace("Starting heartbeat service");
       heartbeatFuture = heartbeatService.scheduleAtFixedRate(
@@ -199,7 +300,7 @@ public class BridgeServerImpl implements BridgeServer {
     if (bundlePath.isPresent()) {
       bundle.setDeployLocation(Path.of(bundlePath.get()));
     } else {
-      bundle.deploy(temporaryDeployLocation);
+      bundle.deploy(daemon == null ? temporaryDeployLocation : daemon.bundleLocation());
     }
     if (
       configuration.get(NODE_EXECUTABLE_PROPERTY).isPresent() ||
@@ -223,7 +324,13 @@ public class BridgeServerImpl implements BridgeServer {
   void startServer(BridgeServerConfig serverConfig) throws IOException {
     LOG.debug("Starting server");
     long start = System.currentTimeMillis();
-    port = findOpenPort();
+    unixSocket = unixSocketPath(serverConfig);
+    if (unixSocket == null) {
+      port = findOpenPort();
+    } else {
+      port = 0;
+      unixSocketHttp = Http.getUnixDomainSocketHttpClient(unixSocket);
+    }
 
     File scriptFile = new File(bundle.startServerScript());
     if (!scriptFile.exists()) {
@@ -232,9 +339,17 @@ public class BridgeServerImpl implements BridgeServer {
       );
     }
 
-    LOG.debug("Creating Node.js process to start the bridge server on port {} ", port);
+    LOG.debug("Creating Node.js process to start the bridge server on {} ", endpoint());
     nodeCommand = initNodeCommand(serverConfig, scriptFile);
     nodeCommand.start();
+    var announcement = readiness;
+    nodeCommand
+      .onExit()
+      .thenAccept(exitValue ->
+        announcement.completeExceptionally(
+          new IllegalStateException("The Node.js process exited with code " + exitValue)
+        )
+      );
 
     if (!waitServerToStart(timeoutSeconds * 1000)) {
       status = Status.FAILED;
@@ -245,7 +360,7 @@ public class BridgeServerImpl implements BridgeServer {
       serverHasStarted();
     }
     long duration = System.currentTimeMillis() - start;
-    LOG.debug("Bridge server started on port {} in {} ms", port, duration);
+    LOG.debug("Bridge server started on {} in {} ms", endpoint(), duration);
     establishWebSocketConnection();
 
     deprecationWarning.logNodeDeprecation(nodeCommand.getActualNodeVersion());
@@ -257,7 +372,8 @@ public class BridgeServerImpl implements BridgeServer {
       return;
     }
     try {
-      this.client = new JSWebSocketClient(wsUrl());
+      this.client = new JSWebSocketClient(wsUrl(), unixSocket, compression);
+      this.client.setPongListener(this::onPong);
       this.client.connectBlocking();
     } catch (InterruptedException e) {
       Thread.currentThread().interrupt();
@@ -265,21 +381,63 @@ public class BridgeServerImpl implements BridgeServer {
     }
   }
 
+  /**
+   * Returns the Unix domain socket the bridge should listen to, or null to use loopback TCP.
+   */
+  @Nullable
+  private Path unixSocketPath(BridgeServerConfig serverConfig) throws IOException {
+    if (!serverConfig.config().getBoolean(UNIX_SOCKET_PROPERTY).orElse(false)) {
+      return null;
+    }
+    if (daemon != null) {
+      LOG.debug("The bridge daemon listens on TCP, as its socket would outlive the analysis");
+      return null;
+    }
+    if (System.getProperty("os.name").toLowerCase(Locale.ROOT).startsWith("windows")) {
+      LOG.debug("Unix domain sockets are not used on Windows, falling back to TCP");
+      return null;
+    }
+    var socket = temporaryDeployLocation
+      .resolve("bridge-" + UNIX_SOCKET_COUNTER.incrementAndGet() + ".sock")
+      .toAbsolutePath();
+    if (socket.toString().getBytes(StandardCharsets.UTF_8).length > MAX_UNIX_SOCKET_PATH_LENGTH) {
+      LOG.debug("Unix domain socket path {} is too long, falling back to TCP", socket);
+      return null;
+    }
+    Files.deleteIfExists(socket);
+    return socket;
+  }
+
+  private String endpoint() {
+    return unixSocket == null ? ("port " + port) : ("socket " + unixSocket);
+  }
+
+  /**
+   * Waits for the bridge to announce on its standard output that it is ready, see
+   * {@link #READY_TOKEN}. The status of the server is only checked once the announcement timed
+   * out, in case the bridge does not announce itself. The wait stops as soon as the Node.js
+   * process exits.
+   */
   boolean waitServerToStart(int timeoutMs) {
-    int sleepStep = 100;
-    long start = System.currentTimeMillis();
     try {
-      Thread.sleep(sleepStep);
-      while (!isAlive()) {
-        if (System.currentTimeMillis() - start > timeoutMs) {
-          return false;
-        }
-        Thread.sleep(sleepStep);
-      }
+      onReady(readiness.get(timeoutMs, TimeUnit.MILLISECONDS));
+      return true;
+    } catch (TimeoutException e) {
+      return isAlive();
     } catch (InterruptedException e) {
       Thread.currentThread().interrupt();
+      return false;
+    } catch (ExecutionException e) {
+      LOG.debug("The bridge server did not start: {}", e.getCause().getMessage());
+      return false;
     }
-    return true;
+  }
+
+  private void onReady(Readiness announcement) {
+    if (unixSocket == null && announcement.port() > 0) {
+      port = announcement.port();
+    }
+    LOG.debug("The bridge server is ready with capabilities {}", announcement.capabilities());
   }
 
   private NodeCommand initNodeCommand(BridgeServerConfig serverConfig, File scriptFile)
@@ -289,28 +447,46 @@ public class BridgeServerImpl implements BridgeServer {
       LOG.info("Running in SonarLint context, metrics will not be computed.");
     }
     var debugMemory = config.getBoolean(DEBUG_MEMORY).orElse(false);
-    var nodeTimeout = config.getInt(NODE_TIMEOUT_PROPERTY).orElse(DEFAULT_NODE_SHUTDOWN_TIMEOUT_MS);
+    var nodeTimeout = daemon == null
+      ? config.getInt(NODE_TIMEOUT_PROPERTY).orElse(DEFAULT_NODE_SHUTDOWN_TIMEOUT_MS)
+      : daemon.idleTimeoutMs();
+    var scriptArgs = new ArrayList<>(
+      List.of(
+        String.valueOf(port),
+        hostAddress,
+        String.valueOf(debugMemory),
+        String.valueOf(nodeTimeout)
+      )
+    );
+    if (unixSocket != null) {
+      scriptArgs.add(unixSocket.toString());
+    }
 
+    readiness = new CompletableFuture<>();
     nodeCommandBuilder
-      .outputConsumer(new LogOutputConsumer())
+      .outputConsumer(new LogOutputConsumer(readiness::complete))
       .errorConsumer(LOG::error)
       .embeddedNode(embeddedNode)
       .pathResolver(bundle)
       .minNodeVersion(NodeDeprecationWarning.MIN_SUPPORTED_NODE_VERSION)
       .configuration(serverConfig.config())
       .script(scriptFile.getAbsolutePath())
-      .scriptArgs(
-        String.valueOf(port),
-        hostAddress,
-        String.valueOf(debugMemory),
-        String.valueOf(nodeTimeout)
-      )
+      .scriptArgs(scriptArgs.toArray(String[]::new))
       .env(getEnv());
 
-    serverConfig
-      .config()
-      .getInt(MAX_OLD_SPACE_SIZE_PROPERTY)
-      .ifPresent(nodeCommandBuilder::maxOldSpaceSize);
+    var maxOldSpaceSize = config.getInt(MAX_OLD_SPACE_SIZE_PROPERTY);
+    if (maxOldSpaceSize.isPresent()) {
+      nodeCommandBuilder.maxOldSpaceSize(maxOldSpaceSize.get());
+    } else if (config.getBoolean(NodeHeapSizing.AUTO_SIZING_PROPERTY).orElse(true)) {
+      var heapSize = NodeHeapSizing.fromContainer(
+        NodeHeapSizing.CGROUP_ROOT,
+        BridgeServerPool.poolSize(serverConfig)
+      );
+      var heapArgs = heapSize.map(NodeHeapSizing.HeapSize::nodeJsArgs).orElse(List.of());
+      nodeCommandBuilder.nodeJsArgs(heapArgs.toArray(String[]::new));
+      // checked against the project sources once they are known, the warm-up starts without them
+      uncheckedHeapSize = heapSize.orElse(null);
+    }
 
     return nodeCommandBuilder.build();
   }
@@ -325,8 +501,74 @@ public class BridgeServerImpl implements BridgeServer {
     return env;
   }
 
+  /**
+   * Deploys and starts the bridge server on a background thread, when enabled by
+   * {@link #WARM_UP_PROPERTY}, so that it overlaps with the indexing of the project files. The
+   * first call to {@link #startServerLazily(BridgeServerConfig)} waits for the warm-up to complete.
+   * <p>
+   * The Node.js process is started from the project configuration, the one the sensors read too.
+   * The settings of the connection, the work directory and the size of the sources are only
+   * known once a sensor calls {@link #startServerLazily(BridgeServerConfig)}, which applies them.
+   */
+  void warmUp(Configuration configuration, SonarProduct product) {
+    if (
+      !configuration.getBoolean(WARM_UP_PROPERTY).orElse(false) ||
+      warmUp != null ||
+      status != Status.NOT_STARTED ||
+      nodeAlreadyRunningPort() != 0
+    ) {
+      return;
+    }
+    var serverConfig = new BridgeServerConfig(
+      configuration,
+      temporaryDeployLocation.toString(),
+      product
+    );
+    LOG.debug("Warming up the bridge server in the background");
+    warmUp = CompletableFuture.runAsync(
+      () -> {
+        try {
+          deployAndStartServer(serverConfig);
+        } catch (NodeCommandException e) {
+          status = Status.FAILED;
+          throw e;
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      },
+      runnable -> {
+        var thread = new Thread(runnable, "sonarjs-bridge-warm-up");
+        thread.setDaemon(true);
+        thread.start();
+      }
+    );
+  }
+
+  /**
+   * Waits for the warm-up of the bridge server, if any, rethrowing its failure.
+   */
+  private void awaitWarmUp() throws IOException {
+    var pending = warmUp;
+    if (pending == null) {
+      return;
+    }
+    warmUp = null;
+    try {
+      pending.join();
+      LOG.debug("The bridge server was started by the warm-up");
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof UncheckedIOException io) {
+        throw io.getCause();
+      } else if (e.getCause() instanceof RuntimeException runtime) {
+        throw runtime;
+      }
+      throw e;
+    }
+  }
+
   @Override
   public void startServerLazily(BridgeServerConfig serverConfig) throws IOException {
+    awaitWarmUp();
     if (status == Status.FAILED) {
       if (shouldRestartFailedServer()) {
         // Reset the status, which will cause the server to retry deployment
@@ -336,10 +578,12 @@ public class BridgeServerImpl implements BridgeServer {
         throw new ServerAlreadyFailedException();
       }
     }
+    readSettings(serverConfig);
     var providedPort = nodeAlreadyRunningPort();
     // if SONARJS_EXISTING_NODE_PROCESS_PORT is set, use existing node process
     if (providedPort != 0) {
       port = providedPort;
+      unixSocket = null;
       serverHasStarted();
       LOG.info("Using existing Node.js process on port {}", port);
       establishWebSocketConnection();
@@ -351,13 +595,143 @@ public class BridgeServerImpl implements BridgeServer {
     try {
       if (isAlive()) {
         LOG.debug("The bridge server is up, no need to start.");
+        checkHeapPressure(serverConfig);
         return;
       } else if (status == Status.STARTED) {
         status = Status.FAILED;
         throw new ServerAlreadyFailedException();
       }
+      deployAndStartServer(serverConfig);
+      checkHeapPressure(serverConfig);
+    } catch (NodeCommandException e) {
+      status = Status.FAILED;
+      throw e;
+    }
+  }
+
+  /**
+   * Reads the settings of the connection to the bridge server and of the requests sent to it,
+   * whichever way the server is started.
+   */
+  private void readSettings(BridgeServerConfig serverConfig) {
+    var config = serverConfig.config();
+    var providedPort = nodeAlreadyRunningPort();
+    compression = config.getBoolean(COMPRESSION_PROPERTY).orElse(providedPort != 0);
+    // a bridge given by SONARJS_EXISTING_NODE_PROCESS_PORT may run on another host
+    sharedResults = providedPort == 0 && config.getBoolean(SHARED_RESULTS_PROPERTY).orElse(false);
+    multiplexRequests = config.getBoolean(MULTIPLEX_REQUESTS_PROPERTY).orElse(false);
+    // in SonarLint, single-file requests analyze the files being edited
+    requestPriority = serverConfig.product() == SonarProduct.SONARLINT
+      ? RequestPriority.INTERACTIVE
+      : RequestPriority.BACKGROUND;
+  }
+
+  /**
+   * Warns once per started process when its heap is likely too small for the project sources.
+   */
+  private void checkHeapPressure(BridgeServerConfig serverConfig) {
+    var heapSize = uncheckedHeapSize;
+    if (heapSize != null) {
+      uncheckedHeapSize = null;
+      NodeHeapSizing.checkPressure(heapSize, serverConfig.sourceSize());
+    }
+  }
+
+  /**
+   * Starts the bridge server again once it died, e.g. because its worker thread crashed.
+   */
+  @Override
+  public void restartServer(BridgeServerConfig serverConfig) throws IOException {
+    if (isAlive()) {
+      LOG.debug("The bridge server is up, no need to restart.");
+      return;
+    }
+    LOG.info("Restarting the bridge server");
+    status = Status.NOT_STARTED;
+    startServerLazily(serverConfig);
+  }
+
+  /**
+   * Replaces the running bridge server by a new one, releasing the memory held by the former.
+   * A bridge daemon is shared with other analyses, and is left running.
+   *
+   * @return whether a new bridge server was started
+   */
+  @Override
+  public boolean recycleServer(BridgeServerConfig serverConfig) throws IOException {
+    if (daemon != null) {
+      LOG.debug("The bridge server is a daemon shared with other analyses, not recycling it");
+      return false;
+    }
+    LOG.info("Recycling the bridge server");
+    if (nodeCommand != null && isAlive()) {
+      textResponse(request("", "close"));
+      nodeCommand.waitFor();
+    }
+    // forget the stopped process, so that it cannot be mistaken for the new one
+    closeWebSocketConnection();
+    nodeCommand = null;
+    status = Status.NOT_STARTED;
+    startServerLazily(serverConfig);
+    return true;
+  }
+
+  /**
+   * Deploys and starts the bridge server, unless the bridge daemon is enabled and a compatible one
+   * is already running, see {@link BridgeDaemon}.
+   */
+  private void deployAndStartServer(BridgeServerConfig serverConfig) throws IOException {
+    if (daemon == null) {
+      daemon = BridgeDaemon.acquire(serverConfig.config(), rulesBundles);
+    }
+    if (daemon != null && attachToDaemon(daemon)) {
+      return;
+    }
+    try {
       deploy(serverConfig.config());
       startServer(serverConfig);
+    } catch (IOException | RuntimeException e) {
+      if (daemon != null) {
+        releaseDaemon();
+      }
+      throw e;
+    }
+    if (daemon != null) {
+      daemon.register(port);
+    }
+  }
+
+  private boolean attachToDaemon(BridgeDaemon daemon) throws IOException {
+    var registration = daemon.registration();
+    if (registration.isEmpty()) {
+      return false;
+    }
+    port = registration.get().port();
+    unixSocket = null;
+    var alive = isResponding();
+    if (alive && daemon.isCompatible(registration.get())) {
+      serverHasStarted();
+      LOG.info("Using the bridge daemon on port {}", port);
+      establishWebSocketConnection();
+      return true;
+    }
+    if (alive) {
+      textResponse(request("", "close"));
+    }
+    daemon.unregister();
+    port = 0;
+    return false;
+  }
+
+  /**
+   * Starts an additional bridge server, reusing the bundles deployed by another instance.
+   */
+  void startServer(BridgeServerConfig serverConfig, BridgeServerImpl deployed) throws IOException {
+    readSettings(serverConfig);
+    workdir = deployed.workdir;
+    deployedBundles = deployed.deployedBundles;
+    try {
+      startServer(serverConfig);
     } catch (NodeCommandException e) {
       status = Status.FAILED;
       throw e;
@@ -381,73 +755,283 @@ public class BridgeServerImpl implements BridgeServer {
       deployedBundles.stream().map(Path::toString).toList(),
       workdir
     );
-    String request = GSON.toJson(initLinterRequest);
+    var fingerprint = fingerprint(initLinterRequest);
+    if (linterFingerprints.contains(fingerprint)) {
+      var response = textResponse(
+        request(GSON.toJson(Map.of("fingerprint", fingerprint)), "init-linter")
+      );
+      if ("OK".equals(response)) {
+        return;
+      }
+      LOG.debug("The bridge server does not know the linter configuration anymore");
+    }
+    var request = GSON.toJsonTree(initLinterRequest).getAsJsonObject();
+    request.addProperty("fingerprint", fingerprint);
 
-    String response = textResponse(request(request, "init-linter"));
+    String response = textResponse(request(GSON.toJson(request), "init-linter"));
     if (!"OK".equals(response)) {
       throw new IllegalStateException("Failed to initialize linter");
     }
+    linterFingerprints.add(fingerprint);
+  }
+
+  /**
+   * Fingerprints a linter configuration, so that the bridge server can reuse the linter it
+   * initialized for it instead of receiving it again.
+   */
+  private static String fingerprint(InitLinterRequest linterConfiguration) {
+    try {
+      var digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(
+        digest.digest(GSON.toJson(linterConfiguration).getBytes(StandardCharsets.UTF_8))
+      );
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
   }
 
   private static String textResponse(BridgeResponse response) {
-    BufferedReader bufferedReader = new BufferedReader(response.reader());
-    return bufferedReader.lines().collect(Collectors.joining());
+    try (BufferedReader bufferedReader = new BufferedReader(response.reader())) {
+      return bufferedReader.lines().collect(Collectors.joining());
+    } catch (IOException | UncheckedIOException e) {
+      throw unresponsive(e);
+    }
   }
 
   @Override
   public AnalysisResponse analyzeJsTs(JsAnalysisRequest request) throws IOException {
     String json = GSON.toJson(request);
-    return response(request(json, "analyze-jsts"), request.filePath());
+    return response(request(json, "analyze-jsts", requestPriority), request.filePath());
   }
 
   @Override
   public AnalysisResponse analyzeCss(CssAnalysisRequest request) {
     String json = GSON.toJson(request);
-    return response(request(json, "analyze-css"), request.filePath());
+    return response(request(json, "analyze-css", requestPriority), request.filePath());
   }
 
   @Override
   public AnalysisResponse analyzeYaml(JsAnalysisRequest request) {
     String json = GSON.toJson(request);
-    return response(request(json, "analyze-yaml"), request.filePath());
+    return response(request(json, "analyze-yaml", requestPriority), request.filePath());
   }
 
   @Override
   public AnalysisResponse analyzeHtml(JsAnalysisRequest request) {
     var json = GSON.toJson(request);
-    return response(request(json, "analyze-html"), request.filePath());
+    return response(request(json, "analyze-html", requestPriority), request.filePath());
   }
 
   @Override
   public void analyzeProject(WebSocketMessageHandler<ProjectAnalysisRequest> handler) {
-    this.client.registerHandler(handler);
+    analyze(handler, "on-analyze-project");
+  }
+
+  @Override
+  public void analyzeCssProject(WebSocketMessageHandler<ProjectAnalysisRequest> handler) {
+    analyze(handler, "on-analyze-css-project");
+  }
+
+  private void analyze(WebSocketMessageHandler<ProjectAnalysisRequest> handler, String type) {
+    var config = handler.getContext().config();
+    this.client.registerHandler(
+      new QueuedMessageHandler<>(
+        handler,
+        Math.max(1, config.getInt(RESULT_WORKERS_PROPERTY).orElse(DEFAULT_RESULT_WORKERS)),
+        Math.max(
+          1,
+          config.getInt(RESULT_QUEUE_CAPACITY_PROPERTY).orElse(DEFAULT_RESULT_QUEUE_CAPACITY)
+        ),
+        paused ->
+          this.client.send(
+            GSON.toJson(Map.of("type", paused ? "on-pause-analysis" : "on-resume-analysis"))
+          )
+      )
+    );
     var request = handler.getRequest();
     request.setBundles(deployedBundles.stream().map(Path::toString).toList());
     request.setRulesWorkdir(workdir);
-    this.client.send(GSON.toJson(Map.of("type", "on-analyze-project", "data", request)));
-    handler.getFuture().join();
+    if ("on-analyze-project".equals(type)) {
+      setRulesFingerprint(request);
+    }
+    var chunkSize = config.getInt(FILE_CHUNK_SIZE_PROPERTY).orElse(DEFAULT_FILE_CHUNK_SIZE);
+    var resultsBuffer = "on-analyze-project".equals(type) ? sharedResultsBuffer(request) : null;
+    try (var watcher = CancellationWatcher.watch(handler.getContext(), this::cancelAnalysis)) {
+      if (chunkSize <= 0) {
+        request.getFiles();
+        this.client.send(GSON.toJson(Map.of("type", type, "data", request)));
+      } else {
+        var files = request.streamFiles();
+        this.client.send(GSON.toJson(Map.of("type", type, "data", request)));
+        sendFiles(files, chunkSize, watcher);
+      }
+      handler.getFuture().join();
+    } finally {
+      if (resultsBuffer != null) {
+        client.setResultsBuffer(null);
+        request.setResultsBuffer(null);
+        resultsBuffer.close();
+      }
+    }
+  }
+
+  /**
+   * Creates the buffer where the bridge writes the file results of the analysis, when enabled
+   */
+  @Nullable
+  private SharedResultsBuffer sharedResultsBuffer(ProjectAnalysisRequest request) {
+    if (!sharedResults || !request.getConfiguration().binaryResults) {
+      return null;
+    }
+    var resultsBuffer = SharedResultsBuffer.create(
+      SharedResultsBuffer.SHARED_MEMORY_DIRECTORY,
+      SharedResultsBuffer.DEFAULT_SIZE
+    ).orElse(null);
+    if (resultsBuffer != null) {
+      client.setResultsBuffer(resultsBuffer);
+      request.setResultsBuffer(resultsBuffer.descriptor());
+    }
+    return resultsBuffer;
+  }
+
+  /**
+   * Asks the bridge to stop the project analysis in progress, which then answers with a
+   * 'cancelled' message once the file being analyzed is done.
+   */
+  private void cancelAnalysis() {
+    this.client.send(GSON.toJson(Map.of("type", "on-cancel-analysis")));
+  }
+
+  /**
+   * The fingerprint of the linter configuration of a project analysis is the one of the equivalent
+   * init-linter request, so that both can reuse the same linter. The rules are still sent, as the
+   * analysis could not recover from the bridge server not knowing the fingerprint anymore.
+   */
+  private void setRulesFingerprint(ProjectAnalysisRequest request) {
+    var configuration = request.getConfiguration();
+    if (configuration.environments == null || configuration.globals == null) {
+      // the bridge server applies its own defaults
+      return;
+    }
+    var fingerprint = fingerprint(
+      new InitLinterRequest(
+        request.getRules(),
+        configuration.environments,
+        configuration.globals,
+        configuration.baseDir,
+        configuration.sonarlint,
+        deployedBundles.stream().map(Path::toString).toList(),
+        workdir
+      )
+    );
+    request.setRulesFingerprint(fingerprint);
+    linterFingerprints.add(fingerprint);
+  }
+
+  /**
+   * Sends the project files as they are resolved, so that the bridge can start processing them
+   * before all of them are known.
+   */
+  private void sendFiles(Stream<JsTsFile> files, int chunkSize, CancellationWatcher watcher) {
+    var chunk = new LinkedHashMap<String, JsTsFile>();
+    var count = 0;
+    var iterator = files.iterator();
+    while (iterator.hasNext()) {
+      var file = iterator.next();
+      chunk.put(file.filePath(), file);
+      count++;
+      if (chunk.size() >= chunkSize) {
+        if (!sendUnlessCancelled(Map.of("type", "on-project-files", "data", chunk), watcher)) {
+          return;
+        }
+        chunk.clear();
+      }
+    }
+    var lastChunk = Map.of("type", "on-project-files", "data", chunk);
+    if (!chunk.isEmpty() && !sendUnlessCancelled(lastChunk, watcher)) {
+      return;
+    }
+    if (sendUnlessCancelled(Map.of("type", "on-project-files-end"), watcher)) {
+      LOG.debug("Sent {} file(s) to the bridge server", count);
+    }
+  }
+
+  /**
+   * The bridge no longer expects files once the analysis is cancelled.
+   */
+  private boolean sendUnlessCancelled(Map<String, ?> message, CancellationWatcher watcher) {
+    var sent = watcher.runUnlessCancelled(() -> this.client.send(GSON.toJson(message)));
+    if (!sent) {
+      LOG.debug("The analysis was cancelled, stopped sending files to the bridge server");
+    }
+    return sent;
   }
 
   private BridgeResponse request(String json, String endpoint) {
+    return request(json, endpoint, RequestPriority.BACKGROUND);
+  }
+
+  /**
+   * Interactive requests are tagged as such, the bridge treats untagged requests as background.
+   * The response is read from the connection as it is decoded, rather than buffered first, and
+   * must be consumed.
+   */
+  private BridgeResponse request(String json, String endpoint, RequestPriority priority) {
+    var interactive = priority == RequestPriority.INTERACTIVE;
+    if (multiplexRequests && client != null && client.isOpen()) {
+      return multiplexedRequest(json, endpoint, interactive);
+    }
     try {
-      var response = http.post(json, url(endpoint), timeoutSeconds);
-      InputStreamReader reader = new InputStreamReader(
-        new ByteArrayInputStream(response.body()),
-        StandardCharsets.UTF_8
-      );
+      var uri = url(endpoint, interactive ? "priority=interactive" : null);
+      var response = http().post(json, uri, timeoutSeconds, compression);
+      InputStreamReader reader = new InputStreamReader(response.body(), StandardCharsets.UTF_8);
       return new BridgeServer.BridgeResponse(reader);
     } catch (IOException e) {
+      throw unresponsive(e);
+    }
+  }
+
+  private static IllegalStateException unresponsive(Exception e) {
+    return new IllegalStateException(
+      "The bridge server is unresponsive. It might be because you don't have enough memory, so please go see the troubleshooting section: " +
+        "https://docs.sonarsource.com/sonarqube-server/latest/analyzing-source-code/languages/javascript-typescript-css/#slow-or-unresponsive-analysis",
+      e
+    );
+  }
+
+  /**
+   * Sends the request over the WebSocket connection rather than HTTP. Unlike HTTP requests, which
+   * each take a connection, any number of them share the WebSocket connection.
+   */
+  private BridgeResponse multiplexedRequest(String json, String endpoint, boolean interactive) {
+    var response = client.request("on-" + endpoint, json, interactive ? "interactive" : null);
+    try {
+      var body = response.get(timeoutSeconds, TimeUnit.SECONDS).getBytes(StandardCharsets.UTF_8);
+      return new BridgeResponse(
+        new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8)
+      );
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtime) {
+        throw runtime;
+      }
+      throw new IllegalStateException(e.getCause());
+    } catch (TimeoutException e) {
+      response.cancel(false);
       throw new IllegalStateException(
-        "The bridge server is unresponsive. It might be because you don't have enough memory, so please go see the troubleshooting section: " +
-          "https://docs.sonarsource.com/sonarqube-server/latest/analyzing-source-code/languages/javascript-typescript-css/#slow-or-unresponsive-analysis",
+        "The bridge server did not answer the " + endpoint + " request in " + timeoutSeconds + "s",
         e
       );
     }
   }
 
   private static AnalysisResponse response(BridgeResponse result, String filePath) {
-    try {
-      return AnalysisResponse.fromDTO(GSON.fromJson(result.reader(), AnalysisResponseDTO.class));
+    try (var reader = result.reader()) {
+      return AnalysisResponse.fromDTO(GSON.fromJson(reader, AnalysisResponseDTO.class));
+    } catch (IOException | JsonIOException e) {
+      throw unresponsive(e);
     } catch (JsonSyntaxException e) {
       String msg =
         "Failed to parse response for file " + filePath + ": \n-----\n" + result + "\n-----\n";
@@ -460,8 +1044,12 @@ public class BridgeServerImpl implements BridgeServer {
     if (nodeCommand == null && status != Status.STARTED) {
       return false;
     }
+    return hasAnsweredPings() || isResponding();
+  }
+
+  private boolean isResponding() {
     try {
-      String res = http.get(url("status"));
+      String res = http().get(url("status"));
       var result = "OK".equals(res);
       if (result) {
         latestOKIsAliveTimestamp = System.currentTimeMillis();
@@ -495,15 +1083,38 @@ public class BridgeServerImpl implements BridgeServer {
   @Override
   public void clean() {
     heartbeatService.shutdownNow();
-    if (nodeCommand != null && isAlive()) {
-      request("", "close");
+    if (daemon != null) {
+      LOG.debug("Leaving the bridge daemon running on port {}", port);
+      releaseDaemon();
+      nodeCommand = null;
+    } else if (nodeCommand != null && isAlive()) {
+      textResponse(request("", "close"));
       nodeCommand.waitFor();
       nodeCommand = null;
     }
+    closeWebSocketConnection();
     port = 0;
+    unixSocket = null;
     status = Status.NOT_STARTED;
   }
 
+  private void closeWebSocketConnection() {
+    if (client != null) {
+      client.close();
+      client = null;
+    }
+    latestPongTimestamp = 0;
+  }
+
+  private void releaseDaemon() {
+    try {
+      daemon.close();
+    } catch (IOException e) {
+      LOG.debug("Failed to release the bridge daemon", e);
+    }
+    daemon = null;
+  }
+
   /**
    * Required for testing purposes
    */
@@ -527,9 +1138,17 @@ public class BridgeServerImpl implements BridgeServer {
 
   @Override
   public void stop() {
+    if (warmUp != null) {
+      warmUp.exceptionally(e -> null).join();
+      warmUp = null;
+    }
     clean();
   }
 
+  private Http http() {
+    return unixSocket == null ? http : unixSocketHttp;
+  }
+
   private URI wsUrl() {
     try {
       return new URI("ws", null, hostAddress, port, "/ws", null, null);
@@ -539,8 +1158,12 @@ public class BridgeServerImpl implements BridgeServer {
   }
 
   private URI url(String endpoint) {
+    return url(endpoint, null);
+  }
+
+  private URI url(String endpoint, @Nullable String query) {
     try {
-      return new URI("http", null, hostAddress, port, "/" + endpoint, null, null);
+      return new URI("http", null, hostAddress, port, "/" + endpoint, query, null);
     } catch (URISyntaxException e) {
       throw new IllegalStateException("Invalid URI: " + e.getMessage(), e);
     }
@@ -569,11 +1192,30 @@ public class BridgeServerImpl implements BridgeServer {
     return System.getenv(SONARJS_EXISTING_NODE_PROCESS_PORT);
   }
 
+  /**
+   * The announcement written by the bridge once it is ready, after {@link #READY_TOKEN}
+   */
+  record Readiness(int port, @Nullable String socket, List<String> capabilities) {}
+
   static class LogOutputConsumer implements Consumer<String> {
 
+    private final Consumer<Readiness> readinessListener;
+
+    LogOutputConsumer(Consumer<Readiness> readinessListener) {
+      this.readinessListener = readinessListener;
+    }
+
     @Override
     public void accept(String message) {
-      if (message.startsWith("DEBUG")) {
+      if (message.startsWith(READY_TOKEN)) {
+        try {
+          readinessListener.accept(
+            GSON.fromJson(message.substring(READY_TOKEN.length()).trim(), Readiness.class)
+          );
+        } catch (JsonSyntaxException e) {
+          LOG.debug("Ignoring malformed readiness announcement: {}", message);
+        }
+      } else if (message.startsWith("DEBUG")) {
         LOG.debug(message.substring(5).trim());
       } else if (message.startsWith("WARN")) {
         LOG.warn(message.substring(4).trim());
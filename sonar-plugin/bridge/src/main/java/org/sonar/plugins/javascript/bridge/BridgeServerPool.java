@@ -0,0 +1,643 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2025 SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.plugins.javascript.bridge;
+
+import static org.sonarsource.api.sonarlint.SonarLintSide.INSTANCE;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonar.api.SonarProduct;
+import org.sonar.api.SonarRuntime;
+import org.sonar.api.batch.sensor.SensorContext;
+import org.sonar.api.config.Configuration;
+import org.sonar.api.scanner.ScannerSide;
+import org.sonar.api.utils.TempFolder;
+import org.sonar.plugins.javascript.nodejs.NodeCommandBuilder;
+import org.sonarsource.api.sonarlint.SonarLintSide;
+
+/**
+ * A {@link BridgeServer} able to run several bridge processes to analyze a project in parallel.
+ * <p>
+ * All requests are served by a primary bridge server, except project analyses when more than one
+ * process is configured. Their files are then partitioned by nearest tsconfig.json, so that files
+ * sharing a TypeScript program are analyzed by the same process, and each partition is sent to its
+ * own bridge process. Results of all partitions are merged into the handler of the analysis.
+ * A failing partition does not fail the others: its remaining files, except the one which crashed
+ * the bridge process, are analyzed again by the bridge processes that are still alive.
+ */
+@ScannerSide
+@SonarLintSide(lifespan = INSTANCE)
+public class BridgeServerPool implements BridgeServer {
+
+  private static final Logger LOG = LoggerFactory.getLogger(BridgeServerPool.class);
+  private static final Gson GSON = BridgeJson.GSON;
+
+  // internal property to set the number of bridge processes, either a number or "auto"
+  static final String PROCESSES_PROPERTY = "sonar.javascript.node.processes";
+  private static final String AUTO = "auto";
+  private static final long DEFAULT_PROCESS_MEMORY_MB = 2048;
+  private static final String TSCONFIG = "tsconfig.json";
+
+  private final BridgeServerImpl primary;
+  private final Supplier<BridgeServerImpl> replicaFactory;
+  private final List<BridgeServerImpl> replicas = new ArrayList<>();
+  private final Configuration configuration;
+  private final SonarProduct product;
+  private BridgeServerConfig serverConfig;
+
+  // Used by pico container for dependency injection when no configuration is available
+  public BridgeServerPool(
+    NodeCommandBuilder nodeCommandBuilder,
+    Bundle bundle,
+    RulesBundles rulesBundles,
+    NodeDeprecationWarning deprecationWarning,
+    TempFolder tempFolder,
+    EmbeddedNode embeddedNode
+  ) {
+    this(
+      nodeCommandBuilder,
+      bundle,
+      rulesBundles,
+      deprecationWarning,
+      tempFolder,
+      embeddedNode,
+      null,
+      null
+    );
+  }
+
+  // Used by pico container for dependency injection
+  public BridgeServerPool(
+    NodeCommandBuilder nodeCommandBuilder,
+    Bundle bundle,
+    RulesBundles rulesBundles,
+    NodeDeprecationWarning deprecationWarning,
+    TempFolder tempFolder,
+    EmbeddedNode embeddedNode,
+    @Nullable Configuration configuration,
+    @Nullable SonarRuntime sonarRuntime
+  ) {
+    this(
+      new BridgeServerImpl(
+        nodeCommandBuilder,
+        bundle,
+        rulesBundles,
+        deprecationWarning,
+        tempFolder,
+        embeddedNode
+      ),
+      () ->
+        new BridgeServerImpl(
+          nodeCommandBuilder,
+          bundle,
+          rulesBundles,
+          deprecationWarning,
+          tempFolder,
+          embeddedNode
+        ),
+      configuration,
+      sonarRuntime == null ? null : sonarRuntime.getProduct()
+    );
+  }
+
+  BridgeServerPool(BridgeServerImpl primary, Supplier<BridgeServerImpl> replicaFactory) {
+    this(primary, replicaFactory, null, null);
+  }
+
+  BridgeServerPool(
+    BridgeServerImpl primary,
+    Supplier<BridgeServerImpl> replicaFactory,
+    @Nullable Configuration configuration,
+    @Nullable SonarProduct product
+  ) {
+    this.primary = primary;
+    this.replicaFactory = replicaFactory;
+    this.configuration = configuration;
+    this.product = product;
+  }
+
+  @Override
+  public void startServerLazily(BridgeServerConfig context) throws IOException {
+    this.serverConfig = context;
+    primary.startServerLazily(context);
+  }
+
+  @Override
+  public void restartServer(BridgeServerConfig context) throws IOException {
+    this.serverConfig = context;
+    primary.restartServer(context);
+  }
+
+  @Override
+  public boolean recycleServer(BridgeServerConfig context) throws IOException {
+    this.serverConfig = context;
+    return primary.recycleServer(context);
+  }
+
+  @Override
+  public void initLinter(
+    List<EslintRule> rules,
+    List<String> environments,
+    List<String> globals,
+    String baseDir,
+    boolean sonarlint
+  ) throws IOException {
+    primary.initLinter(rules, environments, globals, baseDir, sonarlint);
+  }
+
+  @Override
+  public AnalysisResponse analyzeJsTs(JsAnalysisRequest request) throws IOException {
+    return primary.analyzeJsTs(request);
+  }
+
+  @Override
+  public AnalysisResponse analyzeCss(CssAnalysisRequest request) throws IOException {
+    return primary.analyzeCss(request);
+  }
+
+  @Override
+  public AnalysisResponse analyzeYaml(JsAnalysisRequest request) throws IOException {
+    return primary.analyzeYaml(request);
+  }
+
+  @Override
+  public AnalysisResponse analyzeHtml(JsAnalysisRequest request) throws IOException {
+    return primary.analyzeHtml(request);
+  }
+
+  @Override
+  public void analyzeCssProject(WebSocketMessageHandler<ProjectAnalysisRequest> handler) {
+    // linting stylesheets is cheap enough for a single process
+    primary.analyzeCssProject(handler);
+  }
+
+  @Override
+  public void analyzeProject(WebSocketMessageHandler<ProjectAnalysisRequest> handler) {
+    var processes = poolSize(serverConfig);
+    if (processes <= 1) {
+      primary.analyzeProject(handler);
+      return;
+    }
+    var request = handler.getRequest();
+    // each process analyzes a part of the project only, and cannot be recycled on its own
+    request.getConfiguration().disableRecycling();
+    var servers = startServers(processes);
+    var partitions = partition(
+      request.getFiles(),
+      request.getConfiguration().baseDir,
+      servers.size()
+    );
+    LOG.debug(
+      "Analyzing {} file(s) in {} partition(s)",
+      request.getFiles().size(),
+      partitions.size()
+    );
+    var merger = new ResultMerger(handler);
+    var remainingFiles = analyzePartitions(request, partitions, servers, merger);
+    if (!remainingFiles.isEmpty() && !handler.getFuture().isDone()) {
+      remainingFiles = analyzeAgain(request, remainingFiles, servers, merger);
+    }
+    if (handler.getFuture().isDone()) {
+      // the analysis was cancelled, or failed to process the results
+      LOG.debug("The analysis stopped before all partitions were analyzed");
+    } else if (!remainingFiles.isEmpty()) {
+      // reported as a bridge failure, so that the analysis can be resumed with a new pool
+      handler.onError(
+        new IllegalStateException(
+          "Failed to analyze " + remainingFiles.size() + " file(s) with the bridge server pool"
+        )
+      );
+    } else {
+      merger.complete();
+    }
+    handler.getFuture().join();
+  }
+
+  /**
+   * Spreads the remaining files of failed partitions over the servers that are still alive and
+   * returns the files that could not be analyzed again.
+   */
+  private static Map<String, JsTsFile> analyzeAgain(
+    ProjectAnalysisRequest request,
+    Map<String, JsTsFile> remainingFiles,
+    List<BridgeServerImpl> servers,
+    ResultMerger merger
+  ) {
+    var liveServers = servers.stream().filter(BridgeServerImpl::isAlive).toList();
+    if (liveServers.isEmpty()) {
+      return remainingFiles;
+    }
+    LOG.warn(
+      "Analyzing again {} file(s) of failed bridge process partition(s) with {} process(es)",
+      remainingFiles.size(),
+      liveServers.size()
+    );
+    var partitions = partition(
+      remainingFiles,
+      request.getConfiguration().baseDir,
+      liveServers.size()
+    );
+    return analyzePartitions(request, partitions, liveServers, merger);
+  }
+
+  /**
+   * Analyzes each partition on its own server and returns the files that could not be analyzed
+   * because of a failing partition.
+   */
+  private static Map<String, JsTsFile> analyzePartitions(
+    ProjectAnalysisRequest request,
+    List<Map<String, JsTsFile>> partitions,
+    List<BridgeServerImpl> servers,
+    ResultMerger merger
+  ) {
+    var remainingFiles = new LinkedHashMap<String, JsTsFile>();
+    var executor = Executors.newFixedThreadPool(Math.max(1, partitions.size()), runnable -> {
+      var thread = new Thread(runnable, "sonarjs-bridge-partition");
+      thread.setDaemon(true);
+      return thread;
+    });
+    try {
+      var handlers = new ArrayList<PartitionHandler>();
+      var futures = new ArrayList<CompletableFuture<Void>>();
+      for (int i = 0; i < partitions.size(); i++) {
+        var server = servers.get(i % servers.size());
+        var partitionHandler = new PartitionHandler(request, partitions.get(i), merger);
+        handlers.add(partitionHandler);
+        futures.add(
+          CompletableFuture.runAsync(
+            () -> {
+              try {
+                server.analyzeProject(partitionHandler);
+              } catch (RuntimeException e) {
+                partitionHandler.getFuture().completeExceptionally(e);
+              }
+            },
+            executor
+          )
+        );
+      }
+      CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+      for (var partitionHandler : handlers) {
+        if (partitionHandler.getFuture().isCompletedExceptionally() && !merger.isDone()) {
+          LOG.error("Bridge process partition failed", partitionHandler.failure());
+          remainingFiles.putAll(partitionHandler.remainingFiles());
+        }
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    return remainingFiles;
+  }
+
+  private List<BridgeServerImpl> startServers(int count) {
+    replicas.removeIf(replica -> {
+      if (replica.isAlive()) {
+        return false;
+      }
+      replica.clean();
+      return true;
+    });
+    while (replicas.size() < count - 1) {
+      var replica = replicaFactory.get();
+      try {
+        replica.startServer(serverConfig, primary);
+        replicas.add(replica);
+      } catch (IOException | RuntimeException e) {
+        LOG.warn(
+          "Failed to start an additional bridge server, using {} process(es)",
+          replicas.size() + 1,
+          e
+        );
+        replica.clean();
+        break;
+      }
+    }
+    var servers = new ArrayList<BridgeServerImpl>();
+    servers.add(primary);
+    servers.addAll(replicas.subList(0, Math.min(count - 1, replicas.size())));
+    return servers;
+  }
+
+  static int poolSize(@Nullable BridgeServerConfig serverConfig) {
+    return poolSize(serverConfig, NodeHeapSizing.CGROUP_ROOT);
+  }
+
+  static int poolSize(@Nullable BridgeServerConfig serverConfig, Path cgroupRoot) {
+    if (serverConfig == null || serverConfig.product() == SonarProduct.SONARLINT) {
+      return 1;
+    }
+    var config = serverConfig.config();
+    var value = config.get(PROCESSES_PROPERTY).orElse("1").trim();
+    if (AUTO.equalsIgnoreCase(value)) {
+      var processMemory = config
+        .getLong(BridgeServerImpl.MAX_OLD_SPACE_SIZE_PROPERTY)
+        .orElse(DEFAULT_PROCESS_MEMORY_MB);
+      // in a container, the processes share the memory their heaps are sized from
+      var availableMemory = NodeHeapSizing.containerBudgetMb(cgroupRoot).orElseGet(() ->
+        totalMemoryMb() - Runtime.getRuntime().maxMemory() / (1024 * 1024)
+      );
+      var cores = Runtime.getRuntime().availableProcessors();
+      return autoPoolSize(cores, availableMemory, processMemory);
+    }
+    try {
+      return Math.max(1, Integer.parseInt(value));
+    } catch (NumberFormatException e) {
+      LOG.warn(
+        "Invalid value \"{}\" for {}, expected a number or \"{}\": using a single bridge process",
+        value,
+        PROCESSES_PROPERTY,
+        AUTO
+      );
+      return 1;
+    }
+  }
+
+  /**
+   * One process per core, leaving one core to the scanner, as long as the heaps of the processes
+   * fit in the available memory.
+   */
+  static int autoPoolSize(int cores, long availableMemoryMb, long processMemoryMb) {
+    var byCores = Math.max(1, cores - 1);
+    var byMemory = availableMemoryMb / Math.max(1, processMemoryMb);
+    return (int) Math.max(1, Math.min(byCores, byMemory));
+  }
+
+  private static long totalMemoryMb() {
+    if (
+      ManagementFactory.getOperatingSystemMXBean() instanceof
+        com.sun.management.OperatingSystemMXBean os
+    ) {
+      return os.getTotalMemorySize() / (1024 * 1024);
+    }
+    return DEFAULT_PROCESS_MEMORY_MB;
+  }
+
+  /**
+   * Groups files by the directory of their nearest tsconfig.json and distributes the groups
+   * over at most {@code count} partitions of balanced size, largest groups first.
+   */
+  static List<Map<String, JsTsFile>> partition(
+    Map<String, JsTsFile> files,
+    String baseDir,
+    int count
+  ) {
+    var base = Path.of(baseDir);
+    var owners = new HashMap<Path, Path>();
+    var groups = new HashMap<Path, Map<String, JsTsFile>>();
+    for (var entry : files.entrySet()) {
+      var owner = tsConfigOwner(Path.of(entry.getKey()).getParent(), base, owners);
+      groups
+        .computeIfAbsent(owner, k -> new LinkedHashMap<>())
+        .put(entry.getKey(), entry.getValue());
+    }
+    var partitions = new ArrayList<Map<String, JsTsFile>>();
+    for (int i = 0; i < count; i++) {
+      partitions.add(new LinkedHashMap<>());
+    }
+    groups
+      .values()
+      .stream()
+      .sorted(Comparator.<Map<String, JsTsFile>>comparingInt(Map::size).reversed())
+      .forEach(group ->
+        partitions.stream().min(Comparator.comparingInt(Map::size)).orElseThrow().putAll(group)
+      );
+    partitions.removeIf(Map::isEmpty);
+    return partitions;
+  }
+
+  private static Path tsConfigOwner(@Nullable Path dir, Path baseDir, Map<Path, Path> owners) {
+    if (dir == null || !dir.startsWith(baseDir)) {
+      return baseDir;
+    }
+    var owner = owners.get(dir);
+    if (owner == null) {
+      owner = Files.isRegularFile(dir.resolve(TSCONFIG))
+        ? dir
+        : tsConfigOwner(dir.getParent(), baseDir, owners);
+      owners.put(dir, owner);
+    }
+    return owner;
+  }
+
+  @Override
+  public void clean() throws InterruptedException {
+    primary.clean();
+    for (var replica : replicas) {
+      replica.clean();
+    }
+    replicas.clear();
+  }
+
+  @Override
+  public String getCommandInfo() {
+    return primary.getCommandInfo();
+  }
+
+  @Override
+  public boolean isAlive() {
+    return primary.isAlive();
+  }
+
+  @Override
+  public TelemetryData getTelemetry() {
+    return primary.getTelemetry();
+  }
+
+  @Override
+  public void start() {
+    // Servers are started lazily, see startServerLazily and analyzeProject, unless the primary one
+    // is warmed up while the project files are indexed
+    if (configuration != null && product != null) {
+      primary.warmUp(configuration, product);
+    }
+  }
+
+  @Override
+  public void stop() {
+    primary.stop();
+    replicas.forEach(BridgeServerImpl::stop);
+    replicas.clear();
+  }
+
+  /**
+   * Forwards the results of all partitions to the handler of the analysis, one at a time,
+   * and only reports the end of the analysis once every partition is over.
+   */
+  private static class ResultMerger {
+
+    private final WebSocketMessageHandler<ProjectAnalysisRequest> delegate;
+    private final Set<String> warnings = new LinkedHashSet<>();
+
+    ResultMerger(WebSocketMessageHandler<ProjectAnalysisRequest> delegate) {
+      this.delegate = delegate;
+    }
+
+    synchronized void handleMessage(JsonObject message) {
+      try {
+        delegate.handleMessage(message);
+      } catch (RuntimeException e) {
+        fail(e);
+      }
+    }
+
+    synchronized void handleFileResult(String filePath, AnalysisResponse response) {
+      try {
+        delegate.handleFileResult(filePath, response);
+      } catch (RuntimeException e) {
+        fail(e);
+      }
+    }
+
+    /**
+     * A failure to process a result fails the analysis and stops all partitions, instead of
+     * failing the partition, whose files would be analyzed again.
+     */
+    private void fail(RuntimeException e) {
+      delegate.getFuture().completeExceptionally(e);
+    }
+
+    boolean isDone() {
+      return delegate.getFuture().isDone();
+    }
+
+    synchronized void addWarnings(List<String> partitionWarnings) {
+      warnings.addAll(partitionWarnings);
+    }
+
+    synchronized void complete() {
+      if (!delegate.getFuture().isDone()) {
+        var meta = new JsonObject();
+        meta.addProperty("messageType", "meta");
+        var warningsArray = new JsonArray();
+        warnings.forEach(warningsArray::add);
+        meta.add("warnings", warningsArray);
+        delegate.handleMessage(meta);
+      }
+    }
+  }
+
+  private static class PartitionHandler implements WebSocketMessageHandler<ProjectAnalysisRequest> {
+
+    private final ProjectAnalysisRequest request;
+    private final Map<String, JsTsFile> remainingFiles;
+    private final ResultMerger merger;
+    private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+    PartitionHandler(
+      ProjectAnalysisRequest request,
+      Map<String, JsTsFile> files,
+      ResultMerger merger
+    ) {
+      this.request = new ProjectAnalysisRequest(
+        new LinkedHashMap<>(files),
+        request.getRules(),
+        request.getConfiguration()
+      );
+      this.remainingFiles = new ConcurrentHashMap<>(files);
+      this.merger = merger;
+      merger.delegate
+        .getFuture()
+        .whenComplete((result, exception) -> {
+          if (exception != null) {
+            future.completeExceptionally(exception);
+          }
+        });
+    }
+
+    @Override
+    public ProjectAnalysisRequest getRequest() {
+      return request;
+    }
+
+    @Override
+    public SensorContext getContext() {
+      return merger.delegate.getContext();
+    }
+
+    @Override
+    public CompletableFuture<Void> getFuture() {
+      return future;
+    }
+
+    @Override
+    public void handleMessage(JsonObject message) {
+      var messageType = message.get("messageType").getAsString();
+      if ("fileResult".equals(messageType)) {
+        remainingFiles.remove(message.get("filename").getAsString());
+        merger.handleMessage(message);
+      } else if ("meta".equals(messageType)) {
+        merger.addWarnings(GSON.fromJson(message, ProjectAnalysisMetaResponse.class).warnings());
+        future.complete(null);
+      } else if ("crash".equals(messageType)) {
+        // the file which crashed the bridge process is not analyzed again
+        remainingFiles.remove(message.get("filename").getAsString());
+        merger.handleMessage(message);
+      } else if ("cancelled".equals(messageType)) {
+        merger.handleMessage(message);
+        future.complete(null);
+      }
+    }
+
+    @Override
+    public void handleFileResult(String filePath, AnalysisResponse response) {
+      remainingFiles.remove(filePath);
+      merger.handleFileResult(filePath, response);
+    }
+
+    @Override
+    public void onClose(int code, String reason, boolean remote) {
+      future.completeExceptionally(
+        new IllegalStateException("WebSocket connection closed abnormally: " + reason)
+      );
+    }
+
+    @Override
+    public void onError(Exception exception) {
+      future.completeExceptionally(
+        new IllegalStateException("WebSocket connection error", exception)
+      );
+    }
+
+    Map<String, JsTsFile> remainingFiles() {
+      return remainingFiles;
+    }
+
+    Throwable failure() {
+      return future.handle((result, exception) -> exception).join();
+    }
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2025 SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.plugins.javascript.bridge;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonar.api.batch.sensor.SensorContext;
+
+/**
+ * Polls the cancellation of an analysis on a timer, so that the work in flight is stopped as soon
+ * as the analysis is cancelled, e.g. when SonarLint abandons it, rather than once the next result
+ * arrives.
+ */
+public final class CancellationWatcher implements AutoCloseable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(CancellationWatcher.class);
+  static final long POLL_INTERVAL_MS = 200;
+
+  private final BooleanSupplier isCancelled;
+  private final Runnable onCancel;
+  private volatile boolean cancelled;
+  private final ScheduledExecutorService timer;
+
+  CancellationWatcher(BooleanSupplier isCancelled, Runnable onCancel, long pollIntervalMs) {
+    this.isCancelled = isCancelled;
+    this.onCancel = onCancel;
+    this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      var thread = new Thread(runnable, "sonarjs-cancellation-watcher");
+      thread.setDaemon(true);
+      return thread;
+    });
+    timer.scheduleWithFixedDelay(this::poll, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * @param onCancel run once, from the watcher thread, when the analysis gets cancelled
+   */
+  public static CancellationWatcher watch(SensorContext context, Runnable onCancel) {
+    return new CancellationWatcher(context::isCancelled, onCancel, POLL_INTERVAL_MS);
+  }
+
+  public boolean isCancelled() {
+    return cancelled;
+  }
+
+  /**
+   * Runs the action unless the analysis was cancelled. It never runs concurrently with the
+   * cancellation callback, so that nothing the action sends follows the cancellation.
+   *
+   * @return false if the analysis was cancelled
+   */
+  public synchronized boolean runUnlessCancelled(Runnable action) {
+    if (cancelled) {
+      return false;
+    }
+    action.run();
+    return true;
+  }
+
+  private synchronized void poll() {
+    if (!cancelled && isCancelled.getAsBoolean()) {
+      cancelled = true;
+      LOG.debug("The analysis was cancelled, stopping the work in flight");
+      try {
+        onCancel.run();
+      } catch (RuntimeException e) {
+        LOG.debug("Failed to stop the work in flight", e);
+      }
+      timer.shutdown();
+    }
+  }
+
+  @Override
+  public void close() {
+    timer.shutdownNow();
+  }
+}
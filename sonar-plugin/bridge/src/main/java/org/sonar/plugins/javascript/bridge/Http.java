@@ -16,12 +16,33 @@
  */
 package org.sonar.plugins.javascript.bridge;
 
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
+import java.net.UnixDomainSocketAddress;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,15 +52,55 @@ public interface Http {
     return new JdkHttp();
   }
 
-  Response post(String json, URI uri, long timeoutSeconds) throws IOException;
+  static Http getUnixDomainSocketHttpClient(Path socketPath) {
+    return new UnixDomainSocketHttp(socketPath);
+  }
+
+  /**
+   * Payloads below this size are sent uncompressed, as compressing them costs more time than it
+   * saves, even over a slow network. The bridge uses the same threshold.
+   */
+  int COMPRESSION_THRESHOLD = 16 * 1024;
+
+  /**
+   * Sends the request, returning once the response headers are received.
+   */
+  default Response post(String json, URI uri, long timeoutSeconds) throws IOException {
+    return post(json, uri, timeoutSeconds, false);
+  }
+
+  /**
+   * @param compress whether to gzip large requests and accept gzipped responses, which only pays
+   *                 off when the bridge is reached over a network
+   */
+  Response post(String json, URI uri, long timeoutSeconds, boolean compress) throws IOException;
 
   String get(URI uri) throws IOException;
 
-  record Response(@Nullable String contentType, byte[] body) {}
+  /**
+   * The body is streamed from the connection, and must be closed once read.
+   */
+  record Response(@Nullable String contentType, InputStream body) {}
+
+  /**
+   * Closes the connections of the requests which run out of time
+   */
+  final class Timeouts {
+
+    static final ScheduledExecutorService SCHEDULER =
+      Executors.newSingleThreadScheduledExecutor(runnable -> {
+        var thread = new Thread(runnable, "sonarjs-http-timeout");
+        thread.setDaemon(true);
+        return thread;
+      });
+
+    private Timeouts() {}
+  }
 
   class JdkHttp implements Http {
 
     private static final Logger LOG = LoggerFactory.getLogger(JdkHttp.class);
+    private static final String GZIP = "gzip";
     private final HttpClient client;
 
     JdkHttp() {
@@ -47,19 +108,39 @@ public interface Http {
     }
 
     @Override
-    public Response post(String json, URI uri, long timeoutSeconds) throws IOException {
+    public Response post(String json, URI uri, long timeoutSeconds, boolean compress)
+      throws IOException {
       var request = HttpRequest.newBuilder()
         .version(HttpClient.Version.HTTP_1_1)
         .uri(uri)
         .timeout(Duration.ofSeconds(timeoutSeconds))
-        .header("Content-Type", "application/json")
-        .POST(HttpRequest.BodyPublishers.ofString(json))
-        .build();
+        .header("Content-Type", "application/json");
+      var body = json.getBytes(UTF_8);
+      if (compress) {
+        request.header("Accept-Encoding", GZIP);
+        if (body.length >= COMPRESSION_THRESHOLD) {
+          request.header("Content-Encoding", GZIP);
+          body = gzip(body);
+        }
+      }
+      request.POST(HttpRequest.BodyPublishers.ofByteArray(body));
 
+      var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
       try {
-        var response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
-        var contentType = response.headers().firstValue("Content-Type").orElse(null);
-        return new Response(contentType, response.body());
+        var response = client.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+        var headers = response.headers();
+        var contentType = headers.firstValue("Content-Type").orElse(null);
+        var gzipped = headers
+          .firstValue("Content-Encoding")
+          .filter(GZIP::equalsIgnoreCase)
+          .isPresent();
+        var stream = new DeadlineStream(uri, response.body(), deadline - System.nanoTime());
+        try {
+          return new Response(contentType, gzipped ? new GZIPInputStream(stream) : stream);
+        } catch (IOException e) {
+          stream.close();
+          throw e;
+        }
       } catch (InterruptedException e) {
         throw handleInterruptedException(e, "Request " + uri + " was interrupted.");
       }
@@ -76,6 +157,93 @@ public interface Http {
       }
     }
 
+    private static byte[] gzip(byte[] data) throws IOException {
+      var compressed = new ByteArrayOutputStream(data.length / 4);
+      try (var gzip = new GZIPOutputStream(compressed) {
+        {
+          def.setLevel(Deflater.BEST_SPEED);
+        }
+      }) {
+        gzip.write(data);
+      }
+      return compressed.toByteArray();
+    }
+
+    /**
+     * The body of a response, closed when the request runs out of time while the body is being
+     * read, as the timeout of the JDK client only covers the wait for the response headers.
+     */
+    private static class DeadlineStream extends FilterInputStream {
+
+      private final URI uri;
+      private final ScheduledFuture<?> timeout;
+      private volatile boolean expired;
+
+      DeadlineStream(URI uri, InputStream body, long timeoutNanos) {
+        super(body);
+        this.uri = uri;
+        this.timeout = Timeouts.SCHEDULER.schedule(
+          this::expire,
+          Math.max(0, timeoutNanos),
+          TimeUnit.NANOSECONDS
+        );
+      }
+
+      @Override
+      public int read() throws IOException {
+        int read;
+        try {
+          read = super.read();
+        } catch (IOException e) {
+          throw expired ? timedOut(e) : e;
+        }
+        return checkDeadline(read);
+      }
+
+      @Override
+      public int read(byte[] b, int off, int len) throws IOException {
+        int read;
+        try {
+          read = super.read(b, off, len);
+        } catch (IOException e) {
+          throw expired ? timedOut(e) : e;
+        }
+        return checkDeadline(read);
+      }
+
+      @Override
+      public void close() throws IOException {
+        timeout.cancel(false);
+        super.close();
+      }
+
+      /**
+       * Closing the body may end it as if it was complete, which must not be mistaken for the
+       * actual end of the response
+       */
+      private int checkDeadline(int read) throws HttpTimeoutException {
+        if (expired) {
+          throw timedOut(null);
+        }
+        return read;
+      }
+
+      private void expire() {
+        expired = true;
+        try {
+          in.close();
+        } catch (IOException e) {
+          // the body is being discarded anyway
+        }
+      }
+
+      private HttpTimeoutException timedOut(@Nullable IOException cause) {
+        var exception = new HttpTimeoutException("Request " + uri + " timed out");
+        exception.initCause(cause);
+        return exception;
+      }
+    }
+
     private static IllegalStateException handleInterruptedException(
       InterruptedException e,
       String msg
@@ -85,4 +253,257 @@ public interface Http {
       return new IllegalStateException(msg, e);
     }
   }
+
+  /**
+   * Minimal HTTP/1.1 client talking to the bridge over a Unix domain socket.
+   *
+   * The JDK HTTP client only supports TCP, so requests are written by hand. Each request uses
+   * its own connection and asks the server to close it, so that the response body is simply
+   * everything read until the end of the stream, or the last chunk of a chunked body.
+   */
+  class UnixDomainSocketHttp implements Http {
+
+    private static final byte[] HEADERS_END = { '\r', '\n', '\r', '\n' };
+
+    private final Path socketPath;
+
+    UnixDomainSocketHttp(Path socketPath) {
+      this.socketPath = socketPath;
+    }
+
+    /**
+     * Requests are never compressed, as the socket is local.
+     */
+    @Override
+    public Response post(String json, URI uri, long timeoutSeconds, boolean compress)
+      throws IOException {
+      var body = json.getBytes(UTF_8);
+      var headers =
+        "POST " +
+        uri.getRawPath() +
+        (uri.getRawQuery() == null ? "" : ("?" + uri.getRawQuery())) +
+        " HTTP/1.1\r\n" +
+        "Host: localhost\r\n" +
+        "Content-Type: application/json\r\n" +
+        "Content-Length: " +
+        body.length +
+        "\r\n" +
+        "Connection: close\r\n\r\n";
+      return exchange(uri, headers, body, timeoutSeconds);
+    }
+
+    @Override
+    public String get(URI uri) throws IOException {
+      var headers =
+        "GET " + uri.getRawPath() + " HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n";
+      try (var body = exchange(uri, headers, new byte[0], 0).body()) {
+        return new String(body.readAllBytes(), UTF_8);
+      }
+    }
+
+    private Response exchange(URI uri, String headers, byte[] body, long timeoutSeconds)
+      throws IOException {
+      var channel = SocketChannel.open(UnixDomainSocketAddress.of(socketPath));
+      var timeout = timeoutSeconds > 0
+        ? Timeouts.SCHEDULER.schedule(
+          () -> closeQuietly(channel),
+          timeoutSeconds,
+          TimeUnit.SECONDS
+        )
+        : null;
+      var stream = new ExchangeStream(uri, channel, timeout);
+      try {
+        var buffers = new ByteBuffer[] {
+          ByteBuffer.wrap(headers.getBytes(ISO_8859_1)),
+          ByteBuffer.wrap(body),
+        };
+        while (buffers[0].hasRemaining() || buffers[1].hasRemaining()) {
+          channel.write(buffers);
+        }
+        return parse(stream);
+      } catch (AsynchronousCloseException e) {
+        stream.close();
+        throw new HttpTimeoutException("Request " + uri + " timed out");
+      } catch (IOException | RuntimeException e) {
+        stream.close();
+        throw e;
+      }
+    }
+
+    /**
+     * Reads the status line and the headers, leaving the body to be read from the returned
+     * response, which must be closed.
+     */
+    static Response parse(InputStream raw) throws IOException {
+      var headers = readHeaders(raw);
+      String contentType = null;
+      var chunked = false;
+      var lines = headers.split("\r\n");
+      // the first line is the status line, which is ignored like in JdkHttp
+      for (int i = 1; i < lines.length; i++) {
+        var separator = lines[i].indexOf(':');
+        if (separator < 0) {
+          continue;
+        }
+        var name = lines[i].substring(0, separator).trim();
+        var value = lines[i].substring(separator + 1).trim();
+        if ("Content-Type".equalsIgnoreCase(name)) {
+          contentType = value;
+        } else if ("Transfer-Encoding".equalsIgnoreCase(name)) {
+          chunked = "chunked".equalsIgnoreCase(value);
+        }
+      }
+      return new Response(contentType, chunked ? new ChunkedInputStream(raw) : raw);
+    }
+
+    private static String readHeaders(InputStream raw) throws IOException {
+      var headers = new ByteArrayOutputStream();
+      var matched = 0;
+      while (matched < HEADERS_END.length) {
+        var b = raw.read();
+        if (b < 0) {
+          throw new IOException("Malformed HTTP response from the bridge server");
+        }
+        headers.write(b);
+        if (b == HEADERS_END[matched]) {
+          matched++;
+        } else {
+          matched = b == HEADERS_END[0] ? 1 : 0;
+        }
+      }
+      var bytes = headers.toByteArray();
+      return new String(bytes, 0, bytes.length - HEADERS_END.length, ISO_8859_1);
+    }
+
+    private static void closeQuietly(SocketChannel channel) {
+      try {
+        channel.close();
+      } catch (IOException e) {
+        // the channel is being discarded anyway
+      }
+    }
+
+    /**
+     * The response of an exchange, which closes the connection once the response has been read.
+     * A timeout firing while the response is being read is reported as such.
+     */
+    private static class ExchangeStream extends FilterInputStream {
+
+      private final URI uri;
+      private final SocketChannel channel;
+
+      @Nullable
+      private final ScheduledFuture<?> timeout;
+
+      ExchangeStream(URI uri, SocketChannel channel, @Nullable ScheduledFuture<?> timeout) {
+        super(new BufferedInputStream(Channels.newInputStream(channel)));
+        this.uri = uri;
+        this.channel = channel;
+        this.timeout = timeout;
+      }
+
+      @Override
+      public int read() throws IOException {
+        try {
+          return super.read();
+        } catch (AsynchronousCloseException e) {
+          throw timedOut(e);
+        }
+      }
+
+      @Override
+      public int read(byte[] b, int off, int len) throws IOException {
+        try {
+          return super.read(b, off, len);
+        } catch (AsynchronousCloseException e) {
+          throw timedOut(e);
+        }
+      }
+
+      @Override
+      public void close() throws IOException {
+        if (timeout != null) {
+          timeout.cancel(false);
+        }
+        channel.close();
+      }
+
+      private HttpTimeoutException timedOut(AsynchronousCloseException cause) {
+        var exception = new HttpTimeoutException("Request " + uri + " timed out");
+        exception.initCause(cause);
+        return exception;
+      }
+    }
+
+    /**
+     * Decodes a chunked body as it is read.
+     */
+    private static class ChunkedInputStream extends FilterInputStream {
+
+      private int remaining;
+      private boolean done;
+
+      ChunkedInputStream(InputStream in) {
+        super(in);
+      }
+
+      @Override
+      public int read() throws IOException {
+        var b = new byte[1];
+        return read(b, 0, 1) < 0 ? -1 : (b[0] & 0xff);
+      }
+
+      @Override
+      public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+          return 0;
+        }
+        if (remaining == 0 && !nextChunk()) {
+          return -1;
+        }
+        var read = in.read(b, off, Math.min(len, remaining));
+        if (read < 0) {
+          throw new IOException("Truncated chunked HTTP response from the bridge server");
+        }
+        remaining -= read;
+        if (remaining == 0) {
+          // the CRLF ending the chunk
+          readLine();
+        }
+        return read;
+      }
+
+      private boolean nextChunk() throws IOException {
+        if (done) {
+          return false;
+        }
+        var sizeLine = readLine();
+        var extension = sizeLine.indexOf(';');
+        try {
+          remaining = Integer.parseInt(
+            (extension < 0 ? sizeLine : sizeLine.substring(0, extension)).trim(),
+            16
+          );
+        } catch (NumberFormatException e) {
+          throw new IOException("Invalid chunk size in HTTP response: " + sizeLine, e);
+        }
+        done = remaining == 0;
+        return !done;
+      }
+
+      private String readLine() throws IOException {
+        var line = new StringBuilder();
+        int b;
+        while ((b = in.read()) != '\n') {
+          if (b < 0) {
+            throw new IOException("Truncated chunked HTTP response from the bridge server");
+          }
+          if (b != '\r') {
+            line.append((char) b);
+          }
+        }
+        return line.toString();
+      }
+    }
+  }
 }
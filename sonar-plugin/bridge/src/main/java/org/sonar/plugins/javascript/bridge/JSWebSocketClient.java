@@ -18,27 +18,75 @@ package org.sonar.plugins.javascript.bridge;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
 import com.google.gson.JsonParser;
+import com.google.protobuf.InvalidProtocolBufferException;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongConsumer;
+import java.util.zip.Deflater;
+import javax.annotation.Nullable;
+import org.java_websocket.WebSocket;
 import org.java_websocket.client.WebSocketClient;
+import org.java_websocket.drafts.Draft_6455;
+import org.java_websocket.extensions.permessage_deflate.PerMessageDeflateExtension;
+import org.java_websocket.framing.Framedata;
 import org.java_websocket.handshake.ServerHandshake;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.sonar.plugins.javascript.bridge.protobuf.FileResultProto;
 
 public class JSWebSocketClient extends WebSocketClient {
 
   private static final Logger LOG = LoggerFactory.getLogger(JSWebSocketClient.class);
-  private static final Gson GSON = new Gson();
+  private static final Gson GSON = BridgeJson.GSON;
 
   // We need to use CopyOnWriteArrayList as we modify the array while iterating over it
   private final List<WebSocketMessageHandler<?>> messageHandlers = new CopyOnWriteArrayList<>();
+  private final Set<WebSocketMessageHandler<?>> cancelledHandlers = ConcurrentHashMap.newKeySet();
+  private volatile LongConsumer pongListener = eventLoopLag -> {};
+  // requests waiting for their response, keyed by the id correlating them
+  private final Map<Integer, CompletableFuture<String>> pendingRequests = new ConcurrentHashMap<>();
+  private final AtomicInteger nextRequestId = new AtomicInteger();
+  private volatile SharedResultsBuffer resultsBuffer;
 
   public JSWebSocketClient(URI serverUri) {
-    super(serverUri);
+    this(serverUri, null);
+  }
+
+  /**
+   * @param unixSocket when set, the connection goes through this Unix domain socket and only the
+   *                   path of the server URI is used
+   */
+  public JSWebSocketClient(URI serverUri, @Nullable Path unixSocket) {
+    this(serverUri, unixSocket, false);
+  }
+
+  /**
+   * @param compression whether to offer the permessage-deflate extension, compressing the frames
+   *                    larger than {@link Http#COMPRESSION_THRESHOLD} once the bridge accepts it
+   */
+  public JSWebSocketClient(URI serverUri, @Nullable Path unixSocket, boolean compression) {
+    super(serverUri, compression ? new Draft_6455(deflateExtension()) : new Draft_6455());
     this.setConnectionLostTimeout(0);
+    if (unixSocket != null) {
+      this.setSocket(new UnixDomainSocket(unixSocket));
+    }
+  }
+
+  private static PerMessageDeflateExtension deflateExtension() {
+    var extension = new PerMessageDeflateExtension(Deflater.BEST_SPEED);
+    extension.setThreshold(Http.COMPRESSION_THRESHOLD);
+    return extension;
   }
 
   public void registerHandler(WebSocketMessageHandler<?> handler) {
@@ -47,12 +95,66 @@ public class JSWebSocketClient extends WebSocketClient {
       .getFuture()
       .whenComplete((result, exception) -> {
         messageHandlers.remove(handler);
+        cancelledHandlers.remove(handler);
         if (exception != null) {
           LOG.error("Error in handler execution", exception);
         }
       });
   }
 
+  /**
+   * @param pongListener notified of every pong with the event loop lag reported by the bridge, in
+   *                     milliseconds, or -1 when the bridge does not report it
+   */
+  public void setPongListener(LongConsumer pongListener) {
+    this.pongListener = pongListener;
+  }
+
+  /**
+   * Sends a request carrying a unique id, which the bridge echoes in its response. Several
+   * requests can thus be in flight over the connection at once, each response completing the
+   * future of its own request.
+   *
+   * @param type the request type, e.g. 'on-analyze-jsts'
+   * @param data the JSON payload of the request
+   * @return the future completed with the JSON result, or the bare string for text results
+   */
+  public CompletableFuture<String> request(String type, String data) {
+    return request(type, data, null);
+  }
+
+  /**
+   * @param priority the priority class of the request, e.g. 'interactive', or null for background
+   */
+  public CompletableFuture<String> request(String type, String data, @Nullable String priority) {
+    var requestId = nextRequestId.incrementAndGet();
+    var future = new CompletableFuture<String>();
+    pendingRequests.put(requestId, future);
+    future.whenComplete((result, exception) -> pendingRequests.remove(requestId));
+    try {
+      send(
+        String.format(
+          "{\"type\":%s,\"requestId\":%d,%s\"data\":%s}",
+          GSON.toJson(type),
+          requestId,
+          priority == null ? "" : ("\"priority\":" + GSON.toJson(priority) + ","),
+          data
+        )
+      );
+    } catch (RuntimeException e) {
+      future.completeExceptionally(e);
+    }
+    return future;
+  }
+
+  /**
+   * @param resultsBuffer where the bridge writes the file results of the project analysis in
+   *                      progress, if any
+   */
+  void setResultsBuffer(@Nullable SharedResultsBuffer resultsBuffer) {
+    this.resultsBuffer = resultsBuffer;
+  }
+
   public List<WebSocketMessageHandler<?>> getMessageHandlers() {
     return messageHandlers;
   }
@@ -66,17 +168,135 @@ public class JSWebSocketClient extends WebSocketClient {
   public void onMessage(String message) {
     LOG.trace("Received WebSocket message: {}", message);
     JsonObject jsonObject = JsonParser.parseString(message).getAsJsonObject();
+    var messageType = jsonObject.get("messageType").getAsString();
+    switch (messageType) {
+      case "response" -> completeRequest(jsonObject);
+      case "error" -> handleError(jsonObject.get("error").getAsJsonObject().toString());
+      case "sharedFileResult" -> readSharedFileResult(jsonObject);
+      case "fileResults" -> {
+        // small file results batched by the bridge are handled as if sent one by one
+        for (var fileResult : jsonObject.getAsJsonArray("results")) {
+          dispatch(fileResult.getAsJsonObject());
+        }
+      }
+      default -> dispatch(jsonObject);
+    }
+  }
+
+  private void dispatch(JsonObject message) {
+    for (WebSocketMessageHandler<?> handler : messageHandlers) {
+      try {
+        handler.handleMessage(message);
+      } catch (RuntimeException e) {
+        failHandler(handler, e);
+      }
+      checkCancellation(handler);
+    }
+  }
 
-    if ("error".equals(jsonObject.get("messageType").getAsString())) {
-      handleError(jsonObject.get("error").getAsJsonObject().toString());
+  /**
+   * Binary frames carry a single {@link FileResultProto.FileResult}, sent instead of the JSON
+   * 'fileResult' message when the project analysis enables binary results.
+   */
+  @Override
+  public void onMessage(ByteBuffer bytes) {
+    LOG.trace("Received binary WebSocket message of {} bytes", bytes.remaining());
+    FileResultProto.FileResult fileResult;
+    try {
+      fileResult = FileResultProto.FileResult.parseFrom(bytes);
+    } catch (InvalidProtocolBufferException e) {
+      handleError("Failed to decode binary file result: " + e.getMessage());
+      return;
+    }
+    handleFileResult(fileResult);
+  }
+
+  /**
+   * Shared file results announce where the bridge wrote a binary file result in the shared
+   * results buffer of the analysis.
+   */
+  private void readSharedFileResult(JsonObject message) {
+    var buffer = resultsBuffer;
+    if (buffer == null) {
+      handleError("Received a shared file result without shared results buffer");
+      return;
+    }
+    FileResultProto.FileResult fileResult;
+    try {
+      fileResult = buffer.read(
+        message.get("offset").getAsLong(),
+        message.get("length").getAsInt()
+      );
+    } catch (InvalidProtocolBufferException e) {
+      handleError("Failed to decode shared file result: " + e.getMessage());
       return;
     }
+    handleFileResult(fileResult);
+  }
 
+  private void handleFileResult(FileResultProto.FileResult fileResult) {
+    var response = BridgeServer.AnalysisResponse.fromProtobuf(fileResult);
     for (WebSocketMessageHandler<?> handler : messageHandlers) {
-      handler.handleMessage(jsonObject);
-      if (handler.getContext().isCancelled()) {
-        this.send(GSON.toJson(Map.of("type", "on-cancel-analysis")));
+      try {
+        handler.handleFileResult(fileResult.getFilename(), response);
+      } catch (RuntimeException e) {
+        failHandler(handler, e);
+      }
+      checkCancellation(handler);
+    }
+  }
+
+  /**
+   * A handler failing to process a message fails its analysis, without being reported as an error
+   * of the connection, which would fail the analyses of the other handlers too.
+   */
+  private static void failHandler(WebSocketMessageHandler<?> handler, RuntimeException e) {
+    handler.getFuture().completeExceptionally(e);
+  }
+
+  @Override
+  public void onWebsocketPong(WebSocket conn, Framedata frame) {
+    long eventLoopLag = -1;
+    var payload = StandardCharsets.UTF_8.decode(frame.getPayloadData()).toString();
+    try {
+      var json = JsonParser.parseString(payload);
+      if (json.isJsonObject() && json.getAsJsonObject().has("eventLoopLag")) {
+        eventLoopLag = json.getAsJsonObject().get("eventLoopLag").getAsLong();
       }
+    } catch (JsonParseException | NumberFormatException | UnsupportedOperationException e) {
+      LOG.trace("Ignoring unexpected pong payload: {}", payload);
+    }
+    pongListener.accept(eventLoopLag);
+  }
+
+  private void completeRequest(JsonObject response) {
+    var requestId = response.get("requestId").getAsInt();
+    var future = pendingRequests.get(requestId);
+    if (future == null) {
+      LOG.debug("Ignoring response to unknown request {}", requestId);
+    } else if (response.has("error")) {
+      future.completeExceptionally(
+        new IllegalStateException("Received error from bridge: " + response.get("error"))
+      );
+    } else {
+      var result = response.get("result");
+      future.complete(result.isJsonPrimitive() ? result.getAsString() : result.toString());
+    }
+  }
+
+  private void failPendingRequests(Exception cause) {
+    for (var future : pendingRequests.values()) {
+      future.completeExceptionally(cause);
+    }
+  }
+
+  /**
+   * Asks the bridge once to stop the analysis of a cancelled handler, in case results arrive before
+   * the {@link CancellationWatcher} of the analysis notices the cancellation.
+   */
+  private void checkCancellation(WebSocketMessageHandler<?> handler) {
+    if (handler.getContext().isCancelled() && cancelledHandlers.add(handler)) {
+      this.send(GSON.toJson(Map.of("type", "on-cancel-analysis")));
     }
   }
 
@@ -90,6 +310,7 @@ public class JSWebSocketClient extends WebSocketClient {
   @Override
   public void onClose(int code, String reason, boolean remote) {
     LOG.debug("WebSocket connection closed: {} (code: {})", reason, code);
+    failPendingRequests(new IllegalStateException("WebSocket connection closed: " + reason));
     for (WebSocketMessageHandler<?> handler : messageHandlers) {
       handler.onClose(code, reason, remote);
     }
@@ -98,6 +319,7 @@ public class JSWebSocketClient extends WebSocketClient {
   @Override
   public void onError(Exception e) {
     LOG.error("WebSocket error occurred", e);
+    failPendingRequests(new IllegalStateException("WebSocket connection error", e));
     for (WebSocketMessageHandler<?> handler : messageHandlers) {
       handler.onError(e);
     }
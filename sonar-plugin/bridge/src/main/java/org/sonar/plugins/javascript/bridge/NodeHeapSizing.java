@@ -0,0 +1,196 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2025 SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.plugins.javascript.bridge;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sizes the heap of the Node.js process running the bridge when it runs in a container with a
+ * memory limit, unless {@link BridgeServerImpl#MAX_OLD_SPACE_SIZE_PROPERTY} is set.
+ * <p>
+ * Node.js sizes its heap from the memory of the host, ignoring the limit of the container, so that
+ * together with the JVM it can exceed the limit and get killed. The heap is instead given the
+ * memory of the container left by the JVM, minus some headroom for the native memory of both
+ * processes, and shared by all the bridge processes of {@link BridgeServerPool}.
+ */
+final class NodeHeapSizing {
+
+  private static final Logger LOG = LoggerFactory.getLogger(NodeHeapSizing.class);
+
+  // internal property to disable the sizing of the heap from the container memory limit
+  static final String AUTO_SIZING_PROPERTY = "sonar.javascript.node.autoMaxspace";
+  static final Path CGROUP_ROOT = Path.of("/sys/fs/cgroup");
+  private static final long MB = 1024L * 1024L;
+  // cgroup v1 reports no memory limit as the largest page-aligned 64-bit value
+  private static final long UNLIMITED = 1L << 60;
+  // share of the memory left by the JVM kept for the native memory of Node.js and of the JVM
+  private static final double HEADROOM = 0.25;
+  // the heap below which analyses are likely to run out of memory
+  private static final int MIN_HEAP_MB = 1024;
+  // the heap below which Node.js can hardly start
+  private static final int FLOOR_HEAP_MB = 128;
+  // rough heap needs of an analysis: a base, plus TypeScript programs many times the source size
+  private static final int BASE_HEAP_MB = 2048;
+  private static final int HEAP_PER_SOURCE_MB = 16;
+  private static final int MIN_SEMI_SPACE_MB = 16;
+  private static final int MAX_SEMI_SPACE_MB = 64;
+
+  /**
+   * @param maxOldSpaceSizeMb the value of '--max-old-space-size'
+   * @param maxSemiSpaceSizeMb the value of '--max-semi-space-size', larger young generations
+   *                           saving scavenges when parsing and type checking allocate a lot
+   */
+  record HeapSize(int maxOldSpaceSizeMb, int maxSemiSpaceSizeMb) {
+    boolean isBelowMinimum() {
+      return maxOldSpaceSizeMb < MIN_HEAP_MB;
+    }
+
+    boolean isUnderPressure(long sourceBytes) {
+      return maxOldSpaceSizeMb < neededMb(sourceBytes);
+    }
+
+    List<String> nodeJsArgs() {
+      return List.of(
+        "--max-old-space-size=" + maxOldSpaceSizeMb,
+        "--max-semi-space-size=" + maxSemiSpaceSizeMb
+      );
+    }
+  }
+
+  private NodeHeapSizing() {}
+
+  /**
+   * Computes the heap size of each of the given number of processes from the memory limit of the
+   * container and the maximum heap size of the JVM. The heaps together never exceed the memory left
+   * by the JVM, even when they are below the minimum.
+   */
+  static HeapSize compute(long containerLimitBytes, long jvmMaxMemoryBytes, int processes) {
+    var budgetMb = budgetMb(containerLimitBytes, jvmMaxMemoryBytes) / Math.max(1, processes);
+    var heapMb = (int) Math.min(Integer.MAX_VALUE, Math.max(FLOOR_HEAP_MB, budgetMb));
+    var semiSpaceMb = Math.max(MIN_SEMI_SPACE_MB, Math.min(MAX_SEMI_SPACE_MB, heapMb / 64));
+    return new HeapSize(heapMb, semiSpaceMb);
+  }
+
+  /**
+   * The memory of the container available to the heaps of all Node.js processes
+   */
+  static long budgetMb(long containerLimitBytes, long jvmMaxMemoryBytes) {
+    var leftByJvm = Math.max(0, containerLimitBytes - jvmMaxMemoryBytes);
+    return (long) (leftByJvm * (1 - HEADROOM) / MB);
+  }
+
+  /**
+   * Returns the memory available to the heaps of all Node.js processes, or an empty value outside
+   * of a memory-limited container.
+   */
+  static OptionalLong containerBudgetMb(Path cgroupRoot) {
+    var limit = containerMemoryLimit(cgroupRoot);
+    return limit.isPresent()
+      ? OptionalLong.of(budgetMb(limit.getAsLong(), Runtime.getRuntime().maxMemory()))
+      : OptionalLong.empty();
+  }
+
+  /**
+   * The heap an analysis of sources of the given size is expected to need
+   */
+  static long neededMb(long sourceBytes) {
+    return BASE_HEAP_MB + HEAP_PER_SOURCE_MB * (sourceBytes / MB);
+  }
+
+  /**
+   * Returns the heap size of each of the Node.js processes sharing the container, or an empty value
+   * outside of a memory-limited container.
+   */
+  static Optional<HeapSize> fromContainer(Path cgroupRoot, int processes) {
+    var limit = containerMemoryLimit(cgroupRoot);
+    if (limit.isEmpty()) {
+      return Optional.empty();
+    }
+    var jvmMaxMemory = Runtime.getRuntime().maxMemory();
+    var heapSize = compute(limit.getAsLong(), jvmMaxMemory, processes);
+    LOG.info(
+      "Configured Node.js --max-old-space-size={} for {} process(es) from the container memory " +
+        "limit of {} MB.",
+      heapSize.maxOldSpaceSizeMb(),
+      processes,
+      limit.getAsLong() / MB
+    );
+    if (heapSize.isBelowMinimum()) {
+      LOG.warn(
+        "The memory left by the JVM in the container only allows a Node.js heap of {} MB, " +
+          "below the minimum of {} MB. Consider increasing the memory limit of the container " +
+          "or decreasing the JVM heap ({} MB).",
+        heapSize.maxOldSpaceSizeMb(),
+        MIN_HEAP_MB,
+        jvmMaxMemory / MB
+      );
+    }
+    return Optional.of(heapSize);
+  }
+
+  /**
+   * Warns when the heap is likely too small for the project, unless it is already known to be
+   * below the minimum. The size of the sources is only computed then.
+   */
+  static void checkPressure(HeapSize heapSize, LongSupplier sourceBytes) {
+    if (heapSize.isBelowMinimum()) {
+      return;
+    }
+    var size = sourceBytes.getAsLong();
+    if (heapSize.isUnderPressure(size)) {
+      LOG.warn(
+        "The Node.js heap ({} MB) may be too small for this project, which could need {} MB. " +
+          "Consider increasing the memory limit of the container or decreasing the JVM heap " +
+          "({} MB).",
+        heapSize.maxOldSpaceSizeMb(),
+        neededMb(size),
+        Runtime.getRuntime().maxMemory() / MB
+      );
+    }
+  }
+
+  /**
+   * Reads the memory limit of cgroup v2, then of cgroup v1.
+   */
+  static OptionalLong containerMemoryLimit(Path cgroupRoot) {
+    for (var file : List.of("memory.max", "memory/memory.limit_in_bytes")) {
+      var limit = readLimit(cgroupRoot.resolve(file));
+      if (limit.isPresent()) {
+        return limit;
+      }
+    }
+    return OptionalLong.empty();
+  }
+
+  private static OptionalLong readLimit(Path file) {
+    try {
+      var limit = Long.parseLong(Files.readString(file).trim());
+      return limit > 0 && limit < UNLIMITED ? OptionalLong.of(limit) : OptionalLong.empty();
+    } catch (IOException | NumberFormatException e) {
+      // no such cgroup, or 'max' for no limit
+      return OptionalLong.empty();
+    }
+  }
+}
@@ -0,0 +1,226 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2025 SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.plugins.javascript.bridge;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonar.api.batch.sensor.SensorContext;
+
+/**
+ * Decouples the WebSocket reading thread from the processing of file results.
+ * <p>
+ * File results are queued and decoded by a configurable number of worker threads, while their
+ * persistence through the wrapped handler stays sequential, as sensor-side processing is not
+ * thread-safe. When the queue exceeds its capacity, the bridge is asked to pause the analysis until
+ * the queue is drained to half of its capacity. The reading thread never waits for the queue, so
+ * that responses to other requests and pongs are still read: the queue only grows beyond its
+ * capacity by the results the bridge sent before pausing. Crashes are forwarded right away, while
+ * other messages, which end the analysis, are only forwarded once all queued file results have
+ * been processed.
+ */
+public class QueuedMessageHandler<T> implements WebSocketMessageHandler<T> {
+
+  private static final Logger LOG = LoggerFactory.getLogger(QueuedMessageHandler.class);
+  private static final Gson GSON = BridgeJson.GSON;
+
+  private final WebSocketMessageHandler<T> delegate;
+  private final ExecutorService workers;
+  private final int capacity;
+  private final Consumer<Boolean> backpressureListener;
+  private final Object persistenceLock = new Object();
+  private final Object queueLock = new Object();
+  // messages waiting for the queued file results to be processed, guarded by the queue lock
+  private final List<JsonObject> pendingMessages = new ArrayList<>();
+  private int queued;
+  private boolean paused;
+
+  /**
+   * @param delegate the handler persisting the results
+   * @param workerThreads the number of threads decoding file results
+   * @param capacity the number of file results waiting to be processed above which the bridge is
+   *                 asked to pause the analysis
+   * @param backpressureListener notified with {@code true} when the queue is full and with
+   *                             {@code false} once it has been drained enough
+   */
+  public QueuedMessageHandler(
+    WebSocketMessageHandler<T> delegate,
+    int workerThreads,
+    int capacity,
+    Consumer<Boolean> backpressureListener
+  ) {
+    this.delegate = delegate;
+    this.capacity = capacity;
+    this.backpressureListener = backpressureListener;
+    var threadCount = new AtomicInteger();
+    this.workers = Executors.newFixedThreadPool(workerThreads, runnable -> {
+      var thread = new Thread(runnable, "sonarjs-result-worker-" + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    delegate.getFuture().whenComplete((result, exception) -> workers.shutdownNow());
+  }
+
+  @Override
+  public T getRequest() {
+    return delegate.getRequest();
+  }
+
+  @Override
+  public SensorContext getContext() {
+    return delegate.getContext();
+  }
+
+  @Override
+  public CompletableFuture<Void> getFuture() {
+    return delegate.getFuture();
+  }
+
+  @Override
+  public void handleMessage(JsonObject message) {
+    var messageType = message.get("messageType").getAsString();
+    if ("fileResult".equals(messageType)) {
+      enqueue(() -> {
+        if (message.has("error")) {
+          // the analysis response has no room for a per-file failure, the delegate reports it
+          forward(message);
+          return;
+        }
+        var filePath = message.get("filename").getAsString();
+        var response = BridgeServer.AnalysisResponse.fromDTO(
+          GSON.fromJson(message, BridgeServer.AnalysisResponseDTO.class)
+        );
+        persist(filePath, response);
+      });
+    } else if ("crash".equals(messageType)) {
+      delegate.handleMessage(message);
+    } else {
+      forwardAfterQueuedResults(message);
+    }
+  }
+
+  @Override
+  public void handleFileResult(String filePath, BridgeServer.AnalysisResponse response) {
+    enqueue(() -> persist(filePath, response));
+  }
+
+  @Override
+  public void onClose(int code, String reason, boolean remote) {
+    delegate.onClose(code, reason, remote);
+  }
+
+  @Override
+  public void onError(Exception exception) {
+    delegate.onError(exception);
+  }
+
+  private void enqueue(Runnable task) {
+    synchronized (queueLock) {
+      queued++;
+      if (queued > capacity) {
+        setPaused(true);
+      }
+    }
+    try {
+      workers.execute(() -> {
+        try {
+          task.run();
+        } catch (RuntimeException e) {
+          // a failure to process a result, which is not a failure of the bridge
+          delegate.getFuture().completeExceptionally(e);
+        } finally {
+          dequeue();
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      // the analysis is already over
+      dequeue();
+    }
+  }
+
+  private void dequeue() {
+    List<JsonObject> messages;
+    synchronized (queueLock) {
+      queued--;
+      if (queued <= capacity / 2) {
+        setPaused(false);
+      }
+      if (queued > 0 || pendingMessages.isEmpty()) {
+        return;
+      }
+      messages = new ArrayList<>(pendingMessages);
+      pendingMessages.clear();
+    }
+    messages.forEach(this::forwardSafely);
+  }
+
+  private void forwardAfterQueuedResults(JsonObject message) {
+    synchronized (queueLock) {
+      if (queued > 0) {
+        // forwarded by the worker processing the last queued file result
+        pendingMessages.add(message);
+        return;
+      }
+    }
+    delegate.handleMessage(message);
+  }
+
+  private void forwardSafely(JsonObject message) {
+    try {
+      delegate.handleMessage(message);
+    } catch (RuntimeException e) {
+      delegate.getFuture().completeExceptionally(e);
+    }
+  }
+
+  private void persist(String filePath, BridgeServer.AnalysisResponse response) {
+    synchronized (persistenceLock) {
+      if (!delegate.getFuture().isDone()) {
+        delegate.handleFileResult(filePath, response);
+      }
+    }
+  }
+
+  private void forward(JsonObject message) {
+    synchronized (persistenceLock) {
+      if (!delegate.getFuture().isDone()) {
+        delegate.handleMessage(message);
+      }
+    }
+  }
+
+  private synchronized void setPaused(boolean paused) {
+    if (this.paused != paused) {
+      this.paused = paused;
+      LOG.debug(
+        paused
+          ? "Analysis results queue is full, pausing the analysis"
+          : "Analysis results queue drained, resuming the analysis"
+      );
+      backpressureListener.accept(paused);
+    }
+  }
+}
@@ -63,6 +63,13 @@ public class RulesBundles {
       .toList();
   }
 
+  /**
+   * Identifies the provided bundles, as their location changes with the version of their plugin
+   */
+  List<String> fingerprint() {
+    return bundleUrls.stream().map(URL::toString).toList();
+  }
+
   /**
    * Deploy bundles in temporary directory and return list of paths for deployed modules
    *
@@ -0,0 +1,130 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2025 SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.plugins.javascript.bridge;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonar.plugins.javascript.bridge.protobuf.FileResultProto;
+
+/**
+ * A ring buffer in a memory-mapped file, where a bridge server running on the same host writes the
+ * binary file results of a project analysis. Only a small 'sharedFileResult' message announcing
+ * where each result lies goes through the WebSocket connection, which spares copying the results
+ * through the socket and the WebSocket frames.
+ * <p>
+ * The file starts with a header holding the position up to which the results were read, written
+ * by the plugin so that the bridge can reuse the space. Positions count the bytes written since
+ * the beginning, and results wrap around the end of the buffer.
+ */
+final class SharedResultsBuffer implements AutoCloseable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(SharedResultsBuffer.class);
+
+  static final Path SHARED_MEMORY_DIRECTORY = Path.of("/dev/shm");
+  static final int DEFAULT_SIZE = 32 * 1024 * 1024;
+  static final int HEADER_SIZE = 64;
+  private static final VarHandle READ_POSITION = MethodHandles.byteBufferViewVarHandle(
+    long[].class,
+    ByteOrder.LITTLE_ENDIAN
+  );
+
+  private final Path path;
+  private final MappedByteBuffer buffer;
+  private final int capacity;
+
+  private SharedResultsBuffer(Path path, MappedByteBuffer buffer) {
+    this.path = path;
+    this.buffer = buffer;
+    this.capacity = buffer.capacity() - HEADER_SIZE;
+  }
+
+  /**
+   * @param directory a directory backed by memory, such as /dev/shm on Linux
+   * @return nothing if the buffer cannot be created, results then go through the WebSocket
+   */
+  static Optional<SharedResultsBuffer> create(Path directory, int size) {
+    if (!Files.isDirectory(directory)) {
+      return Optional.empty();
+    }
+    Path path = null;
+    try {
+      path = Files.createTempFile(directory, "sonarjs-results-", ".bin");
+      try (
+        var channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)
+      ) {
+        var buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        return Optional.of(new SharedResultsBuffer(path, buffer));
+      }
+    } catch (IOException e) {
+      LOG.debug("Failed to create the shared results buffer in {}", directory, e);
+      delete(path);
+      return Optional.empty();
+    }
+  }
+
+  BridgeServer.ResultsBuffer descriptor() {
+    return new BridgeServer.ResultsBuffer(path.toString(), buffer.capacity());
+  }
+
+  /**
+   * Decodes the result written by the bridge at the given position, then releases its space.
+   */
+  FileResultProto.FileResult read(long position, int length)
+    throws InvalidProtocolBufferException {
+    var start = HEADER_SIZE + (int) (position % capacity);
+    var end = HEADER_SIZE + capacity;
+    FileResultProto.FileResult result;
+    if (start + length <= end) {
+      result = FileResultProto.FileResult.parseFrom(buffer.slice(start, length));
+    } else {
+      var bytes = new byte[length];
+      buffer.get(start, bytes, 0, end - start);
+      buffer.get(HEADER_SIZE, bytes, end - start, length - (end - start));
+      result = FileResultProto.FileResult.parseFrom(bytes);
+    }
+    READ_POSITION.setRelease(buffer, 0, position + length);
+    return result;
+  }
+
+  @Override
+  public void close() {
+    // the memory is released once the file is deleted and the mapping garbage collected
+    delete(path);
+  }
+
+  private static void delete(Path path) {
+    if (path == null) {
+      return;
+    }
+    try {
+      Files.deleteIfExists(path);
+    } catch (IOException e) {
+      LOG.debug("Failed to delete the shared results buffer {}", path, e);
+    }
+  }
+}
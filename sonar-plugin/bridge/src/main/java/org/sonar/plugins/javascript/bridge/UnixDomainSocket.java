@@ -0,0 +1,158 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2025 SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.plugins.javascript.bridge;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.SocketAddress;
+import java.net.SocketException;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+
+/**
+ * Adapts a Unix domain socket channel to the {@link Socket} API expected by the WebSocket client.
+ *
+ * The requested remote address is ignored: the socket always connects to the given path. TCP
+ * specific options are no-ops.
+ */
+class UnixDomainSocket extends Socket {
+
+  private final Path socketPath;
+  private SocketChannel channel;
+  private boolean closed;
+
+  UnixDomainSocket(Path socketPath) {
+    this.socketPath = socketPath;
+  }
+
+  @Override
+  public synchronized void connect(SocketAddress endpoint, int timeout) throws IOException {
+    if (closed) {
+      throw new SocketException("Socket is closed");
+    }
+    channel = SocketChannel.open(UnixDomainSocketAddress.of(socketPath));
+  }
+
+  @Override
+  public synchronized boolean isConnected() {
+    return channel != null && channel.isConnected();
+  }
+
+  @Override
+  public synchronized boolean isClosed() {
+    return closed;
+  }
+
+  /**
+   * The streams access the channel directly: the ones from {@link java.nio.channels.Channels}
+   * share the channel blocking lock, so a pending read would block concurrent writes.
+   */
+  @Override
+  public InputStream getInputStream() throws IOException {
+    var connected = connectedChannel();
+    return new InputStream() {
+      @Override
+      public int read() throws IOException {
+        var single = new byte[1];
+        return read(single, 0, 1) < 0 ? -1 : (single[0] & 0xff);
+      }
+
+      @Override
+      public int read(byte[] b, int off, int len) throws IOException {
+        return len == 0 ? 0 : connected.read(ByteBuffer.wrap(b, off, len));
+      }
+
+      @Override
+      public void close() throws IOException {
+        UnixDomainSocket.this.close();
+      }
+    };
+  }
+
+  @Override
+  public OutputStream getOutputStream() throws IOException {
+    var connected = connectedChannel();
+    return new OutputStream() {
+      @Override
+      public void write(int b) throws IOException {
+        write(new byte[] { (byte) b }, 0, 1);
+      }
+
+      @Override
+      public void write(byte[] b, int off, int len) throws IOException {
+        var buffer = ByteBuffer.wrap(b, off, len);
+        while (buffer.hasRemaining()) {
+          connected.write(buffer);
+        }
+      }
+
+      @Override
+      public void close() throws IOException {
+        UnixDomainSocket.this.close();
+      }
+    };
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    closed = true;
+    if (channel != null) {
+      channel.close();
+    }
+  }
+
+  @Override
+  public SocketAddress getRemoteSocketAddress() {
+    return null;
+  }
+
+  @Override
+  public SocketAddress getLocalSocketAddress() {
+    return null;
+  }
+
+  @Override
+  public void setTcpNoDelay(boolean on) {
+    // not applicable to Unix domain sockets
+  }
+
+  @Override
+  public void setReuseAddress(boolean on) {
+    // not applicable to Unix domain sockets
+  }
+
+  @Override
+  public void setReceiveBufferSize(int size) {
+    // the channel default is used
+  }
+
+  private synchronized SocketChannel connectedChannel() throws SocketException {
+    if (channel == null) {
+      throw new SocketException("Socket is not connected");
+    }
+    return channel;
+  }
+
+  @Override
+  public String toString() {
+    return "UnixDomainSocket[" + socketPath + "]";
+  }
+}
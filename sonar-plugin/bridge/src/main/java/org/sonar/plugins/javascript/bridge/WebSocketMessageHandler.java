@@ -48,6 +48,14 @@ public interface WebSocketMessageHandler<T> {
    */
   void handleMessage(JsonObject message);
 
+  /**
+   * Handles a decoded file result, such as one received as a binary WebSocket frame.
+   *
+   * @param filePath the path of the analyzed file
+   * @param response the decoded analysis response
+   */
+  void handleFileResult(String filePath, BridgeServer.AnalysisResponse response);
+
   /**
    * Called when the WebSocket connection is closed.
    * Implementations can use this to clean up resources.
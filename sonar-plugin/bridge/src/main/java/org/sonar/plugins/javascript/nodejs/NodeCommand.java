@@ -20,6 +20,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import javax.annotation.Nullable;
@@ -127,6 +128,14 @@ public class NodeCommand {
     }
   }
 
+  /**
+   * Completes with the exit value of the external process once it terminates
+   */
+  public CompletableFuture<Integer> onExit() {
+    var exit = process == null ? null : process.onExit();
+    return exit == null ? new CompletableFuture<>() : exit.thenApply(Process::exitValue);
+  }
+
   @Override
   public String toString() {
     return String.join(" ", command);
@@ -0,0 +1,102 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2025 SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.plugins.javascript.bridge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonar.api.config.internal.MapSettings;
+
+class BridgeDaemonTest {
+
+  @TempDir
+  Path userHome;
+
+  @Test
+  void should_not_acquire_daemon_by_default() throws Exception {
+    assertThat(BridgeDaemon.acquire(new MapSettings().asConfig(), new RulesBundles())).isNull();
+  }
+
+  @Test
+  void should_lock_daemon_for_one_analysis() throws Exception {
+    var settings = daemonSettings();
+    try (var daemon = BridgeDaemon.acquire(settings.asConfig(), new RulesBundles())) {
+      assertThat(daemon).isNotNull();
+      assertThat(daemon.bundleLocation()).isEqualTo(userHome.resolve("js/bridge-daemon/bundle"));
+      assertThat(BridgeDaemon.acquire(settings.asConfig(), new RulesBundles())).isNull();
+    }
+    try (var daemon = BridgeDaemon.acquire(settings.asConfig(), new RulesBundles())) {
+      assertThat(daemon).isNotNull();
+    }
+  }
+
+  @Test
+  void should_register_daemon() throws Exception {
+    var settings = daemonSettings().setProperty(BridgeDaemon.IDLE_TIMEOUT_PROPERTY, "60");
+    try (var daemon = BridgeDaemon.acquire(settings.asConfig(), new RulesBundles())) {
+      assertThat(daemon.idleTimeoutMs()).isEqualTo(60_000);
+      assertThat(daemon.registration()).isEmpty();
+
+      daemon.register(1234);
+      var registration = daemon.registration();
+      assertThat(registration).isPresent();
+      assertThat(registration.get().port()).isEqualTo(1234);
+      assertThat(daemon.isCompatible(registration.get())).isTrue();
+
+      daemon.unregister();
+      assertThat(daemon.registration()).isEmpty();
+    }
+  }
+
+  @Test
+  void should_refuse_daemon_started_differently() throws Exception {
+    BridgeDaemon.Registration registration;
+    try (var daemon = BridgeDaemon.acquire(daemonSettings().asConfig(), new RulesBundles())) {
+      daemon.register(1234);
+      registration = daemon.registration().orElseThrow();
+      assertThat(
+        daemon.isCompatible(
+          new BridgeDaemon.Registration(1234, "0.0.1", registration.fingerprint())
+        )
+      ).isFalse();
+    }
+    var settings = daemonSettings().setProperty(
+      BridgeServerImpl.MAX_OLD_SPACE_SIZE_PROPERTY,
+      "8192"
+    );
+    try (var daemon = BridgeDaemon.acquire(settings.asConfig(), new RulesBundles())) {
+      assertThat(daemon.isCompatible(registration)).isFalse();
+    }
+  }
+
+  @Test
+  void should_ignore_malformed_registry() throws Exception {
+    try (var daemon = BridgeDaemon.acquire(daemonSettings().asConfig(), new RulesBundles())) {
+      Files.writeString(userHome.resolve("js/bridge-daemon/registry.json"), "{");
+      assertThat(daemon.registration()).isEmpty();
+    }
+  }
+
+  private MapSettings daemonSettings() {
+    return new MapSettings()
+      .setProperty(BridgeDaemon.DAEMON_PROPERTY, "true")
+      .setProperty("sonar.userHome", userHome.toString());
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2025 SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.plugins.javascript.bridge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Test;
+import org.sonar.plugins.javascript.bridge.BridgeServer.AnalysisResponseDTO;
+import org.sonar.plugins.javascript.bridge.BridgeServer.Issue;
+
+class BridgeJsonTest {
+
+  private static final String RESPONSE = """
+    {
+      "issues": [
+        {
+          "line": 1, "column": 2, "endLine": 1, "endColumn": 5, "message": "first",
+          "ruleId": "S1116", "language": "js", "cost": 1.5, "filePath": "/project/file.js",
+          "secondaryLocations": [
+            { "line": 2, "column": 0, "endLine": 2, "endColumn": 3, "message": "here" },
+            { "line": 3, "column": 0, "endLine": 3, "endColumn": 3 }
+          ],
+          "quickFixes": [
+            {
+              "message": "Remove",
+              "edits": [
+                { "text": "", "loc": { "line": 1, "column": 2, "endLine": 1, "endColumn": 3 } }
+              ]
+            }
+          ],
+          "ruleESLintKeys": ["no-extra-semi"],
+          "unknown": { "nested": [1, 2] }
+        },
+        {
+          "line": 4, "column": 0, "endLine": null, "message": "second",
+          "ruleId": "S1116", "language": "js", "secondaryLocations": [],
+          "filePath": "/project/file.js"
+        }
+      ],
+      "highlights": [
+        {
+          "location": { "startLine": 1, "startCol": 0, "endLine": 1, "endCol": 5 },
+          "textType": "KEYWORD"
+        }
+      ],
+      "highlightedSymbols": [
+        {
+          "declaration": { "startLine": 1, "startCol": 6, "endLine": 1, "endCol": 7 },
+          "references": [{ "startLine": 2, "startCol": 0, "endLine": 2, "endCol": 1 }]
+        }
+      ],
+      "metrics": { "ncloc": [1, 2], "functions": 1 },
+      "cpdTokens": [
+        {
+          "location": { "startLine": 1, "startCol": 0, "endLine": 1, "endCol": 5 },
+          "image": "const"
+        }
+      ]
+    }
+    """;
+
+  @Test
+  void should_decode_like_reflective_gson() {
+    var reflective = new Gson().fromJson(RESPONSE, AnalysisResponseDTO.class);
+    var streamed = BridgeJson.GSON.fromJson(RESPONSE, AnalysisResponseDTO.class);
+    assertThat(streamed).isEqualTo(reflective);
+    assertThat(streamed.issues().get(1).endLine()).isNull();
+    assertThat(streamed.issues().get(1).quickFixes()).isNull();
+  }
+
+  @Test
+  void should_intern_repeated_strings() {
+    var response = BridgeJson.GSON.fromJson(RESPONSE, AnalysisResponseDTO.class);
+    var first = response.issues().get(0);
+    var second = response.issues().get(1);
+    assertThat(first.ruleId()).isSameAs(second.ruleId()).isSameAs("S1116");
+    assertThat(first.language()).isSameAs(second.language());
+    assertThat(first.filePath()).isSameAs(second.filePath());
+    assertThat(response.highlights().get(0).textType()).isSameAs("KEYWORD");
+  }
+
+  @Test
+  void should_encode_like_reflective_gson() {
+    var response = BridgeJson.GSON.fromJson(RESPONSE, AnalysisResponseDTO.class);
+    var json = BridgeJson.GSON.toJson(response);
+    assertThat(new Gson().fromJson(json, AnalysisResponseDTO.class)).isEqualTo(response);
+    assertThat(BridgeJson.GSON.toJson(response.issues().get(1), Issue.class)).isEqualTo(
+      new Gson().toJson(response.issues().get(1))
+    );
+  }
+}
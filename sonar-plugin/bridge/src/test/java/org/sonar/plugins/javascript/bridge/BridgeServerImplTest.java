@@ -21,11 +21,16 @@ import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.slf4j.event.Level.DEBUG;
 import static org.slf4j.event.Level.INFO;
@@ -34,12 +39,16 @@ import static org.sonar.plugins.javascript.nodejs.NodeCommandBuilderImpl.NODE_EX
 import static org.sonar.plugins.javascript.nodejs.NodeCommandBuilderImpl.NODE_FORCE_HOST_PROPERTY;
 import static org.sonar.plugins.javascript.nodejs.NodeCommandBuilderImpl.SKIP_NODE_PROVISIONING_PROPERTY;
 
+import com.google.gson.JsonParser;
 import java.io.File;
 import java.io.IOException;
+import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import javax.annotation.Nonnull;
@@ -52,6 +61,7 @@ import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.MockedStatic;
+import org.sonar.api.SonarProduct;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.fs.internal.DefaultInputFile;
 import org.sonar.api.batch.fs.internal.TestInputFileBuilder;
@@ -179,6 +189,102 @@ class BridgeServerImplTest {
     assertThat(response.issues()).hasSize(1);
   }
 
+  @Test
+  void should_fall_back_to_http_when_requests_cannot_be_multiplexed() throws Exception {
+    var settings = new MapSettings().setProperty(
+      "sonar.javascript.bridge.multiplexRequests",
+      "true"
+    );
+    var config = new BridgeServerConfig(
+      settings.asConfig(),
+      workDir.toString(),
+      SonarProduct.SONARLINT
+    );
+    // the mock bridge does not accept WebSocket connections
+    bridgeServer = createBridgeServer(START_SERVER_SCRIPT);
+    bridgeServer.startServerLazily(config);
+    var response = bridgeServer.analyzeJsTs(createRequest());
+    assertThat(response.issues()).hasSize(1);
+  }
+
+  @Test
+  void should_apply_the_settings_to_additional_servers() throws Exception {
+    var settings = new MapSettings().setProperty(BridgeServerImpl.COMPRESSION_PROPERTY, "true");
+    var config = new BridgeServerConfig(
+      settings.asConfig(),
+      workDir.toString(),
+      SonarProduct.SONARLINT
+    );
+    bridgeServer = createBridgeServer(START_SERVER_SCRIPT);
+    bridgeServer.startServerLazily(config);
+    var http = spy(Http.getJdkHttpClient());
+    var replica = new BridgeServerImpl(
+      builder(),
+      TEST_TIMEOUT_SECONDS,
+      new TestBundle(START_SERVER_SCRIPT),
+      emptyRulesBundles,
+      deprecationWarning,
+      tempFolder,
+      unsupportedEmbeddedRuntime,
+      http
+    );
+    try {
+      replica.startServer(config, bridgeServer);
+      assertThat(replica.analyzeJsTs(createRequest()).issues()).hasSize(1);
+      verify(http).post(
+        any(),
+        argThat(uri -> "priority=interactive".equals(uri.getQuery())),
+        anyLong(),
+        eq(true)
+      );
+    } finally {
+      replica.clean();
+    }
+  }
+
+  @Test
+  void should_start_when_the_bridge_announces_its_readiness() throws Exception {
+    bridgeServer = createBridgeServer(START_SERVER_SCRIPT);
+    bridgeServer.startServer(serverConfig);
+
+    assertThat(logTester.logs(DEBUG)).contains(
+      "The bridge server is ready with capabilities [websocket]"
+    );
+    assertThat(logTester.logs(INFO)).noneMatch(log ->
+      log.startsWith(BridgeServerImpl.READY_TOKEN)
+    );
+  }
+
+  @Test
+  void should_ignore_malformed_readiness_announcement() {
+    var announcements = new ArrayList<BridgeServerImpl.Readiness>();
+    var consumer = new BridgeServerImpl.LogOutputConsumer(announcements::add);
+
+    consumer.accept(BridgeServerImpl.READY_TOKEN + " {\"port\":");
+    consumer.accept(BridgeServerImpl.READY_TOKEN + " {\"port\":1234,\"capabilities\":[]}");
+
+    assertThat(announcements).containsExactly(
+      new BridgeServerImpl.Readiness(1234, null, List.of())
+    );
+    assertThat(logTester.logs(DEBUG)).anyMatch(log ->
+      log.startsWith("Ignoring malformed readiness announcement")
+    );
+  }
+
+  @Test
+  void should_get_answer_from_server_over_unix_domain_socket() throws Exception {
+    assumeFalse(System.getProperty("os.name").toLowerCase(Locale.ROOT).startsWith("windows"));
+    bridgeServer = createBridgeServer(START_SERVER_SCRIPT);
+    context.setSettings(new MapSettings().setProperty(BridgeServerImpl.UNIX_SOCKET_PROPERTY, true));
+    bridgeServer.startServer(BridgeServerConfig.fromSensorContext(context));
+
+    assertThat(bridgeServer.isAlive()).isTrue();
+    assertThat(bridgeServer.analyzeJsTs(createRequest()).issues()).hasSize(1);
+    assertThat(logTester.logs(DEBUG)).anyMatch(log ->
+      log.startsWith("Bridge server started on socket ")
+    );
+  }
+
   @Test
   void test_init() throws Exception {
     bridgeServer = createBridgeServer(START_SERVER_SCRIPT);
@@ -196,8 +302,37 @@ class BridgeServerImplTest {
     );
     bridgeServer.initLinter(rules, Collections.emptyList(), Collections.emptyList(), "", false);
     bridgeServer.stop();
-    assertThat(logTester.logs()).contains(
-      "{\"rules\":[{\"key\":\"key\",\"fileTypeTargets\":[\"MAIN\"],\"configurations\":[\"config\"],\"analysisModes\":[\"DEFAULT\"],\"blacklistedExtensions\":[],\"language\":\"js\"}],\"environments\":[],\"globals\":[],\"baseDir\":\"\",\"sonarlint\":false,\"bundles\":[]}"
+    assertThat(logTester.logs()).anyMatch(log ->
+      log.startsWith(
+        "{\"rules\":[{\"key\":\"key\",\"fileTypeTargets\":[\"MAIN\"],\"configurations\":[\"config\"],\"analysisModes\":[\"DEFAULT\"],\"blacklistedExtensions\":[],\"language\":\"js\"}],\"environments\":[],\"globals\":[],\"baseDir\":\"\",\"sonarlint\":false,\"bundles\":[],\"fingerprint\":\""
+      )
+    );
+  }
+
+  @Test
+  void should_only_send_fingerprint_of_known_linter_configuration() throws Exception {
+    bridgeServer = createBridgeServer(START_SERVER_SCRIPT);
+    bridgeServer.startServer(serverConfig);
+
+    List<EslintRule> rules = List.of(
+      new EslintRule(
+        "key",
+        emptyList(),
+        List.of(InputFile.Type.MAIN),
+        singletonList(AnalysisMode.DEFAULT),
+        emptyList(),
+        "js"
+      )
+    );
+    bridgeServer.initLinter(rules, emptyList(), emptyList(), "", false);
+    bridgeServer.initLinter(rules, emptyList(), emptyList(), "", false);
+    bridgeServer.initLinter(rules, List.of("node"), emptyList(), "", false);
+    bridgeServer.stop();
+
+    var fullRequests = logTester.logs().stream().filter(log -> log.startsWith("{\"rules\":"));
+    assertThat(fullRequests).hasSize(2);
+    assertThat(logTester.logs()).anyMatch(log ->
+      log.matches("\\{\"fingerprint\":\"[0-9a-f]{64}\"}")
     );
   }
 
@@ -294,6 +429,28 @@ class BridgeServerImplTest {
       .hasMessage("Failed to start the bridge server (" + TEST_TIMEOUT_SECONDS + "s timeout)");
   }
 
+  @Test
+  void should_stop_waiting_when_the_process_exits() {
+    bridgeServer = new BridgeServerImpl(
+      builder(),
+      60,
+      new TestBundle("throw.js"),
+      emptyRulesBundles,
+      deprecationWarning,
+      tempFolder,
+      unsupportedEmbeddedRuntime
+    );
+
+    var start = System.currentTimeMillis();
+    assertThatThrownBy(() -> bridgeServer.startServer(serverConfig)).isInstanceOf(
+      NodeCommandException.class
+    );
+    assertThat(System.currentTimeMillis() - start).isLessThan(30_000);
+    assertThat(logTester.logs(DEBUG)).contains(
+      "The bridge server did not start: The Node.js process exited with code 1"
+    );
+  }
+
   @Test
   void should_return_command_info() throws Exception {
     bridgeServer = createBridgeServer(START_SERVER_SCRIPT);
@@ -301,7 +458,11 @@ class BridgeServerImplTest {
       "Node.js command to start the bridge server was not built yet."
     );
 
-    bridgeServer.startServer(serverConfig);
+    // keep the command independent of the memory limit of the container running the test
+    context.setSettings(
+      new MapSettings().setProperty(NodeHeapSizing.AUTO_SIZING_PROPERTY, "false")
+    );
+    bridgeServer.startServer(BridgeServerConfig.fromSensorContext(context));
 
     assertThat(bridgeServer.getCommandInfo()).contains(
       "Node.js command to start the bridge server was: ",
@@ -414,6 +575,96 @@ class BridgeServerImplTest {
     assertThat(logTester.logs(DEBUG)).contains(alreadyStarted);
   }
 
+  @Test
+  void should_warm_up_server_before_first_use() throws Exception {
+    bridgeServer = createBridgeServer(START_SERVER_SCRIPT);
+    bridgeServer.warmUp(
+      new MapSettings().setProperty("sonar.javascript.bridge.warmUp", "true").asConfig(),
+      SonarProduct.SONARQUBE
+    );
+    bridgeServer.startServerLazily(serverConfig);
+
+    assertThat(logTester.logs(DEBUG)).contains(
+      "Warming up the bridge server in the background",
+      "The bridge server was started by the warm-up",
+      "The bridge server is up, no need to start."
+    );
+    assertThat(bridgeServer.isAlive()).isTrue();
+  }
+
+  @Test
+  void should_warm_up_server_for_the_runtime_product() throws Exception {
+    bridgeServer = createBridgeServer(START_SERVER_SCRIPT);
+    bridgeServer.warmUp(
+      new MapSettings().setProperty("sonar.javascript.bridge.warmUp", "true").asConfig(),
+      SonarProduct.SONARLINT
+    );
+    bridgeServer.startServerLazily(serverConfig);
+
+    assertThat(logTester.logs(INFO)).contains(
+      "Running in SonarLint context, metrics will not be computed."
+    );
+  }
+
+  @Test
+  void should_not_warm_up_server_by_default() throws Exception {
+    bridgeServer = createBridgeServer(START_SERVER_SCRIPT);
+    bridgeServer.warmUp(new MapSettings().asConfig(), SonarProduct.SONARQUBE);
+
+    assertThat(bridgeServer.isAlive()).isFalse();
+    assertThat(logTester.logs(DEBUG)).doesNotContain(
+      "Warming up the bridge server in the background"
+    );
+  }
+
+  @Test
+  void should_report_warm_up_failure_on_first_use() {
+    bridgeServer = createBridgeServer("invalid");
+    bridgeServer.warmUp(
+      new MapSettings().setProperty("sonar.javascript.bridge.warmUp", "true").asConfig(),
+      SonarProduct.SONARQUBE
+    );
+
+    assertThatThrownBy(() -> bridgeServer.startServerLazily(serverConfig))
+      .isInstanceOf(NodeCommandException.class)
+      .hasMessageStartingWith("Node.js script to start the bridge server doesn't exist");
+    assertThatThrownBy(() -> bridgeServer.startServerLazily(serverConfig)).isInstanceOf(
+      ServerAlreadyFailedException.class
+    );
+  }
+
+  @Test
+  void should_reuse_bridge_daemon() throws Exception {
+    var userHome = moduleBase.resolve("user-home");
+    var settings = new MapSettings()
+      .setProperty("sonar.javascript.bridge.daemon", "true")
+      .setProperty("sonar.userHome", userHome.toString());
+    var config = new BridgeServerConfig(
+      settings.asConfig(),
+      workDir.toString(),
+      SonarProduct.SONARQUBE
+    );
+    bridgeServer = createBridgeServer(START_SERVER_SCRIPT);
+    bridgeServer.startServerLazily(config);
+    bridgeServer.clean();
+    var registry = userHome.resolve("js/bridge-daemon/registry.json");
+    var daemonPort = JsonParser.parseString(Files.readString(registry))
+      .getAsJsonObject()
+      .get("port")
+      .getAsInt();
+
+    var otherServer = createBridgeServer(START_SERVER_SCRIPT);
+    try {
+      otherServer.startServerLazily(config);
+      assertThat(logTester.logs(INFO)).contains("Using the bridge daemon on port " + daemonPort);
+      assertThat(otherServer.isAlive()).isTrue();
+    } finally {
+      otherServer.clean();
+      var close = URI.create("http://127.0.0.1:" + daemonPort + "/close");
+      Http.getJdkHttpClient().post("", close, 5);
+    }
+  }
+
   @Test
   void should_throw_special_exception_when_failed_start_server_before() {
     bridgeServer = createBridgeServer("throw.js");
@@ -452,6 +703,46 @@ class BridgeServerImplTest {
     );
   }
 
+  @Test
+  void should_restart_server_if_not_alive() throws Exception {
+    bridgeServer = createBridgeServer("startAndClose.js");
+    bridgeServer.startServerLazily(serverConfig);
+
+    bridgeServer.waitFor();
+    bridgeServer.restartServer(serverConfig);
+
+    assertThat(logTester.logs(INFO)).contains("Restarting the bridge server");
+    assertThat(logTester.logs(DEBUG))
+      .filteredOn(log -> log.startsWith("Creating Node.js process to start the bridge server"))
+      .hasSize(2);
+  }
+
+  @Test
+  void should_not_restart_server_if_alive() throws Exception {
+    bridgeServer = createBridgeServer(START_SERVER_SCRIPT);
+    bridgeServer.startServerLazily(serverConfig);
+
+    bridgeServer.restartServer(serverConfig);
+
+    assertThat(logTester.logs(DEBUG)).contains("The bridge server is up, no need to restart.");
+    assertThat(logTester.logs(INFO)).doesNotContain("Restarting the bridge server");
+  }
+
+  @Test
+  void should_recycle_server() throws Exception {
+    bridgeServer = createBridgeServer(START_SERVER_SCRIPT);
+    bridgeServer.startServerLazily(serverConfig);
+
+    assertThat(bridgeServer.recycleServer(serverConfig)).isTrue();
+
+    assertThat(bridgeServer.isAlive()).isTrue();
+    assertThat(logTester.logs(INFO)).contains("Recycling the bridge server");
+    assertThat(logTester.logs(DEBUG))
+      .doesNotContain("The bridge server is up, no need to start.")
+      .filteredOn(log -> log.startsWith("Creating Node.js process to start the bridge server"))
+      .hasSize(2);
+  }
+
   @Test
   void should_fail_if_bad_json_response() throws Exception {
     bridgeServer = createBridgeServer("badResponse.js");
@@ -0,0 +1,437 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2025 SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.plugins.javascript.bridge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonar.api.SonarProduct;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.sensor.internal.SensorContextTester;
+import org.sonar.api.config.internal.MapSettings;
+import org.sonar.plugins.javascript.bridge.BridgeServer.JsTsFile;
+import org.sonar.plugins.javascript.bridge.BridgeServer.ProjectAnalysisConfiguration;
+import org.sonar.plugins.javascript.bridge.BridgeServer.ProjectAnalysisRequest;
+
+class BridgeServerPoolTest {
+
+  @TempDir
+  Path baseDir;
+
+  SensorContextTester context;
+  BridgeServerImpl primary;
+  BridgeServerImpl replica;
+  BridgeServerPool pool;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    context = SensorContextTester.create(baseDir);
+    primary = mock(BridgeServerImpl.class);
+    replica = mock(BridgeServerImpl.class);
+    when(primary.isAlive()).thenReturn(true);
+    when(replica.isAlive()).thenReturn(true);
+    pool = new BridgeServerPool(primary, () -> replica);
+  }
+
+  @Test
+  void should_use_primary_server_by_default() throws Exception {
+    pool.startServerLazily(serverConfig(new MapSettings()));
+    var handler = new RecordingHandler(request(files("a/x.ts")));
+
+    pool.analyzeProject(handler);
+
+    verify(primary).analyzeProject(handler);
+    verify(replica, never()).startServer(any(), any());
+  }
+
+  @Test
+  void should_merge_results_of_partitions() throws Exception {
+    createTsConfig("a");
+    createTsConfig("b");
+    analyzeAll(primary, "warning");
+    analyzeAll(replica, "warning", "other warning");
+    pool.startServerLazily(serverConfig(twoProcesses()));
+    var handler = new RecordingHandler(request(files("a/x.ts", "a/y.ts", "b/z.ts")));
+
+    pool.analyzeProject(handler);
+
+    assertThat(handler.getFuture()).isCompleted();
+    assertThat(handler.filePaths).containsExactlyInAnyOrder(
+      path("a/x.ts"),
+      path("a/y.ts"),
+      path("b/z.ts")
+    );
+    assertThat(handler.warnings).containsExactly("warning", "other warning");
+    verify(replica).startServer(any(), any());
+  }
+
+  @Test
+  void should_analyze_again_files_of_failed_partition() throws Exception {
+    createTsConfig("a");
+    createTsConfig("b");
+    analyzeAll(primary);
+    doAnswer(invocation -> {
+      WebSocketMessageHandler<ProjectAnalysisRequest> handler = invocation.getArgument(0);
+      var first = handler.getRequest().getFiles().keySet().iterator().next();
+      handler.handleFileResult(first, new BridgeServer.AnalysisResponse());
+      handler.onError(new IllegalStateException("crash"));
+      return null;
+    })
+      .when(replica)
+      .analyzeProject(any());
+    when(replica.isAlive()).thenReturn(false);
+    pool.startServerLazily(serverConfig(twoProcesses()));
+    var handler = new RecordingHandler(request(files("a/x.ts", "a/y.ts", "b/z.ts", "b/w.ts")));
+
+    pool.analyzeProject(handler);
+
+    assertThat(handler.getFuture()).isCompleted();
+    assertThat(handler.filePaths).containsExactlyInAnyOrder(
+      path("a/x.ts"),
+      path("a/y.ts"),
+      path("b/z.ts"),
+      path("b/w.ts")
+    );
+  }
+
+  @Test
+  void should_spread_files_of_crashed_partition_over_live_servers() throws Exception {
+    createTsConfig("a");
+    createTsConfig("b");
+    createTsConfig("c");
+    createTsConfig("d");
+    var crashing = mock(BridgeServerImpl.class);
+    analyzeAll(primary);
+    analyzeAll(replica);
+    doAnswer(invocation -> {
+      WebSocketMessageHandler<ProjectAnalysisRequest> handler = invocation.getArgument(0);
+      var crash = new JsonObject();
+      crash.addProperty("messageType", "crash");
+      crash.addProperty("filename", path("c/crash.ts"));
+      handler.handleMessage(crash);
+      handler.onClose(1006, "Abnormal close event", true);
+      return null;
+    })
+      .when(crashing)
+      .analyzeProject(any());
+    var servers = List.of(replica, crashing).iterator();
+    pool = new BridgeServerPool(primary, servers::next);
+    pool.startServerLazily(
+      serverConfig(new MapSettings().setProperty(BridgeServerPool.PROCESSES_PROPERTY, "3"))
+    );
+    var handler = new RecordingHandler(
+      request(
+        files(
+          "a/x.ts",
+          "a/y.ts",
+          "a/z.ts",
+          "b/x.ts",
+          "b/y.ts",
+          "b/z.ts",
+          "c/x.ts",
+          "c/crash.ts",
+          "d/x.ts"
+        )
+      )
+    );
+
+    pool.analyzeProject(handler);
+
+    assertThat(handler.getFuture()).isCompleted();
+    assertThat(handler.crashedFilePaths).containsExactly(path("c/crash.ts"));
+    assertThat(handler.filePaths)
+      .hasSize(8)
+      .contains(path("c/x.ts"), path("d/x.ts"))
+      .doesNotContain(path("c/crash.ts"));
+    verify(primary, times(2)).analyzeProject(any());
+    verify(replica, times(2)).analyzeProject(any());
+    verify(crashing).analyzeProject(any());
+  }
+
+  @Test
+  void should_report_pool_failure_to_handler() throws Exception {
+    createTsConfig("a");
+    createTsConfig("b");
+    doAnswer(invocation -> {
+      WebSocketMessageHandler<ProjectAnalysisRequest> handler = invocation.getArgument(0);
+      handler.onClose(1006, "Abnormal close event", true);
+      return null;
+    })
+      .when(replica)
+      .analyzeProject(any());
+    analyzeAll(primary);
+    when(replica.isAlive()).thenReturn(false);
+    when(primary.isAlive()).thenReturn(false);
+    pool.startServerLazily(serverConfig(twoProcesses()));
+    var handler = new RecordingHandler(request(files("a/x.ts", "a/y.ts", "b/z.ts")));
+
+    assertThatThrownBy(() -> pool.analyzeProject(handler)).isInstanceOf(CompletionException.class);
+
+    assertThat(handler.errors)
+      .extracting(Throwable::getMessage)
+      .containsExactly("Failed to analyze 1 file(s) with the bridge server pool");
+  }
+
+  @Test
+  void should_fail_without_analyzing_again_when_results_cannot_be_processed() throws Exception {
+    createTsConfig("a");
+    createTsConfig("b");
+    analyzeAll(primary);
+    analyzeAll(replica);
+    pool.startServerLazily(serverConfig(twoProcesses()));
+    var failure = new IllegalStateException("boom");
+    var request = request(files("a/x.ts", "a/y.ts", "b/z.ts"));
+    RecordingHandler handler = new RecordingHandler(request) {
+      @Override
+      public void handleFileResult(String filePath, BridgeServer.AnalysisResponse response) {
+        throw failure;
+      }
+    };
+
+    assertThatThrownBy(() -> pool.analyzeProject(handler)).hasCause(failure);
+
+    assertThat(handler.errors).isEmpty();
+    verify(primary).analyzeProject(any());
+    verify(replica).analyzeProject(any());
+  }
+
+  @Test
+  void should_forward_failed_file_results_through_results_queue() throws Exception {
+    createTsConfig("a");
+    createTsConfig("b");
+    analyzeAll(primary);
+    doAnswer(invocation -> {
+      WebSocketMessageHandler<ProjectAnalysisRequest> handler = new QueuedMessageHandler<>(
+        invocation.getArgument(0),
+        1,
+        10,
+        paused -> {}
+      );
+      for (var file : handler.getRequest().getFiles().keySet()) {
+        var result = new JsonObject();
+        result.addProperty("messageType", "fileResult");
+        result.addProperty("filename", file);
+        result.addProperty("error", "Unexpected failure");
+        handler.handleMessage(result);
+      }
+      var meta = new JsonObject();
+      meta.addProperty("messageType", "meta");
+      meta.add("warnings", new JsonArray());
+      handler.handleMessage(meta);
+      return handler.getFuture().join();
+    })
+      .when(replica)
+      .analyzeProject(any());
+    pool.startServerLazily(serverConfig(twoProcesses()));
+    var handler = new RecordingHandler(request(files("a/x.ts", "a/y.ts", "b/z.ts")));
+
+    pool.analyzeProject(handler);
+
+    assertThat(handler.getFuture()).isCompleted();
+    assertThat(handler.filePaths).containsExactlyInAnyOrder(
+      path("a/x.ts"),
+      path("a/y.ts"),
+      path("b/z.ts")
+    );
+    assertThat(handler.failedFilePaths).containsExactly(path("b/z.ts"));
+  }
+
+  @Test
+  void should_keep_files_of_same_tsconfig_together() throws Exception {
+    createTsConfig("a");
+    createTsConfig("b");
+    var partitions = BridgeServerPool.partition(
+      files("a/x.ts", "a/sub/y.ts", "a/sub/z.ts", "b/z.ts", "c/w.js"),
+      baseDir.toString(),
+      2
+    );
+
+    assertThat(partitions).hasSize(2);
+    assertThat(partitions.get(0).keySet()).containsExactlyInAnyOrder(
+      path("a/x.ts"),
+      path("a/sub/y.ts"),
+      path("a/sub/z.ts")
+    );
+    assertThat(partitions.get(1).keySet()).containsExactlyInAnyOrder(
+      path("b/z.ts"),
+      path("c/w.js")
+    );
+  }
+
+  @Test
+  void should_warm_up_primary_server_on_start() {
+    var configuration = new MapSettings().asConfig();
+    new BridgeServerPool(primary, () -> replica, configuration, SonarProduct.SONARLINT).start();
+    verify(primary).warmUp(configuration, SonarProduct.SONARLINT);
+
+    pool.start();
+    verifyNoMoreInteractions(primary);
+  }
+
+  @Test
+  void should_compute_pool_size() {
+    assertThat(BridgeServerPool.poolSize(null)).isEqualTo(1);
+    var settings = new MapSettings().setProperty("sonar.javascript.node.processes", "4");
+    assertThat(BridgeServerPool.poolSize(serverConfig(settings))).isEqualTo(4);
+    assertThat(
+      BridgeServerPool.poolSize(
+        new BridgeServerConfig(settings.asConfig(), baseDir.toString(), SonarProduct.SONARLINT)
+      )
+    ).isEqualTo(1);
+    settings.setProperty("sonar.javascript.node.processes", "many");
+    assertThat(BridgeServerPool.poolSize(serverConfig(settings))).isEqualTo(1);
+    settings.setProperty("sonar.javascript.node.processes", "auto");
+    assertThat(BridgeServerPool.poolSize(serverConfig(settings))).isPositive();
+
+    assertThat(BridgeServerPool.autoPoolSize(8, 14_000, 2_048)).isEqualTo(6);
+    assertThat(BridgeServerPool.autoPoolSize(4, 62_000, 2_048)).isEqualTo(3);
+    assertThat(BridgeServerPool.autoPoolSize(32, 2_000, 2_048)).isEqualTo(1);
+  }
+
+  private void analyzeAll(BridgeServerImpl server, String... warnings) {
+    doAnswer(invocation -> {
+      WebSocketMessageHandler<ProjectAnalysisRequest> handler = invocation.getArgument(0);
+      for (var file : handler.getRequest().getFiles().keySet()) {
+        handler.handleFileResult(file, new BridgeServer.AnalysisResponse());
+      }
+      var meta = new JsonObject();
+      meta.addProperty("messageType", "meta");
+      var warningsArray = new JsonArray();
+      List.of(warnings).forEach(warningsArray::add);
+      meta.add("warnings", warningsArray);
+      handler.handleMessage(meta);
+      return null;
+    })
+      .when(server)
+      .analyzeProject(any());
+  }
+
+  private static MapSettings twoProcesses() {
+    return new MapSettings().setProperty(BridgeServerPool.PROCESSES_PROPERTY, "2");
+  }
+
+  private void createTsConfig(String dir) throws IOException {
+    Files.createDirectories(baseDir.resolve(dir));
+    Files.writeString(baseDir.resolve(dir).resolve("tsconfig.json"), "{}");
+  }
+
+  private String path(String relativePath) {
+    return baseDir.resolve(relativePath).toString();
+  }
+
+  private Map<String, JsTsFile> files(String... relativePaths) {
+    var files = new LinkedHashMap<String, JsTsFile>();
+    for (var relativePath : relativePaths) {
+      files.put(
+        path(relativePath),
+        new JsTsFile(path(relativePath), "MAIN", InputFile.Status.ADDED, null)
+      );
+    }
+    return files;
+  }
+
+  private ProjectAnalysisRequest request(Map<String, JsTsFile> files) {
+    return new ProjectAnalysisRequest(
+      files,
+      List.of(),
+      new ProjectAnalysisConfiguration(baseDir.toString(), mock(AnalysisConfiguration.class))
+    );
+  }
+
+  private BridgeServerConfig serverConfig(MapSettings settings) {
+    return new BridgeServerConfig(settings.asConfig(), baseDir.toString(), SonarProduct.SONARQUBE);
+  }
+
+  private class RecordingHandler implements WebSocketMessageHandler<ProjectAnalysisRequest> {
+
+    private final ProjectAnalysisRequest request;
+    private final CompletableFuture<Void> future = new CompletableFuture<>();
+    private final List<String> filePaths = new ArrayList<>();
+    private final List<String> failedFilePaths = new ArrayList<>();
+    private final List<String> crashedFilePaths = new ArrayList<>();
+    private final List<Exception> errors = new ArrayList<>();
+    private final List<String> warnings = new ArrayList<>();
+
+    RecordingHandler(ProjectAnalysisRequest request) {
+      this.request = request;
+    }
+
+    @Override
+    public ProjectAnalysisRequest getRequest() {
+      return request;
+    }
+
+    @Override
+    public SensorContextTester getContext() {
+      return context;
+    }
+
+    @Override
+    public CompletableFuture<Void> getFuture() {
+      return future;
+    }
+
+    @Override
+    public void handleMessage(JsonObject message) {
+      if ("fileResult".equals(message.get("messageType").getAsString())) {
+        var filePath = message.get("filename").getAsString();
+        filePaths.add(filePath);
+        failedFilePaths.add(filePath);
+        return;
+      }
+      if ("crash".equals(message.get("messageType").getAsString())) {
+        crashedFilePaths.add(message.get("filename").getAsString());
+        return;
+      }
+      message.getAsJsonArray("warnings").forEach(warning -> warnings.add(warning.getAsString()));
+      future.complete(null);
+    }
+
+    @Override
+    public void handleFileResult(String filePath, BridgeServer.AnalysisResponse response) {
+      filePaths.add(filePath);
+    }
+
+    @Override
+    public void onError(Exception exception) {
+      errors.add(exception);
+      future.completeExceptionally(exception);
+    }
+  }
+}
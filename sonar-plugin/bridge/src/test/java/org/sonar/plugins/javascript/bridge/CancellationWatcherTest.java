@@ -0,0 +1,73 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2025 SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.plugins.javascript.bridge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class CancellationWatcherTest {
+
+  @Test
+  void should_stop_the_work_in_flight_once_cancelled() {
+    var cancelled = new AtomicBoolean();
+    var stops = new AtomicInteger();
+    try (var watcher = new CancellationWatcher(cancelled::get, stops::incrementAndGet, 10)) {
+      assertThat(watcher.runUnlessCancelled(() -> {})).isTrue();
+      assertThat(watcher.isCancelled()).isFalse();
+
+      cancelled.set(true);
+      await().until(watcher::isCancelled);
+      assertThat(stops.get()).isEqualTo(1);
+      assertThat(watcher.runUnlessCancelled(stops::incrementAndGet)).isFalse();
+    }
+    assertThat(stops.get()).isEqualTo(1);
+  }
+
+  @Test
+  void should_not_send_anything_after_the_cancellation() throws Exception {
+    var sent = new StringBuilder();
+    var cancelled = new AtomicBoolean();
+    try (var watcher = new CancellationWatcher(cancelled::get, () -> sent.append("cancel"), 10)) {
+      // the analysis gets cancelled while files are sent
+      while (
+        watcher.runUnlessCancelled(() -> {
+          sent.append("files,");
+          cancelled.set(true);
+        })
+      ) {
+        Thread.sleep(1);
+      }
+    }
+    assertThat(sent.toString()).endsWith(",cancel").doesNotContain("cancelfiles");
+  }
+
+  @Test
+  void should_stop_polling_when_closed() throws Exception {
+    var cancelled = new AtomicBoolean();
+    var stops = new AtomicInteger();
+    var watcher = new CancellationWatcher(cancelled::get, stops::incrementAndGet, 10);
+    watcher.close();
+    cancelled.set(true);
+    Thread.sleep(50);
+    assertThat(watcher.isCancelled()).isFalse();
+    assertThat(stops.get()).isZero();
+  }
+}
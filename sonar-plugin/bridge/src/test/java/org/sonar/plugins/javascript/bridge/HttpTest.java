@@ -0,0 +1,258 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2025 SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.plugins.javascript.bridge;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.URI;
+import java.net.UnixDomainSocketAddress;
+import java.net.http.HttpTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+class HttpTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void should_parse_response() throws Exception {
+    var response = Http.UnixDomainSocketHttp.parse(
+      stream("HTTP/1.1 200 OK\r\nContent-Type: text/plain\r\nContent-Length: 2\r\n\r\nOK")
+    );
+    assertThat(response.contentType()).isEqualTo("text/plain");
+    assertThat(new String(response.body().readAllBytes(), UTF_8)).isEqualTo("OK");
+  }
+
+  @Test
+  void should_parse_chunked_response() throws Exception {
+    var response = Http.UnixDomainSocketHttp.parse(
+      stream(
+        "HTTP/1.1 200 OK\r\nTransfer-Encoding: chunked\r\n\r\n3\r\nfoo\r\n4;ext\r\n-bar\r\n0\r\n\r\n"
+      )
+    );
+    assertThat(response.contentType()).isNull();
+    assertThat(new String(response.body().readAllBytes(), UTF_8)).isEqualTo("foo-bar");
+  }
+
+  @Test
+  void should_fail_on_malformed_response() {
+    assertThatThrownBy(() -> Http.UnixDomainSocketHttp.parse(stream("HTTP/1.1 200 OK")))
+      .isInstanceOf(IOException.class)
+      .hasMessage("Malformed HTTP response from the bridge server");
+    assertThatThrownBy(() ->
+      Http.UnixDomainSocketHttp.parse(
+        stream("HTTP/1.1 200 OK\r\nTransfer-Encoding: chunked\r\n\r\n9\r\nfoo")
+      )
+        .body()
+        .readAllBytes()
+    )
+      .isInstanceOf(IOException.class)
+      .hasMessage("Truncated chunked HTTP response from the bridge server");
+  }
+
+  @Test
+  @DisabledOnOs(OS.WINDOWS)
+  void should_post_over_unix_domain_socket() throws Exception {
+    var socketPath = tempDir.resolve("test.sock");
+    try (var server = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+      server.bind(UnixDomainSocketAddress.of(socketPath));
+      var received = CompletableFuture.supplyAsync(() -> {
+        try (var channel = server.accept()) {
+          var buffer = ByteBuffer.allocate(1024);
+          var request = new StringBuilder();
+          while (!request.toString().endsWith("{\"foo\":42}")) {
+            buffer.clear();
+            channel.read(buffer);
+            request.append(new String(buffer.array(), 0, buffer.position(), UTF_8));
+          }
+          channel.write(
+            ByteBuffer.wrap(
+              "HTTP/1.1 200 OK\r\nContent-Type: application/json\r\n\r\n{}".getBytes(UTF_8)
+            )
+          );
+          return request.toString();
+        } catch (IOException e) {
+          throw new IllegalStateException(e);
+        }
+      });
+
+      var http = Http.getUnixDomainSocketHttpClient(socketPath);
+      var uri = new URI("http://localhost/analyze-jsts?priority=interactive");
+      var response = http.post("{\"foo\":42}", uri, 5);
+
+      assertThat(response.contentType()).isEqualTo("application/json");
+      try (var body = response.body()) {
+        assertThat(new String(body.readAllBytes(), UTF_8)).isEqualTo("{}");
+      }
+      assertThat(received.get())
+        .startsWith("POST /analyze-jsts?priority=interactive HTTP/1.1\r\n")
+        .contains("Content-Length: 10\r\n", "Connection: close\r\n");
+    }
+  }
+
+  @Test
+  void should_compress_large_payloads() throws Exception {
+    var server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    var requestEncodings = new ArrayList<String>();
+    server.createContext("/analyze-jsts", exchange -> {
+      var gzipped = "gzip".equals(exchange.getRequestHeaders().getFirst("Content-Encoding"));
+      requestEncodings.add(gzipped ? "gzip" : "identity");
+      var body = gzipped
+        ? new GZIPInputStream(exchange.getRequestBody()).readAllBytes()
+        : exchange.getRequestBody().readAllBytes();
+      var compressed = new ByteArrayOutputStream();
+      try (var gzip = new GZIPOutputStream(compressed)) {
+        gzip.write(body);
+      }
+      exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+      exchange.sendResponseHeaders(200, compressed.size());
+      try (var responseBody = exchange.getResponseBody()) {
+        compressed.writeTo(responseBody);
+      }
+    });
+    server.start();
+    try {
+      var http = Http.getJdkHttpClient();
+      var uri = new URI("http://localhost:" + server.getAddress().getPort() + "/analyze-jsts");
+      var large = "{\"fileContent\":\"" + "x".repeat(Http.COMPRESSION_THRESHOLD) + "\"}";
+      for (var json : List.of("{}", large)) {
+        try (var body = http.post(json, uri, 5, true).body()) {
+          assertThat(new String(body.readAllBytes(), UTF_8)).isEqualTo(json);
+        }
+      }
+      assertThat(requestEncodings).containsExactly("identity", "gzip");
+    } finally {
+      server.stop(0);
+    }
+  }
+
+  @Test
+  @DisabledOnOs(OS.WINDOWS)
+  void should_stream_response_body() throws Exception {
+    var socketPath = tempDir.resolve("test.sock");
+    try (var server = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+      server.bind(UnixDomainSocketAddress.of(socketPath));
+      var bodyEnd = new CompletableFuture<Void>();
+      var served = CompletableFuture.runAsync(() -> {
+        try (var channel = server.accept()) {
+          channel.read(ByteBuffer.allocate(1024));
+          channel.write(
+            ByteBuffer.wrap(
+              "HTTP/1.1 200 OK\r\nTransfer-Encoding: chunked\r\n\r\n3\r\nfoo\r\n".getBytes(UTF_8)
+            )
+          );
+          bodyEnd.join();
+          channel.write(ByteBuffer.wrap("4\r\n-bar\r\n0\r\n\r\n".getBytes(UTF_8)));
+        } catch (IOException e) {
+          throw new IllegalStateException(e);
+        }
+      });
+
+      var http = Http.getUnixDomainSocketHttpClient(socketPath);
+      var response = http.post("{}", new URI("http://localhost/analyze-jsts"), 5);
+      try (var body = response.body()) {
+        assertThat(new String(body.readNBytes(3), UTF_8)).isEqualTo("foo");
+        bodyEnd.complete(null);
+        assertThat(new String(body.readAllBytes(), UTF_8)).isEqualTo("-bar");
+      }
+      served.get();
+    }
+  }
+
+  @Test
+  @DisabledOnOs(OS.WINDOWS)
+  void should_time_out_while_reading_response_body() throws Exception {
+    var socketPath = tempDir.resolve("test.sock");
+    try (var server = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+      server.bind(UnixDomainSocketAddress.of(socketPath));
+      var served = new CompletableFuture<Void>();
+      CompletableFuture.runAsync(() -> {
+        try (var channel = server.accept()) {
+          channel.read(ByteBuffer.allocate(1024));
+          channel.write(ByteBuffer.wrap("HTTP/1.1 200 OK\r\n\r\n{".getBytes(UTF_8)));
+          served.join();
+        } catch (IOException e) {
+          throw new IllegalStateException(e);
+        }
+      });
+
+      var http = Http.getUnixDomainSocketHttpClient(socketPath);
+      var response = http.post("{}", new URI("http://localhost/analyze-jsts"), 1);
+      try (var body = response.body()) {
+        assertThatThrownBy(body::readAllBytes)
+          .isInstanceOf(HttpTimeoutException.class)
+          .hasMessage("Request http://localhost/analyze-jsts timed out");
+      } finally {
+        served.complete(null);
+      }
+    }
+  }
+
+  @Test
+  void should_time_out_while_reading_response_body_over_tcp() throws Exception {
+    var server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    var served = new CompletableFuture<Void>();
+    server.createContext("/analyze-jsts", exchange -> {
+      exchange.getRequestBody().readAllBytes();
+      exchange.sendResponseHeaders(200, 0);
+      var responseBody = exchange.getResponseBody();
+      responseBody.write('{');
+      responseBody.flush();
+      served.join();
+      exchange.close();
+    });
+    server.start();
+    try {
+      var http = Http.getJdkHttpClient();
+      var uri = new URI("http://localhost:" + server.getAddress().getPort() + "/analyze-jsts");
+      try (var body = http.post("{}", uri, 1).body()) {
+        assertThatThrownBy(body::readAllBytes)
+          .isInstanceOf(HttpTimeoutException.class)
+          .hasMessage("Request " + uri + " timed out");
+      } finally {
+        served.complete(null);
+      }
+    } finally {
+      server.stop(0);
+    }
+  }
+
+  private static InputStream stream(String raw) {
+    return new ByteArrayInputStream(raw.getBytes(UTF_8));
+  }
+}
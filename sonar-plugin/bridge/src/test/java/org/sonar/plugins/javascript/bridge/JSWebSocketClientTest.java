@@ -0,0 +1,368 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2025 SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.plugins.javascript.bridge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.google.gson.JsonObject;
+import com.google.protobuf.ByteString;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.java_websocket.drafts.Draft_6455;
+import org.java_websocket.extensions.permessage_deflate.PerMessageDeflateExtension;
+import org.java_websocket.framing.PongFrame;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonar.api.batch.sensor.internal.SensorContextTester;
+import org.sonar.plugins.javascript.api.EslintHookData;
+import org.sonar.plugins.javascript.bridge.protobuf.FileResultProto;
+import org.sonar.plugins.javascript.bridge.protobuf.Node;
+import org.sonar.plugins.javascript.bridge.protobuf.NodeType;
+
+class JSWebSocketClientTest {
+
+  @TempDir
+  Path baseDir;
+
+  SensorContextTester ctx;
+  JSWebSocketClient client;
+  RecordingHandler handler;
+
+  @BeforeEach
+  void setUp() {
+    ctx = SensorContextTester.create(baseDir);
+    client = new JSWebSocketClient(URI.create("ws://localhost:1234/ws"));
+    handler = new RecordingHandler();
+    client.registerHandler(handler);
+  }
+
+  @Test
+  void should_decode_binary_file_result() {
+    var ast = Node.newBuilder().setType(NodeType.IdentifierType).build();
+    var fileResult = FileResultProto.FileResult.newBuilder()
+      .setFilename("/project/file.js")
+      .addIssues(
+        FileResultProto.Issue.newBuilder()
+          .setLine(1)
+          .setColumn(2)
+          .setEndLine(1)
+          .setEndColumn(5)
+          .setMessage("message")
+          .setRuleId("S1234")
+          .setLanguage("js")
+          .addSecondaryLocations(
+            FileResultProto.IssueLocation.newBuilder()
+              .setLine(2)
+              .setColumn(0)
+              .setEndLine(2)
+              .setEndColumn(3)
+          )
+          .setCost(1.5)
+          .addRuleEslintKeys("rule-key")
+          .setFilePath("/project/file.js")
+      )
+      .addIssues(FileResultProto.Issue.newBuilder().setLine(3).setRuleId("css-rule"))
+      .addAllHighlightLocations(List.of(1, 0, 1, 8, 2, 0, 2, 4))
+      .addHighlightTypes(FileResultProto.TextType.KEYWORD)
+      .addHighlightTypes(FileResultProto.TextType.STRING)
+      .addHighlightedSymbols(
+        FileResultProto.HighlightedSymbol.newBuilder()
+          .addAllDeclaration(List.of(1, 4, 1, 5))
+          .addAllReferences(List.of(2, 0, 2, 1, 3, 0, 3, 1))
+      )
+      .setMetrics(
+        FileResultProto.Metrics.newBuilder().addNcloc(1).addNcloc(2).setFunctions(3)
+      )
+      .addAllCpdTokenLocations(List.of(1, 0, 1, 3))
+      .addCpdTokenImages("var")
+      .setAst(ast.toByteString())
+      .build();
+
+    client.onMessage(ByteBuffer.wrap(fileResult.toByteArray()));
+
+    assertThat(handler.filePaths).containsExactly("/project/file.js");
+    var response = handler.responses.get(0);
+    assertThat(response.parsingError()).isNull();
+    assertThat(response.issues()).hasSize(2);
+    var issue = response.issues().get(0);
+    assertThat(issue.endColumn()).isEqualTo(5);
+    assertThat(issue.cost()).isEqualTo(1.5);
+    assertThat(issue.ruleESLintKeys()).containsExactly("rule-key");
+    assertThat(issue.secondaryLocations().get(0).message()).isNull();
+    var cssIssue = response.issues().get(1);
+    assertThat(cssIssue.endLine()).isNull();
+    assertThat(cssIssue.cost()).isNull();
+    assertThat(response.highlights())
+      .extracting(h -> h.location().toString(), BridgeServer.Highlight::textType)
+      .containsExactly(
+        tuple("1:0-1:8", "KEYWORD"),
+        tuple("2:0-2:4", "STRING")
+      );
+    var symbol = response.highlightedSymbols().get(0);
+    assertThat(symbol.declaration()).isEqualTo(new BridgeServer.Location(1, 4, 1, 5));
+    assertThat(symbol.references()).hasSize(2);
+    assertThat(response.metrics().ncloc()).containsExactly(1, 2);
+    assertThat(response.metrics().functions()).isEqualTo(3);
+    assertThat(response.cpdTokens()).containsExactly(
+      new BridgeServer.CpdToken(new BridgeServer.Location(1, 0, 1, 3), "var")
+    );
+    assertThat(response.ast()).isEqualTo(ast);
+  }
+
+  @Test
+  void should_decode_hook_data() {
+    var fileResult = FileResultProto.FileResult.newBuilder()
+      .setFilename("/project/file.js")
+      .addHookData(
+        FileResultProto.HookData.newBuilder()
+          .setName("hook")
+          .setType("hook.Data")
+          .setPayload(ByteString.copyFrom(new byte[] { 8, 1 }))
+      )
+      .build();
+
+    client.onMessage(ByteBuffer.wrap(fileResult.toByteArray()));
+
+    var hookData = handler.responses.get(0).hookData();
+    assertThat(hookData)
+      .extracting(EslintHookData::name, EslintHookData::type)
+      .containsExactly(tuple("hook", "hook.Data"));
+    assertThat(hookData.get(0).payload()).containsExactly(8, 1);
+  }
+
+  @Test
+  void should_decode_parsing_error() {
+    var fileResult = FileResultProto.FileResult.newBuilder()
+      .setFilename("/project/file.js")
+      .setParsingError(
+        FileResultProto.ParsingError.newBuilder()
+          .setMessage("Unexpected token")
+          .setLine(3)
+          .setCode("PARSING")
+      )
+      .build();
+
+    client.onMessage(ByteBuffer.wrap(fileResult.toByteArray()));
+
+    var response = handler.responses.get(0);
+    assertThat(response.parsingError()).isEqualTo(
+      new BridgeServer.ParsingError("Unexpected token", 3, BridgeServer.ParsingErrorCode.PARSING)
+    );
+    assertThat(response.ast()).isNull();
+    assertThat(response.highlights()).isEmpty();
+  }
+
+  @Test
+  void should_fail_handlers_on_invalid_binary_message() {
+    client.onMessage(ByteBuffer.wrap(ByteString.copyFromUtf8("not protobuf").toByteArray()));
+
+    assertThat(handler.responses).isEmpty();
+    assertThat(handler.getFuture()).isCompletedExceptionally();
+  }
+
+  @Test
+  void should_unpack_batched_file_results() {
+    client.onMessage(
+      "{messageType: 'fileResults', results: [" +
+        "{messageType: 'fileResult', filename: '/project/a.js'}," +
+        "{messageType: 'fileResult', filename: '/project/b.js'}]}"
+    );
+    client.onMessage("{messageType: 'meta', warnings: []}");
+
+    assertThat(handler.messages)
+      .extracting(message -> message.get("messageType").getAsString())
+      .containsExactly("fileResult", "fileResult", "meta");
+    assertThat(handler.messages.get(1).get("filename").getAsString()).isEqualTo("/project/b.js");
+  }
+
+  @Test
+  void should_fail_only_the_handler_failing_to_process_a_message() {
+    var failure = new IllegalStateException("boom");
+    RecordingHandler failing = new RecordingHandler() {
+      @Override
+      public void handleMessage(JsonObject message) {
+        throw failure;
+      }
+    };
+    client.registerHandler(failing);
+
+    client.onMessage("{messageType: 'fileResult', filename: '/project/a.js'}");
+
+    assertThat(failing.getFuture())
+      .failsWithin(Duration.ZERO)
+      .withThrowableThat()
+      .havingCause()
+      .isSameAs(failure);
+    assertThat(failing.errors).isEmpty();
+    assertThat(handler.getFuture()).isNotDone();
+    assertThat(handler.messages).hasSize(1);
+  }
+
+  @Test
+  void should_report_event_loop_lag_of_pongs() {
+    var lags = new ArrayList<Long>();
+    client.setPongListener(lags::add);
+
+    client.onWebsocketPong(client, pong("{\"eventLoopLag\":42}"));
+    client.onWebsocketPong(client, pong(""));
+    client.onWebsocketPong(client, pong("{"));
+
+    assertThat(lags).containsExactly(42L, -1L, -1L);
+  }
+
+  @Test
+  void should_route_responses_to_their_requests() {
+    var sent = new ArrayList<String>();
+    var recordingClient = recordingClient(sent);
+
+    var first = recordingClient.request("on-analyze-jsts", "{\"filePath\":\"/file.js\"}");
+    var second = recordingClient.request("on-analyze-css", "{}");
+    var third = recordingClient.request("on-init-linter", "{}");
+    assertThat(sent).containsExactly(
+      "{\"type\":\"on-analyze-jsts\",\"requestId\":1,\"data\":{\"filePath\":\"/file.js\"}}",
+      "{\"type\":\"on-analyze-css\",\"requestId\":2,\"data\":{}}",
+      "{\"type\":\"on-init-linter\",\"requestId\":3,\"data\":{}}"
+    );
+
+    recordingClient.onMessage("{messageType: 'response', requestId: 2, result: {issues: []}}");
+    recordingClient.onMessage("{messageType: 'response', requestId: 3, result: 'OK'}");
+    recordingClient.onMessage("{messageType: 'response', requestId: 1, error: {code: 'ERROR'}}");
+    recordingClient.onMessage("{messageType: 'response', requestId: 4, result: 'OK'}");
+
+    assertThat(first)
+      .failsWithin(Duration.ZERO)
+      .withThrowableThat()
+      .withMessageContaining("Received error from bridge: {\"code\":\"ERROR\"}");
+    assertThat(second).isCompletedWithValue("{\"issues\":[]}");
+    assertThat(third).isCompletedWithValue("OK");
+  }
+
+  @Test
+  void should_tag_requests_with_their_priority() {
+    var sent = new ArrayList<String>();
+    recordingClient(sent).request("on-analyze-jsts", "{}", "interactive");
+    assertThat(sent).containsExactly(
+      "{\"type\":\"on-analyze-jsts\",\"requestId\":1,\"priority\":\"interactive\",\"data\":{}}"
+    );
+  }
+
+  @Test
+  void should_offer_compression_when_enabled() {
+    var uri = URI.create("ws://localhost:1234/ws");
+    var compressed = (Draft_6455) new JSWebSocketClient(uri, null, true).getDraft();
+    assertThat(compressed.getKnownExtensions()).hasAtLeastOneElementOfType(
+      PerMessageDeflateExtension.class
+    );
+    var uncompressed = (Draft_6455) new JSWebSocketClient(uri).getDraft();
+    assertThat(uncompressed.getKnownExtensions()).doesNotHaveAnyElementsOfTypes(
+      PerMessageDeflateExtension.class
+    );
+  }
+
+  @Test
+  void should_fail_pending_requests_when_connection_closes() {
+    var recordingClient = recordingClient(new ArrayList<>());
+    var closed = recordingClient.request("on-analyze-jsts", "{}");
+    assertThat(closed).isNotDone();
+    recordingClient.onClose(1006, "Abnormal close event", true);
+    assertThat(closed).isCompletedExceptionally();
+
+    var notConnected = client.request("on-analyze-jsts", "{}");
+    assertThat(notConnected).isCompletedExceptionally();
+  }
+
+  @Test
+  void should_ask_once_to_cancel_the_analysis() {
+    var sent = new ArrayList<String>();
+    var recordingClient = recordingClient(sent);
+    recordingClient.registerHandler(handler);
+    ctx.setCancelled(true);
+
+    recordingClient.onMessage("{messageType: 'fileResult', filename: '/project/a.js'}");
+    recordingClient.onMessage("{messageType: 'fileResult', filename: '/project/b.js'}");
+    recordingClient.onMessage(
+      ByteBuffer.wrap(
+        FileResultProto.FileResult.newBuilder().setFilename("/project/c.js").build().toByteArray()
+      )
+    );
+
+    assertThat(sent).containsExactly("{\"type\":\"on-cancel-analysis\"}");
+  }
+
+  private static JSWebSocketClient recordingClient(List<String> sent) {
+    return new JSWebSocketClient(URI.create("ws://localhost:1234/ws")) {
+      @Override
+      public void send(String text) {
+        sent.add(text);
+      }
+    };
+  }
+
+  private static PongFrame pong(String payload) {
+    var frame = new PongFrame();
+    frame.setPayload(ByteBuffer.wrap(payload.getBytes(StandardCharsets.UTF_8)));
+    return frame;
+  }
+
+  private class RecordingHandler implements WebSocketMessageHandler<Void> {
+
+    private final CompletableFuture<Void> future = new CompletableFuture<>();
+    private final List<String> filePaths = new ArrayList<>();
+    private final List<BridgeServer.AnalysisResponse> responses = new ArrayList<>();
+    private final List<JsonObject> messages = new ArrayList<>();
+    private final List<Exception> errors = new ArrayList<>();
+
+    @Override
+    public Void getRequest() {
+      return null;
+    }
+
+    @Override
+    public SensorContextTester getContext() {
+      return ctx;
+    }
+
+    @Override
+    public CompletableFuture<Void> getFuture() {
+      return future;
+    }
+
+    @Override
+    public void handleMessage(JsonObject message) {
+      messages.add(message);
+    }
+
+    @Override
+    public void handleFileResult(String filePath, BridgeServer.AnalysisResponse response) {
+      filePaths.add(filePath);
+      responses.add(response);
+    }
+
+    @Override
+    public void onError(Exception exception) {
+      errors.add(exception);
+    }
+  }
+}
@@ -0,0 +1,169 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2025 SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.plugins.javascript.bridge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.event.Level;
+import org.sonar.api.SonarProduct;
+import org.sonar.api.config.internal.MapSettings;
+import org.sonar.api.testfixtures.log.LogTesterJUnit5;
+
+class NodeHeapSizingTest {
+
+  private static final long MB = 1024L * 1024L;
+
+  @RegisterExtension
+  LogTesterJUnit5 logTester = new LogTesterJUnit5().setLevel(Level.DEBUG);
+
+  @TempDir
+  Path cgroupRoot;
+
+  @Test
+  void should_read_cgroup_v2_limit() throws IOException {
+    Files.writeString(cgroupRoot.resolve("memory.max"), "8589934592\n");
+    assertThat(NodeHeapSizing.containerMemoryLimit(cgroupRoot)).hasValue(8192 * MB);
+  }
+
+  @Test
+  void should_read_cgroup_v1_limit() throws IOException {
+    Files.createDirectories(cgroupRoot.resolve("memory"));
+    Files.writeString(cgroupRoot.resolve("memory/memory.limit_in_bytes"), "4294967296\n");
+    assertThat(NodeHeapSizing.containerMemoryLimit(cgroupRoot)).hasValue(4096 * MB);
+  }
+
+  @Test
+  void should_ignore_unlimited_cgroups() throws IOException {
+    assertThat(NodeHeapSizing.containerMemoryLimit(cgroupRoot)).isEmpty();
+    Files.writeString(cgroupRoot.resolve("memory.max"), "max\n");
+    assertThat(NodeHeapSizing.containerMemoryLimit(cgroupRoot)).isEmpty();
+    Files.createDirectories(cgroupRoot.resolve("memory"));
+    Files.writeString(
+      cgroupRoot.resolve("memory/memory.limit_in_bytes"),
+      "9223372036854771712\n"
+    );
+    assertThat(NodeHeapSizing.containerMemoryLimit(cgroupRoot)).isEmpty();
+    assertThat(NodeHeapSizing.fromContainer(cgroupRoot, 1)).isEmpty();
+  }
+
+  @Test
+  void should_give_the_memory_left_by_the_jvm_to_node() {
+    var heapSize = NodeHeapSizing.compute(8192 * MB, 2048 * MB, 1);
+    assertThat(heapSize.maxOldSpaceSizeMb()).isEqualTo(4608);
+    assertThat(heapSize.maxSemiSpaceSizeMb()).isEqualTo(64);
+    assertThat(heapSize.isBelowMinimum()).isFalse();
+    assertThat(NodeHeapSizing.neededMb(10 * MB)).isEqualTo(2208);
+    assertThat(heapSize.isUnderPressure(10 * MB)).isFalse();
+  }
+
+  @Test
+  void should_not_exceed_the_memory_left_by_the_jvm() {
+    var heapSize = NodeHeapSizing.compute(3072 * MB, 2048 * MB, 1);
+    assertThat(heapSize.maxOldSpaceSizeMb()).isEqualTo(768);
+    assertThat(heapSize.maxSemiSpaceSizeMb()).isEqualTo(16);
+    assertThat(heapSize.isBelowMinimum()).isTrue();
+    assertThat(heapSize.isUnderPressure(0)).isTrue();
+    assertThat(NodeHeapSizing.compute(2048 * MB, 2048 * MB, 1).maxOldSpaceSizeMb()).isEqualTo(128);
+  }
+
+  @Test
+  void should_return_node_args_in_container() throws IOException {
+    var limit = Runtime.getRuntime().maxMemory() + 4096 * MB;
+    Files.writeString(cgroupRoot.resolve("memory.max"), Long.toString(limit));
+    var heapSize = NodeHeapSizing.fromContainer(cgroupRoot, 1).orElseThrow();
+    assertThat(heapSize.nodeJsArgs()).containsExactly(
+      "--max-old-space-size=3072",
+      "--max-semi-space-size=48"
+    );
+    assertThat(logTester.logs(Level.INFO)).contains(
+      "Configured Node.js --max-old-space-size=3072 for 1 process(es) from the container memory " +
+        "limit of " +
+        limit / MB +
+        " MB."
+    );
+    assertThat(logTester.logs(Level.WARN)).isEmpty();
+
+    NodeHeapSizing.checkPressure(heapSize, () -> 1000 * MB);
+    assertThat(logTester.logs(Level.WARN)).anyMatch(log ->
+      log.startsWith("The Node.js heap (3072 MB) may be too small for this project")
+    );
+  }
+
+  @Test
+  void should_share_the_memory_left_by_the_jvm_between_processes() throws IOException {
+    var limit = Runtime.getRuntime().maxMemory() + 8192 * MB;
+    Files.writeString(cgroupRoot.resolve("memory.max"), Long.toString(limit));
+    assertThat(NodeHeapSizing.containerBudgetMb(cgroupRoot)).hasValue(6144);
+
+    var heapSize = NodeHeapSizing.fromContainer(cgroupRoot, 3).orElseThrow();
+    assertThat(heapSize.nodeJsArgs()).containsExactly(
+      "--max-old-space-size=2048",
+      "--max-semi-space-size=32"
+    );
+    assertThat(logTester.logs(Level.INFO)).contains(
+      "Configured Node.js --max-old-space-size=2048 for 3 process(es) from the container memory " +
+        "limit of " +
+        limit / MB +
+        " MB."
+    );
+
+    var settings = new MapSettings().setProperty(BridgeServerPool.PROCESSES_PROPERTY, "auto");
+    var serverConfig = new BridgeServerConfig(
+      settings.asConfig(),
+      cgroupRoot.toString(),
+      SonarProduct.SONARQUBE
+    );
+    var processes = BridgeServerPool.poolSize(serverConfig, cgroupRoot);
+    assertThat(processes).isBetween(1, 3);
+    assertThat(
+      NodeHeapSizing.compute(limit, Runtime.getRuntime().maxMemory(), processes).maxOldSpaceSizeMb()
+    ).isGreaterThanOrEqualTo(2048);
+
+    Files.writeString(
+      cgroupRoot.resolve("memory.max"),
+      Long.toString(Runtime.getRuntime().maxMemory() + 2048 * MB)
+    );
+    assertThat(BridgeServerPool.poolSize(serverConfig, cgroupRoot)).isEqualTo(1);
+  }
+
+  @Test
+  void should_warn_when_the_memory_left_by_the_jvm_is_below_the_minimum() throws IOException {
+    var limit = Runtime.getRuntime().maxMemory() + 1024 * MB;
+    Files.writeString(cgroupRoot.resolve("memory.max"), Long.toString(limit));
+    var heapSize = NodeHeapSizing.fromContainer(cgroupRoot, 1).orElseThrow();
+    assertThat(heapSize.nodeJsArgs()).containsExactly(
+      "--max-old-space-size=768",
+      "--max-semi-space-size=16"
+    );
+    assertThat(logTester.logs(Level.WARN)).containsExactly(
+      "The memory left by the JVM in the container only allows a Node.js heap of 768 MB, " +
+        "below the minimum of 1024 MB. Consider increasing the memory limit of the container " +
+        "or decreasing the JVM heap (" +
+        Runtime.getRuntime().maxMemory() / MB +
+        " MB)."
+    );
+
+    NodeHeapSizing.checkPressure(heapSize, () -> 1000 * MB);
+    assertThat(logTester.logs(Level.WARN)).hasSize(1);
+  }
+}
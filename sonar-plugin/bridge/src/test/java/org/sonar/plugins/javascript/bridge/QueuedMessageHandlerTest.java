@@ -0,0 +1,185 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2025 SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.plugins.javascript.bridge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonar.api.batch.sensor.internal.SensorContextTester;
+
+class QueuedMessageHandlerTest {
+
+  @TempDir
+  Path baseDir;
+
+  SensorContextTester ctx;
+  RecordingHandler delegate;
+  List<Boolean> backpressure;
+
+  @BeforeEach
+  void setUp() {
+    ctx = SensorContextTester.create(baseDir);
+    delegate = new RecordingHandler();
+    backpressure = new CopyOnWriteArrayList<>();
+  }
+
+  @Test
+  void should_process_all_file_results_before_meta() {
+    var handler = new QueuedMessageHandler<>(delegate, 4, 10, backpressure::add);
+    for (int i = 0; i < 50; i++) {
+      handler.handleMessage(fileResult("file" + i + ".js"));
+    }
+    handler.handleFileResult("binary.js", new BridgeServer.AnalysisResponse());
+    handler.handleMessage(JsonParser.parseString("{\"messageType\":\"meta\"}").getAsJsonObject());
+
+    await().atMost(5, TimeUnit.SECONDS).until(() -> delegate.getFuture().isDone());
+    assertThat(delegate.getFuture()).isCompleted();
+    assertThat(delegate.filePaths).hasSize(51).contains("file0.js", "file49.js", "binary.js");
+  }
+
+  @Test
+  void should_signal_backpressure_without_blocking_the_reading_thread() {
+    var release = new CountDownLatch(1);
+    delegate.blocker = release;
+    var handler = new QueuedMessageHandler<>(delegate, 1, 2, backpressure::add);
+
+    for (int i = 0; i < 5; i++) {
+      handler.handleMessage(fileResult("file" + i + ".js"));
+    }
+    var crash = JsonParser.parseString(
+      "{\"messageType\":\"crash\",\"filename\":\"file5.js\"}"
+    ).getAsJsonObject();
+    handler.handleMessage(crash);
+    var meta = JsonParser.parseString("{\"messageType\":\"meta\"}").getAsJsonObject();
+    handler.handleMessage(meta);
+
+    assertThat(backpressure).containsExactly(true);
+    assertThat(delegate.messages).containsExactly(crash);
+    assertThat(delegate.getFuture()).isNotDone();
+
+    release.countDown();
+    await().atMost(5, TimeUnit.SECONDS).until(() -> delegate.getFuture().isDone());
+    assertThat(delegate.filePaths).hasSize(5);
+    assertThat(delegate.messages).containsExactly(crash, meta);
+    assertThat(backpressure).containsExactly(true, false);
+  }
+
+  @Test
+  void should_report_processing_failures() {
+    delegate.failure = new IllegalStateException("boom");
+    var handler = new QueuedMessageHandler<>(delegate, 1, 10, backpressure::add);
+
+    handler.handleMessage(fileResult("file.js"));
+
+    await().atMost(5, TimeUnit.SECONDS).until(() -> delegate.getFuture().isDone());
+    assertThat(delegate.getFuture())
+      .failsWithin(Duration.ZERO)
+      .withThrowableThat()
+      .havingCause()
+      .isSameAs(delegate.failure);
+    // not a failure of the bridge
+    assertThat(delegate.errors).isEmpty();
+  }
+
+  @Test
+  void should_forward_failed_file_results_to_delegate() {
+    var handler = new QueuedMessageHandler<>(delegate, 2, 10, backpressure::add);
+    var failed = fileResult("failed.js");
+    failed.addProperty("error", "Unexpected failure");
+
+    handler.handleMessage(fileResult("file.js"));
+    handler.handleMessage(failed);
+    handler.handleMessage(JsonParser.parseString("{\"messageType\":\"meta\"}").getAsJsonObject());
+
+    await().atMost(5, TimeUnit.SECONDS).until(() -> delegate.getFuture().isDone());
+    assertThat(delegate.filePaths).containsExactly("file.js");
+    assertThat(delegate.messages).hasSize(2).startsWith(failed);
+  }
+
+  private static JsonObject fileResult(String filename) {
+    var json = new JsonObject();
+    json.addProperty("messageType", "fileResult");
+    json.addProperty("filename", filename);
+    return json;
+  }
+
+  private class RecordingHandler implements WebSocketMessageHandler<Void> {
+
+    private final CompletableFuture<Void> future = new CompletableFuture<>();
+    private final List<String> filePaths = new CopyOnWriteArrayList<>();
+    private final List<JsonObject> messages = new CopyOnWriteArrayList<>();
+    private CountDownLatch blocker;
+    private RuntimeException failure;
+    private final List<Exception> errors = new CopyOnWriteArrayList<>();
+
+    @Override
+    public Void getRequest() {
+      return null;
+    }
+
+    @Override
+    public SensorContextTester getContext() {
+      return ctx;
+    }
+
+    @Override
+    public CompletableFuture<Void> getFuture() {
+      return future;
+    }
+
+    @Override
+    public void handleMessage(JsonObject message) {
+      messages.add(message);
+      if ("meta".equals(message.get("messageType").getAsString())) {
+        future.complete(null);
+      }
+    }
+
+    @Override
+    public void handleFileResult(String filePath, BridgeServer.AnalysisResponse response) {
+      if (failure != null) {
+        throw failure;
+      }
+      if (blocker != null) {
+        try {
+          blocker.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      filePaths.add(filePath);
+    }
+
+    @Override
+    public void onError(Exception exception) {
+      errors.add(exception);
+      future.completeExceptionally(exception);
+    }
+  }
+}
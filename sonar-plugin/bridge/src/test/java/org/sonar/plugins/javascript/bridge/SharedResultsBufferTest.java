@@ -0,0 +1,88 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2025 SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.plugins.javascript.bridge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.sonar.plugins.javascript.bridge.SharedResultsBuffer.HEADER_SIZE;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonar.plugins.javascript.bridge.protobuf.FileResultProto;
+
+class SharedResultsBufferTest {
+
+  private static final int CAPACITY = 64;
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void should_read_results_written_by_the_bridge() throws Exception {
+    try (var buffer = SharedResultsBuffer.create(tempDir, HEADER_SIZE + CAPACITY).orElseThrow()) {
+      var descriptor = buffer.descriptor();
+      assertThat(descriptor.size()).isEqualTo(HEADER_SIZE + CAPACITY);
+      var path = Path.of(descriptor.path());
+      assertThat(path).exists().hasParent(tempDir);
+
+      var first = fileResult("/project/first.js");
+      write(path, 0, first);
+      assertThat(buffer.read(0, first.length).getFilename()).isEqualTo("/project/first.js");
+      assertThat(readPosition(path)).isEqualTo(first.length);
+
+      // the second result wraps around the end of the buffer
+      var second = fileResult("/project/second.js");
+      var position = 2L * CAPACITY - 5;
+      write(path, position, second);
+      assertThat(buffer.read(position, second.length).getFilename()).isEqualTo(
+        "/project/second.js"
+      );
+      assertThat(readPosition(path)).isEqualTo(position + second.length);
+    }
+    assertThat(tempDir).isEmptyDirectory();
+  }
+
+  @Test
+  void should_not_create_buffer_without_shared_memory() {
+    assertThat(SharedResultsBuffer.create(tempDir.resolve("missing"), 1024)).isEmpty();
+  }
+
+  private static byte[] fileResult(String filename) {
+    return FileResultProto.FileResult.newBuilder().setFilename(filename).build().toByteArray();
+  }
+
+  private static void write(Path path, long position, byte[] bytes) throws IOException {
+    try (var channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+      for (var i = 0; i < bytes.length; i++) {
+        channel.write(ByteBuffer.wrap(bytes, i, 1), HEADER_SIZE + (position + i) % CAPACITY);
+      }
+    }
+  }
+
+  private static long readPosition(Path path) throws IOException {
+    try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      var header = ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+      channel.read(header, 0);
+      return header.getLong(0);
+    }
+  }
+}
@@ -57,6 +57,9 @@ class WebSocketMessageHandlerTest {
       @Override
       public void handleMessage(JsonObject message) {}
 
+      @Override
+      public void handleFileResult(String filePath, BridgeServer.AnalysisResponse response) {}
+
       @Override
       public SensorContextTester getContext() {
         return ctx;
@@ -87,6 +90,9 @@ class WebSocketMessageHandlerTest {
       @Override
       public void handleMessage(JsonObject message) {}
 
+      @Override
+      public void handleFileResult(String filePath, BridgeServer.AnalysisResponse response) {}
+
       @Override
       public void onClose(int code, String reason, boolean remote) {
         log.append("Closed: ").append(code).append(" - ").append(reason);
@@ -123,6 +129,9 @@ class WebSocketMessageHandlerTest {
       @Override
       public void handleMessage(JsonObject message) {}
 
+      @Override
+      public void handleFileResult(String filePath, BridgeServer.AnalysisResponse response) {}
+
       @Override
       public void onError(Exception exception) {
         log.append("Error: ").append(exception.getMessage());
@@ -4,10 +4,13 @@ const fs = require('node:fs');
 const http = require('node:http');
 const port = process.argv[2];
 const host = process.argv[3];
+const socketPath = process.argv[6];
 
 console.log(`debugMemory: ${process.argv[4]}`);
 console.log(`nodeTimeout: ${process.argv[5]}`);
 
+const linterFingerprints = new Set();
+
 const requestHandler = (request, response) => {
   let data = '';
   request.on('upgrade', (request, socket) => {
@@ -23,7 +26,13 @@ const requestHandler = (request, response) => {
     } else if (request.url === '/tsconfig-files') {
       response.end("{files: ['abs/path/file1', 'abs/path/file2', 'abs/path/file3']}");
     } else if (request.url === '/init-linter') {
-      response.end('OK');
+      const { baseDir, fingerprint } = JSON.parse(data);
+      if (baseDir === undefined && !linterFingerprints.has(fingerprint)) {
+        response.end('UNKNOWN_FINGERPRINT');
+      } else {
+        linterFingerprints.add(fingerprint);
+        response.end('OK');
+      }
     } else if (request.url === '/load-rule-bundles') {
       response.end('OK');
     } else if (request.url === '/close') {
@@ -114,13 +123,29 @@ function getFakeAnalysisResponse(skipAst) {
 const server = http.createServer(requestHandler);
 server.keepAliveTimeout = 100; // this is used so server disconnects faster
 
-server.listen(port, host, err => {
-  if (err) {
-    return console.log('something bad happened', err);
-  }
+const announceReadiness = () =>
+  console.log(
+    `SONARJS_BRIDGE_READY ${JSON.stringify({
+      port: socketPath ? 0 : server.address().port,
+      capabilities: ['websocket'],
+    })}`,
+  );
 
-  console.log(`server is listening on ${host} ${port}`);
-});
+if (socketPath) {
+  server.listen(socketPath, () => {
+    console.log(`server is listening on socket ${socketPath}`);
+    announceReadiness();
+  });
+} else {
+  server.listen(port, host, err => {
+    if (err) {
+      return console.log('something bad happened', err);
+    }
+
+    console.log(`server is listening on ${host} ${port}`);
+    announceReadiness();
+  });
+}
 
 process.on('exit', () => {
   console.log(`
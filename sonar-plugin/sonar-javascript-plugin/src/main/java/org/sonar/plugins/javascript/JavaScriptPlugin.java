@@ -36,7 +36,7 @@ import org.sonar.plugins.javascript.analysis.JsTsExclusionsFilter;
 import org.sonar.plugins.javascript.analysis.JsTsSensor;
 import org.sonar.plugins.javascript.analysis.YamlSensor;
 import org.sonar.plugins.javascript.bridge.AnalysisWarningsWrapper;
-import org.sonar.plugins.javascript.bridge.BridgeServerImpl;
+import org.sonar.plugins.javascript.bridge.BridgeServerPool;
 import org.sonar.plugins.javascript.bridge.BundleImpl;
 import org.sonar.plugins.javascript.bridge.EmbeddedNode;
 import org.sonar.plugins.javascript.bridge.Environment;
@@ -148,7 +148,7 @@ public class JavaScriptPlugin implements Plugin {
       JsTsExclusionsFilter.class,
       NodeCommandBuilderImpl.class,
       ProcessWrapperImpl.class,
-      BridgeServerImpl.class,
+      BridgeServerPool.class,
       NodeDeprecationWarning.class,
       BundleImpl.class,
       JsTsSensor.class,
@@ -19,8 +19,10 @@ package org.sonar.plugins.javascript.analysis;
 import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.sensor.SensorContext;
 import org.sonar.api.scanner.ScannerSide;
+import org.sonar.plugins.javascript.api.EslintHookData;
 import org.sonar.plugins.javascript.api.JsAnalysisConsumer;
 import org.sonar.plugins.javascript.api.JsFile;
 import org.sonarsource.api.sonarlint.SonarLintSide;
@@ -49,6 +51,11 @@ public class AnalysisConsumers implements JsAnalysisConsumer {
     consumers.forEach(c -> c.accept(jsFile));
   }
 
+  @Override
+  public void accept(InputFile inputFile, EslintHookData data) {
+    consumers.forEach(c -> c.accept(inputFile, data));
+  }
+
   @Override
   public void doneAnalysis(SensorContext context) {
     consumers.forEach(c -> c.doneAnalysis(context));
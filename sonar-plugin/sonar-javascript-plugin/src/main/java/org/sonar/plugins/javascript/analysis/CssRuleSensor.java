@@ -16,15 +16,20 @@
  */
 package org.sonar.plugins.javascript.analysis;
 
-import java.io.File;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
 import java.io.IOException;
 import java.net.URI;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.StreamSupport;
+import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sonar.api.SonarProduct;
@@ -42,15 +47,17 @@ import org.sonar.api.utils.Version;
 import org.sonar.css.CssLanguage;
 import org.sonar.css.CssRules;
 import org.sonar.plugins.javascript.CancellationException;
+import org.sonar.plugins.javascript.bridge.BridgeJson;
 import org.sonar.plugins.javascript.bridge.BridgeServer;
-import org.sonar.plugins.javascript.bridge.BridgeServer.CssAnalysisRequest;
 import org.sonar.plugins.javascript.bridge.BridgeServer.Issue;
-import org.sonar.plugins.javascript.bridge.StylelintRule;
+import org.sonar.plugins.javascript.bridge.BridgeServer.ProjectAnalysisRequest;
+import org.sonar.plugins.javascript.bridge.WebSocketMessageHandler;
 import org.sonar.plugins.javascript.utils.ProgressReport;
 
 public class CssRuleSensor extends AbstractBridgeSensor {
 
   private static final Logger LOG = LoggerFactory.getLogger(CssRuleSensor.class);
+  private static final Gson GSON = BridgeJson.GSON;
 
   private final SonarRuntime sonarRuntime;
   private final CssRules cssRules;
@@ -101,21 +108,18 @@ public class CssRuleSensor extends AbstractBridgeSensor {
       TimeUnit.SECONDS.toMillis(10)
     );
     boolean success = false;
-    List<StylelintRule> rules = cssRules.getStylelintRules();
 
     try {
       progressReport.start(inputFiles.size(), inputFiles.iterator().next().toString());
-      for (InputFile inputFile : inputFiles) {
-        if (context.getSensorContext().isCancelled()) {
-          throw new CancellationException(
-            "Analysis interrupted because the SensorContext is in cancelled state"
-          );
-        }
-        analyzeFile(inputFile, context, rules);
-
-        progressReport.nextFile(inputFile.toString());
-      }
+      bridgeServer.analyzeCssProject(
+        new AnalyzeCssProjectHandler(context, inputFiles, progressReport)
+      );
       success = true;
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof CancellationException nestedException) {
+        throw nestedException;
+      }
+      throw e;
     } finally {
       if (success) {
         progressReport.stop();
@@ -125,34 +129,135 @@ public class CssRuleSensor extends AbstractBridgeSensor {
     }
   }
 
-  List<Issue> analyzeFile(InputFile inputFile, JsTsContext<?> context, List<StylelintRule> rules) {
-    List<Issue> issues;
+  /**
+   * Returns the file to send to the bridge for the given input file, or null when it cannot be
+   * analyzed.
+   */
+  @Nullable
+  BridgeServer.JsTsFile requestFile(InputFile inputFile, JsTsContext<?> context)
+    throws IOException {
+    URI uri = inputFile.uri();
+    if (!"file".equalsIgnoreCase(uri.getScheme())) {
+      LOG.debug("Skipping {} as it has not 'file' scheme", uri);
+      return null;
+    }
+    LOG.debug("Analyzing file: {}", uri);
+    return new BridgeServer.JsTsFile(
+      inputFile.absolutePath(),
+      inputFile.type().toString(),
+      inputFile.status(),
+      context.shouldSendFileContent(inputFile) ? inputFile.contents() : null
+    );
+  }
+
+  /**
+   * Streams the stylesheets to the bridge, which sets the stylelint rules up once for the whole
+   * analysis, and saves the issues of each file as soon as its result is received.
+   */
+  class AnalyzeCssProjectHandler implements WebSocketMessageHandler<ProjectAnalysisRequest> {
 
-    try {
-      URI uri = inputFile.uri();
-      if (!"file".equalsIgnoreCase(uri.getScheme())) {
-        LOG.debug("Skipping {} as it has not 'file' scheme", uri);
-        return new ArrayList<>();
-      }
-      LOG.debug("Analyzing file: {}", uri);
-      String fileContent = context.shouldSendFileContent(inputFile) ? inputFile.contents() : null;
-      CssAnalysisRequest request = new CssAnalysisRequest(
-        new File(uri).getAbsolutePath(),
-        fileContent,
-        rules,
-        configuration
-      );
-      var analysisResponse = bridgeServer.analyzeCss(request);
+    private final JsTsContext<?> context;
+    private final List<InputFile> inputFiles;
+    private final ProgressReport progressReport;
+    private final Map<String, InputFile> fileToInputFile = new ConcurrentHashMap<>();
+    private final CompletableFuture<Void> handle = new CompletableFuture<>();
+
+    AnalyzeCssProjectHandler(
+      JsTsContext<?> context,
+      List<InputFile> inputFiles,
+      ProgressReport progressReport
+    ) {
+      this.context = context;
+      this.inputFiles = inputFiles;
+      this.progressReport = progressReport;
+    }
+
+    @Override
+    public ProjectAnalysisRequest getRequest() {
+      var files = inputFiles
+        .stream()
+        .takeWhile(inputFile -> !handle.isDone())
+        .<BridgeServer.JsTsFile>mapMulti((inputFile, downstream) -> {
+          try {
+            var file = requestFile(inputFile, context);
+            if (file == null) {
+              progressReport.nextFile(inputFile.toString());
+            } else {
+              fileToInputFile.put(file.filePath(), inputFile);
+              downstream.accept(file);
+            }
+          } catch (IOException e) {
+            handle.completeExceptionally(
+              new IllegalStateException("Failure during analysis of " + inputFile.uri(), e)
+            );
+          }
+        });
+      var request = new ProjectAnalysisRequest(files, List.of(), configuration);
+      request.setCssRules(cssRules.getStylelintRules());
+      return request;
+    }
+
+    @Override
+    public SensorContext getContext() {
+      return context.getSensorContext();
+    }
+
+    @Override
+    public CompletableFuture<Void> getFuture() {
+      return handle;
+    }
 
-      issues = analysisResponse.issues();
+    @Override
+    public void handleMessage(JsonObject jsonObject) {
+      var messageType = jsonObject.get("messageType").getAsString();
+      if ("fileResult".equals(messageType)) {
+        var filePath = jsonObject.get("filename").getAsString();
+        if (jsonObject.has("error")) {
+          handle.completeExceptionally(
+            new IllegalStateException(
+              "Failure during analysis of " + fileToInputFile.get(filePath).uri() + ": " +
+              jsonObject.get("error").getAsString()
+            )
+          );
+          return;
+        }
+        handleFileResult(
+          filePath,
+          BridgeServer.AnalysisResponse.fromDTO(
+            GSON.fromJson(jsonObject, BridgeServer.AnalysisResponseDTO.class)
+          )
+        );
+      } else if ("meta".equals(messageType)) {
+        handle.complete(null);
+      } else if ("cancelled".equals(messageType)) {
+        handle.completeExceptionally(
+          new CancellationException(
+            "Analysis interrupted because the SensorContext is in cancelled state"
+          )
+        );
+      }
+    }
 
+    @Override
+    public void handleFileResult(String filePath, BridgeServer.AnalysisResponse response) {
+      var inputFile = fileToInputFile.get(filePath);
+      var issues = response.issues();
       LOG.debug("Found {} issue(s)", issues.size());
       saveIssues(context, inputFile, issues);
-    } catch (IOException | RuntimeException e) {
-      throw new IllegalStateException("Failure during analysis of " + inputFile.uri(), e);
+      progressReport.nextFile(inputFile.toString());
     }
 
-    return issues;
+    @Override
+    public void onClose(int code, String reason, boolean remote) {
+      handle.completeExceptionally(
+        new IllegalStateException("WebSocket connection closed abnormally: " + reason)
+      );
+    }
+
+    @Override
+    public void onError(Exception ex) {
+      handle.completeExceptionally(new IllegalStateException("WebSocket connection error", ex));
+    }
   }
 
   private void saveIssues(JsTsContext<?> context, InputFile inputFile, List<Issue> issues) {
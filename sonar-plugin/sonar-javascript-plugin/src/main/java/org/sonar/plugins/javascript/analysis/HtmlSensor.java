@@ -31,7 +31,9 @@ import org.sonar.plugins.javascript.analysis.cache.CacheAnalysis;
 import org.sonar.plugins.javascript.analysis.cache.CacheStrategies;
 import org.sonar.plugins.javascript.analysis.cache.CacheStrategy;
 import org.sonar.plugins.javascript.bridge.BridgeServer;
+import org.sonar.plugins.javascript.bridge.BridgeServer.AnalysisResponse;
 import org.sonar.plugins.javascript.bridge.BridgeServer.JsAnalysisRequest;
+import org.sonar.plugins.javascript.bridge.CancellationWatcher;
 import org.sonar.plugins.javascript.utils.ProgressReport;
 
 public class HtmlSensor extends AbstractBridgeSensor {
@@ -72,17 +74,23 @@ public class HtmlSensor extends AbstractBridgeSensor {
         context.getSensorContext().fileSystem().baseDir().getAbsolutePath(),
         context.isSonarLint()
       );
-      for (var inputFile : inputFiles) {
-        if (context.getSensorContext().isCancelled()) {
-          throw new CancellationException(
-            "Analysis interrupted because the SensorContext is in cancelled state"
-          );
-        }
-        progressReport.nextFile(inputFile.toString());
-        var cacheStrategy = CacheStrategies.getStrategyFor(context, inputFile);
-        if (cacheStrategy.isAnalysisRequired()) {
-          analyze(inputFile, cacheStrategy);
+      try (
+        var requests = new PipelinedRequests<AnalysisResponse>(context.getSensorContext().config());
+        var watcher = CancellationWatcher.watch(context.getSensorContext(), requests::cancel)
+      ) {
+        for (var inputFile : inputFiles) {
+          if (context.getSensorContext().isCancelled()) {
+            throw new CancellationException(
+              "Analysis interrupted because the SensorContext is in cancelled state"
+            );
+          }
+          progressReport.nextFile(inputFile.toString());
+          var cacheStrategy = CacheStrategies.getStrategyFor(context, inputFile);
+          if (cacheStrategy.isAnalysisRequired()) {
+            analyze(inputFile, cacheStrategy, requests);
+          }
         }
+        requests.awaitAll();
       }
       success = true;
     } finally {
@@ -111,39 +119,44 @@ public class HtmlSensor extends AbstractBridgeSensor {
     return StreamSupport.stream(inputFiles.spliterator(), false).toList();
   }
 
-  private List<BridgeServer.Issue> analyze(InputFile file, CacheStrategy cacheStrategy)
-    throws IOException {
-    List<BridgeServer.Issue> issues;
-
-    try {
-      LOG.debug("Analyzing file: {}", file.uri());
-      var fileContent = context.shouldSendFileContent(file) ? file.contents() : null;
-      var jsAnalysisRequest = new JsAnalysisRequest(
-        file.absolutePath(),
-        file.type().toString(),
-        fileContent,
-        context.ignoreHeaderComments(),
-        null,
-        null,
-        file.status(),
-        context.getAnalysisMode(),
-        false,
-        false,
-        context.isSonarLint(),
-        context.allowTsParserJsFiles(),
-        configuration
-      );
-      var response = bridgeServer.analyzeHtml(jsAnalysisRequest);
-      issues = analysisProcessor.processResponse(context, checks, file, response);
-      cacheStrategy.writeAnalysisToCache(
-        CacheAnalysis.fromResponse(response.cpdTokens(), response.ast()),
-        file
-      );
-    } catch (IOException e) {
-      LOG.error("Failed to get response while analyzing " + file.uri(), e);
-      throw e;
-    }
-
-    return issues;
+  private void analyze(
+    InputFile file,
+    CacheStrategy cacheStrategy,
+    PipelinedRequests<AnalysisResponse> requests
+  ) throws IOException {
+    LOG.debug("Analyzing file: {}", file.uri());
+    var fileContent = context.shouldSendFileContent(file) ? file.contents() : null;
+    var jsAnalysisRequest = new JsAnalysisRequest(
+      file.absolutePath(),
+      file.type().toString(),
+      fileContent,
+      context.ignoreHeaderComments(),
+      null,
+      null,
+      file.status(),
+      context.getAnalysisMode(),
+      false,
+      false,
+      context.isSonarLint(),
+      context.allowTsParserJsFiles(),
+      configuration
+    );
+    requests.submit(
+      () -> {
+        try {
+          return bridgeServer.analyzeHtml(jsAnalysisRequest);
+        } catch (IOException e) {
+          LOG.error("Failed to get response while analyzing " + file.uri(), e);
+          throw e;
+        }
+      },
+      response -> {
+        analysisProcessor.processResponse(context, checks, file, response);
+        cacheStrategy.writeAnalysisToCache(
+          CacheAnalysis.fromResponse(response.cpdTokens(), response.ast()),
+          file
+        );
+      }
+    );
   }
 }
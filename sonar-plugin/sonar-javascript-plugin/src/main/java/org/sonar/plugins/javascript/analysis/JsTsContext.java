@@ -46,6 +46,31 @@ public class JsTsContext<T extends SensorContext> implements AnalysisConfigurati
 
   private static final String ALLOW_TS_PARSER_JS_FILES = "sonar.javascript.allowTsParserJsFiles";
 
+  /**
+   * Internal property to receive project analysis file results as binary Protobuf frames
+   * instead of JSON messages.
+   */
+  static final String BINARY_RESULTS_PROPERTY = "sonar.javascript.bridge.binaryResults";
+
+  /**
+   * Internal property to receive the small file results of project analyses in batches, enabled
+   * by default.
+   */
+  static final String BATCH_RESULTS_PROPERTY = "sonar.javascript.bridge.batchResults";
+
+  /**
+   * Internal property to restart the bridge server after it analyzed this number of files of a
+   * project analysis, which then goes on with the remaining files. Disabled by default.
+   */
+  static final String RECYCLE_AFTER_FILES_PROPERTY = "sonar.javascript.bridge.recycleAfterFiles";
+
+  /**
+   * Internal property to restart the bridge server once its heap usage reaches this percentage of
+   * the heap size limit during a project analysis, which then goes on with the remaining files.
+   * Disabled by default.
+   */
+  static final String RECYCLE_HEAP_PERCENT_PROPERTY = "sonar.javascript.bridge.recycleHeapPercent";
+
   private static final Logger LOG = LoggerFactory.getLogger(JsTsContext.class);
 
   private final T context;
@@ -85,6 +110,22 @@ public class JsTsContext<T extends SensorContext> implements AnalysisConfigurati
     return context.config().getBoolean(ALLOW_TS_PARSER_JS_FILES).orElse(true);
   }
 
+  public boolean useBinaryResults() {
+    return context.config().getBoolean(BINARY_RESULTS_PROPERTY).orElse(false);
+  }
+
+  public boolean useBatchedResults() {
+    return context.config().getBoolean(BATCH_RESULTS_PROPERTY).orElse(true);
+  }
+
+  public int getRecycleAfterFiles() {
+    return context.config().getInt(RECYCLE_AFTER_FILES_PROPERTY).orElse(0);
+  }
+
+  public int getRecycleHeapPercent() {
+    return context.config().getInt(RECYCLE_HEAP_PERCENT_PROPERTY).orElse(0);
+  }
+
   public AnalysisMode getAnalysisMode() {
     var canSkipUnchangedFiles = context.canSkipUnchangedFiles();
     if (!canSkipUnchangedFiles) {
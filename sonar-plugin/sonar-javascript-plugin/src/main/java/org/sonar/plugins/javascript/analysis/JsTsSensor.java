@@ -19,11 +19,12 @@ package org.sonar.plugins.javascript.analysis;
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 import java.io.IOException;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.StreamSupport;
 import javax.annotation.Nullable;
 import org.slf4j.Logger;
@@ -44,8 +45,10 @@ import org.sonar.plugins.javascript.analysis.cache.CacheStrategy;
 import org.sonar.plugins.javascript.api.JsFile;
 import org.sonar.plugins.javascript.api.estree.ESTree;
 import org.sonar.plugins.javascript.bridge.AnalysisWarningsWrapper;
+import org.sonar.plugins.javascript.bridge.BridgeJson;
 import org.sonar.plugins.javascript.bridge.BridgeServer;
 import org.sonar.plugins.javascript.bridge.BridgeServer.ProjectAnalysisRequest;
+import org.sonar.plugins.javascript.bridge.BridgeServerConfig;
 import org.sonar.plugins.javascript.bridge.ESTreeFactory;
 import org.sonar.plugins.javascript.bridge.WebSocketMessageHandler;
 import org.sonar.plugins.javascript.bridge.protobuf.Node;
@@ -58,7 +61,9 @@ import org.sonar.plugins.javascript.sonarlint.FSListener;
 public class JsTsSensor extends AbstractBridgeSensor {
 
   private static final Logger LOG = LoggerFactory.getLogger(JsTsSensor.class);
-  private static final Gson GSON = new Gson();
+  private static final Gson GSON = BridgeJson.GSON;
+  // how many times the bridge server is restarted to resume a project analysis after a crash
+  private static final int MAX_RESUMES = 3;
 
   private final JsTsChecks checks;
   private final AnalysisConsumers consumers;
@@ -110,12 +115,11 @@ public class JsTsSensor extends AbstractBridgeSensor {
   }
 
   @Override
-  protected void analyzeFiles(List<InputFile> inputFiles) {
+  protected void analyzeFiles(List<InputFile> inputFiles) throws IOException {
     var eslintImporter = new EslintReportImporter();
     var externalIssues = eslintImporter.execute(context);
     try {
-      var handler = new AnalyzeProjectHandler(context, inputFiles, externalIssues);
-      bridgeServer.analyzeProject(handler);
+      analyzeProject(new AnalyzeProjectHandler(context, inputFiles, externalIssues));
       new PluginTelemetry(context, bridgeServer).reportTelemetry();
       consumers.doneAnalysis(context.getSensorContext());
     } catch (CompletionException e) {
@@ -129,14 +133,64 @@ public class JsTsSensor extends AbstractBridgeSensor {
     }
   }
 
+  /**
+   * Analyzes the project, resuming the analysis of the remaining files after the bridge server
+   * crashed. The files reported by the bridge as being analyzed when it crashed are skipped.
+   * The analysis also goes on with a new bridge server when the bridge stopped it to be recycled.
+   */
+  private void analyzeProject(AnalyzeProjectHandler handler) throws IOException {
+    var resumes = 0;
+    while (true) {
+      try {
+        bridgeServer.analyzeProject(handler);
+        if (!handler.recycled) {
+          return;
+        }
+        var remainingFiles = handler.remainingFiles();
+        LOG.debug(
+          "Recycling the bridge server, {} file(s) remaining to analyze",
+          remainingFiles.size()
+        );
+        var serverConfig = BridgeServerConfig.fromSensorContext(context.getSensorContext());
+        if (!bridgeServer.recycleServer(serverConfig)) {
+          // the same bridge server would ask again to be recycled
+          configuration.disableRecycling();
+        }
+        handler = new AnalyzeProjectHandler(context, remainingFiles, handler.externalIssues);
+      } catch (CompletionException e) {
+        if (!handler.bridgeFailed || resumes == MAX_RESUMES || !handler.canBeResumed()) {
+          throw e;
+        }
+        resumes++;
+        var remainingFiles = handler.remainingFiles();
+        LOG.warn(
+          "The bridge server failed, resuming the analysis of the {} remaining file(s)",
+          remainingFiles.size()
+        );
+        var serverConfig = BridgeServerConfig.fromSensorContext(context.getSensorContext());
+        bridgeServer.restartServer(serverConfig);
+        handler = new AnalyzeProjectHandler(context, remainingFiles, handler.externalIssues);
+      }
+    }
+  }
+
   class AnalyzeProjectHandler implements WebSocketMessageHandler<ProjectAnalysisRequest> {
 
     private final JsTsContext<?> context;
     private final Map<String, List<ExternalIssue>> externalIssues;
     private final List<InputFile> inputFiles;
-    private final Map<String, InputFile> fileToInputFile = new HashMap<>();
-    private final HashMap<String, CacheStrategy> fileToCacheStrategy = new HashMap<>();
+    // filled while the request is sent, and read by the threads processing the file results
+    private final Map<String, InputFile> fileToInputFile = new ConcurrentHashMap<>();
+    private final Map<String, CacheStrategy> fileToCacheStrategy = new ConcurrentHashMap<>();
+    // the analysis processor is not thread-safe, the results of the bridge and the ones served
+    // from the cache are processed one at a time
+    private final Object processingLock = new Object();
     private final CompletableFuture<Void> handle;
+    private final Set<String> processedFiles = ConcurrentHashMap.newKeySet();
+    private volatile boolean bridgeFailed;
+    private volatile boolean recycled;
+    // several bridge processes can crash when the analysis is spread over a pool of them
+    private final Set<String> crashedFiles = ConcurrentHashMap.newKeySet();
 
     AnalyzeProjectHandler(
       JsTsContext<?> context,
@@ -149,35 +203,43 @@ public class JsTsSensor extends AbstractBridgeSensor {
       this.externalIssues = externalIssues;
     }
 
+    /**
+     * Files are resolved lazily, while the request is sent to the bridge: files served from the
+     * cache are processed on the fly and only the ones requiring an analysis are streamed.
+     */
     @Override
     public ProjectAnalysisRequest getRequest() {
-      var files = new HashMap<String, BridgeServer.JsTsFile>();
-      try {
-        for (InputFile inputFile : inputFiles) {
-          CacheStrategy cacheStrategy = null;
-          cacheStrategy = CacheStrategies.getStrategyFor(context, inputFile);
-          if (cacheStrategy.isAnalysisRequired()) {
-            files.put(
-              inputFile.absolutePath(),
-              new BridgeServer.JsTsFile(
-                inputFile.absolutePath(),
-                inputFile.type().toString(),
-                inputFile.status(),
-                context.shouldSendFileContent(inputFile) ? inputFile.contents() : null
-              )
-            );
-            fileToInputFile.put(inputFile.absolutePath(), inputFile);
-            fileToCacheStrategy.put(inputFile.absolutePath(), cacheStrategy);
-          } else {
-            LOG.debug("Processing cache analysis of file: {}", inputFile.uri());
-            var cacheAnalysis = cacheStrategy.readAnalysisFromCache();
-            analysisProcessor.processCacheAnalysis(context, inputFile, cacheAnalysis);
-            acceptAstResponse(cacheAnalysis.getAst(), inputFile);
+      var files = inputFiles
+        .stream()
+        .takeWhile(inputFile -> !handle.isDone())
+        .<BridgeServer.JsTsFile>mapMulti((inputFile, downstream) -> {
+          try {
+            var cacheStrategy = CacheStrategies.getStrategyFor(context, inputFile);
+            if (cacheStrategy.isAnalysisRequired()) {
+              // known before the file is sent, as its result can come back right away
+              fileToInputFile.put(inputFile.absolutePath(), inputFile);
+              fileToCacheStrategy.put(inputFile.absolutePath(), cacheStrategy);
+              downstream.accept(
+                new BridgeServer.JsTsFile(
+                  inputFile.absolutePath(),
+                  inputFile.type().toString(),
+                  inputFile.status(),
+                  context.shouldSendFileContent(inputFile) ? inputFile.contents() : null
+                )
+              );
+            } else {
+              LOG.debug("Processing cache analysis of file: {}", inputFile.uri());
+              var cacheAnalysis = cacheStrategy.readAnalysisFromCache();
+              synchronized (processingLock) {
+                analysisProcessor.processCacheAnalysis(context, inputFile, cacheAnalysis);
+                acceptAstResponse(cacheAnalysis.getAst(), inputFile);
+              }
+              processedFiles.add(inputFile.absolutePath());
+            }
+          } catch (IOException e) {
+            handle.completeExceptionally(new IllegalStateException(e));
           }
-        }
-      } catch (IOException e) {
-        handle.completeExceptionally(new IllegalStateException(e));
-      }
+        });
       if (fsListener != null) {
         configuration.setFsEvents(fsListener.listFSEvents());
       }
@@ -206,6 +268,36 @@ public class JsTsSensor extends AbstractBridgeSensor {
         var response = BridgeServer.AnalysisResponse.fromDTO(
           GSON.fromJson(jsonObject, BridgeServer.AnalysisResponseDTO.class)
         );
+        handleFileResult(filePath, response);
+      } else if ("meta".equals(messageType)) {
+        var meta = GSON.fromJson(jsonObject, BridgeServer.ProjectAnalysisMetaResponse.class);
+        meta.warnings().forEach(analysisWarnings::addUnique);
+        handle.complete(null);
+      } else if ("recycle".equals(messageType)) {
+        var meta = GSON.fromJson(jsonObject, BridgeServer.ProjectAnalysisMetaResponse.class);
+        meta.warnings().forEach(analysisWarnings::addUnique);
+        recycled = true;
+        handle.complete(null);
+      } else if ("crash".equals(messageType)) {
+        var crashedFile = jsonObject.get("filename").getAsString();
+        crashedFiles.add(crashedFile);
+        LOG.warn("Skipping file {} which crashed the bridge server", crashedFile);
+        analysisWarnings.addUnique(
+          "The analysis of a JavaScript/TypeScript file crashed the bridge server, " +
+            "see the logs for more details"
+        );
+      } else if ("cancelled".equals(messageType)) {
+        handle.completeExceptionally(
+          new CancellationException(
+            "Analysis interrupted because the SensorContext is in cancelled state"
+          )
+        );
+      }
+    }
+
+    @Override
+    public void handleFileResult(String filePath, BridgeServer.AnalysisResponse response) {
+      synchronized (processingLock) {
         var file = fileToInputFile.get(filePath);
         var cacheStrategy = fileToCacheStrategy.get(filePath);
         var issues = analysisProcessor.processResponse(context, checks, file, response);
@@ -226,21 +318,20 @@ public class JsTsSensor extends AbstractBridgeSensor {
           handle.completeExceptionally(new IllegalStateException(e));
         }
         acceptAstResponse(response.ast(), file);
-      } else if ("meta".equals(messageType)) {
-        var meta = GSON.fromJson(jsonObject, BridgeServer.ProjectAnalysisMetaResponse.class);
-        meta.warnings().forEach(analysisWarnings::addUnique);
-        handle.complete(null);
-      } else if ("cancelled".equals(messageType)) {
-        handle.completeExceptionally(
-          new CancellationException(
-            "Analysis interrupted because the SensorContext is in cancelled state"
-          )
-        );
+        response.hookData().forEach(data -> consumers.accept(file, data));
+        processedFiles.add(filePath);
       }
     }
 
+    /**
+     * Only a failure of the connection to the bridge is worth resuming the analysis, unlike a
+     * failure to process the results, which completes the analysis exceptionally right away.
+     */
     @Override
     public void onClose(int code, String reason, boolean remote) {
+      if (!handle.isDone()) {
+        bridgeFailed = true;
+      }
       handle.completeExceptionally(
         new IllegalStateException("WebSocket connection closed abnormally: " + reason)
       );
@@ -248,9 +339,30 @@ public class JsTsSensor extends AbstractBridgeSensor {
 
     @Override
     public void onError(Exception ex) {
+      if (!handle.isDone()) {
+        bridgeFailed = true;
+      }
       handle.completeExceptionally(new IllegalStateException("WebSocket connection error", ex));
     }
 
+    /**
+     * A failed analysis is worth resuming when it made some progress, or when the file which
+     * crashed the bridge is known and can be skipped.
+     */
+    boolean canBeResumed() {
+      return !crashedFiles.isEmpty() || !processedFiles.isEmpty();
+    }
+
+    List<InputFile> remainingFiles() {
+      return inputFiles
+        .stream()
+        .filter(inputFile -> {
+          var path = inputFile.absolutePath();
+          return !processedFiles.contains(path) && !crashedFiles.contains(path);
+        })
+        .toList();
+    }
+
     private void acceptAstResponse(@Nullable Node responseAst, InputFile file) {
       if (responseAst != null) {
         // When we haven't serialized the AST:
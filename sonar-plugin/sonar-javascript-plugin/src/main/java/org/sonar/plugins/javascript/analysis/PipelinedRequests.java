@@ -0,0 +1,176 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2025 SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.plugins.javascript.analysis;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nullable;
+import org.sonar.api.config.Configuration;
+import org.sonar.plugins.javascript.CancellationException;
+
+/**
+ * Keeps several requests to the bridge server in flight, so that a sensor is not bound by the
+ * round trip of each file. Responses are still handled one at a time, on the calling thread and
+ * in the order of the requests: saving issues and writing the cache happen exactly as if the
+ * requests were sent sequentially.
+ */
+class PipelinedRequests<T> implements AutoCloseable {
+
+  // internal property to set how many requests a sensor keeps in flight, 1 meaning sequential
+  static final String IN_FLIGHT_REQUESTS_PROPERTY = "sonar.javascript.bridge.inFlightRequests";
+  static final int DEFAULT_IN_FLIGHT_REQUESTS = 4;
+
+  @FunctionalInterface
+  interface Request<T> {
+    T send() throws IOException;
+  }
+
+  @FunctionalInterface
+  interface ResponseHandler<T> {
+    void handle(T response) throws IOException;
+  }
+
+  private record Pending<T>(CompletableFuture<T> response, ResponseHandler<T> handler) {}
+
+  private final int maxInFlight;
+  // also read by the thread cancelling the requests
+  private final Deque<Pending<T>> pending = new ConcurrentLinkedDeque<>();
+  private volatile boolean cancelled;
+
+  @Nullable
+  private final ExecutorService executor;
+
+  PipelinedRequests(Configuration config) {
+    this(config.getInt(IN_FLIGHT_REQUESTS_PROPERTY).orElse(DEFAULT_IN_FLIGHT_REQUESTS));
+  }
+
+  PipelinedRequests(int maxInFlight) {
+    this.maxInFlight = Math.max(1, maxInFlight);
+    if (this.maxInFlight == 1) {
+      this.executor = null;
+    } else {
+      var threadCount = new AtomicInteger();
+      this.executor = Executors.newFixedThreadPool(this.maxInFlight, runnable -> {
+        var name = "sonarjs-bridge-request-" + threadCount.incrementAndGet();
+        var thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+  }
+
+  /**
+   * Sends the request, first handling the oldest responses if too many requests are in flight.
+   */
+  void submit(Request<T> request, ResponseHandler<T> handler) throws IOException {
+    if (cancelled) {
+      throw cancellation();
+    }
+    if (executor == null) {
+      handler.handle(request.send());
+      return;
+    }
+    while (pending.size() >= maxInFlight) {
+      handleNext();
+    }
+    CompletableFuture<T> response;
+    try {
+      response = CompletableFuture.supplyAsync(
+        () -> {
+          try {
+            return request.send();
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        },
+        executor
+      );
+    } catch (RejectedExecutionException e) {
+      // cancelled concurrently
+      throw cancellation();
+    }
+    pending.add(new Pending<>(response, handler));
+  }
+
+  /**
+   * Handles the responses of all the requests still in flight.
+   */
+  void awaitAll() throws IOException {
+    while (!pending.isEmpty()) {
+      handleNext();
+    }
+  }
+
+  private void handleNext() throws IOException {
+    var next = pending.remove();
+    T response;
+    try {
+      response = next.response().join();
+    } catch (java.util.concurrent.CancellationException e) {
+      throw cancellation();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof UncheckedIOException ioException) {
+        throw ioException.getCause();
+      }
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw e;
+    }
+    next.handler().handle(response);
+  }
+
+  /**
+   * Aborts the requests in flight when the analysis gets cancelled, interrupting the threads
+   * waiting for their responses. It can be called from any thread. Handling their responses, as
+   * well as submitting new requests, then fails with a {@link CancellationException}. Sequential
+   * requests are not aborted, the sensor only notices the cancellation between them.
+   */
+  void cancel() {
+    cancelled = true;
+    pending.forEach(p -> p.response().cancel(true));
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+  }
+
+  private static CancellationException cancellation() {
+    return new CancellationException(
+      "Analysis interrupted because the SensorContext is in cancelled state"
+    );
+  }
+
+  /**
+   * Drops the requests still in flight, for instance when the analysis failed or was cancelled.
+   */
+  @Override
+  public void close() {
+    pending.forEach(p -> p.response().cancel(true));
+    pending.clear();
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+  }
+}
@@ -19,7 +19,6 @@ package org.sonar.plugins.javascript.analysis;
 import static org.sonar.plugins.javascript.JavaScriptFilePredicate.getYamlPredicate;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Scanner;
 import java.util.concurrent.TimeUnit;
@@ -35,7 +34,9 @@ import org.sonar.plugins.javascript.CancellationException;
 import org.sonar.plugins.javascript.analysis.cache.CacheAnalysis;
 import org.sonar.plugins.javascript.analysis.cache.CacheStrategies;
 import org.sonar.plugins.javascript.bridge.BridgeServer;
+import org.sonar.plugins.javascript.bridge.BridgeServer.AnalysisResponse;
 import org.sonar.plugins.javascript.bridge.BridgeServer.JsAnalysisRequest;
+import org.sonar.plugins.javascript.bridge.CancellationWatcher;
 import org.sonar.plugins.javascript.utils.ProgressReport;
 
 public class YamlSensor extends AbstractBridgeSensor {
@@ -78,14 +79,20 @@ public class YamlSensor extends AbstractBridgeSensor {
         context.getSensorContext().fileSystem().baseDir().getAbsolutePath(),
         context.isSonarLint()
       );
-      for (var inputFile : inputFiles) {
-        if (context.getSensorContext().isCancelled()) {
-          throw new CancellationException(
-            "Analysis interrupted because the SensorContext is in cancelled state"
-          );
+      try (
+        var requests = new PipelinedRequests<AnalysisResponse>(context.getSensorContext().config());
+        var watcher = CancellationWatcher.watch(context.getSensorContext(), requests::cancel)
+      ) {
+        for (var inputFile : inputFiles) {
+          if (context.getSensorContext().isCancelled()) {
+            throw new CancellationException(
+              "Analysis interrupted because the SensorContext is in cancelled state"
+            );
+          }
+          progressReport.nextFile(inputFile.toString());
+          analyze(inputFile, requests);
         }
-        progressReport.nextFile(inputFile.toString());
-        analyze(inputFile);
+        requests.awaitAll();
       }
       success = true;
     } finally {
@@ -139,43 +146,46 @@ public class YamlSensor extends AbstractBridgeSensor {
     return false;
   }
 
-  private List<BridgeServer.Issue> analyze(InputFile file) throws IOException {
-    List<BridgeServer.Issue> issues = new ArrayList<>();
-
+  private void analyze(InputFile file, PipelinedRequests<AnalysisResponse> requests)
+    throws IOException {
     var cacheStrategy = CacheStrategies.getStrategyFor(context, file);
     // When there is no analysis required, the sensor doesn't need to do anything as the CPD tokens are handled by the sonar-iac plugin.
     // See AnalysisProcessor for more details.
     if (cacheStrategy.isAnalysisRequired()) {
-      try {
-        LOG.debug("Analyzing file: {}", file.uri());
-        var fileContent = context.shouldSendFileContent(file) ? file.contents() : null;
-        var jsAnalysisRequest = new JsAnalysisRequest(
-          file.absolutePath(),
-          file.type().toString(),
-          fileContent,
-          context.ignoreHeaderComments(),
-          null,
-          null,
-          file.status(),
-          context.getAnalysisMode(),
-          false,
-          false,
-          context.isSonarLint(),
-          context.allowTsParserJsFiles(),
-          configuration
-        );
-        var response = bridgeServer.analyzeYaml(jsAnalysisRequest);
-        issues = analysisProcessor.processResponse(context, checks, file, response);
-        cacheStrategy.writeAnalysisToCache(
-          CacheAnalysis.fromResponse(response.cpdTokens(), response.ast()),
-          file
-        );
-      } catch (IOException e) {
-        LOG.error("Failed to get response while analyzing " + file.uri(), e);
-        throw e;
-      }
+      LOG.debug("Analyzing file: {}", file.uri());
+      var fileContent = context.shouldSendFileContent(file) ? file.contents() : null;
+      var jsAnalysisRequest = new JsAnalysisRequest(
+        file.absolutePath(),
+        file.type().toString(),
+        fileContent,
+        context.ignoreHeaderComments(),
+        null,
+        null,
+        file.status(),
+        context.getAnalysisMode(),
+        false,
+        false,
+        context.isSonarLint(),
+        context.allowTsParserJsFiles(),
+        configuration
+      );
+      requests.submit(
+        () -> {
+          try {
+            return bridgeServer.analyzeYaml(jsAnalysisRequest);
+          } catch (IOException e) {
+            LOG.error("Failed to get response while analyzing " + file.uri(), e);
+            throw e;
+          }
+        },
+        response -> {
+          analysisProcessor.processResponse(context, checks, file, response);
+          cacheStrategy.writeAnalysisToCache(
+            CacheAnalysis.fromResponse(response.cpdTokens(), response.ast()),
+            file
+          );
+        }
+      );
     }
-
-    return issues;
   }
 }
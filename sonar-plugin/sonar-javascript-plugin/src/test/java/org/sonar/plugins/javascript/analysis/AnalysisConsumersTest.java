@@ -18,11 +18,15 @@ package org.sonar.plugins.javascript.analysis;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.ArrayList;
 import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.slf4j.event.Level;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.fs.internal.TestInputFileBuilder;
 import org.sonar.api.batch.sensor.SensorContext;
 import org.sonar.api.testfixtures.log.LogTesterJUnit5;
+import org.sonar.plugins.javascript.api.EslintHookData;
 import org.sonar.plugins.javascript.api.JsAnalysisConsumer;
 import org.sonar.plugins.javascript.api.JsFile;
 
@@ -51,6 +55,20 @@ public class AnalysisConsumersTest {
     assertThat(consumers.isEnabled()).isTrue();
   }
 
+  @Test
+  void hook_data_is_forwarded_to_enabled_consumers() {
+    var disabled = new Consumer(false);
+    var enabled = new Consumer(true);
+    var consumers = new AnalysisConsumers(List.of(disabled, enabled));
+    var inputFile = TestInputFileBuilder.create("moduleKey", "file.js").build();
+    var data = new EslintHookData("hook", "hook.Data", new byte[] { 1 });
+
+    consumers.accept(inputFile, data);
+
+    assertThat(enabled.hookData).containsExactly(data);
+    assertThat(disabled.hookData).isEmpty();
+  }
+
   /**
    * Some e2e tests relies on the AnalysisConsumers debug output.
    */
@@ -73,6 +91,7 @@ public class AnalysisConsumersTest {
 
     private final boolean enabled;
     private final String name;
+    private final List<EslintHookData> hookData = new ArrayList<>();
 
     Consumer(boolean enabled) {
       this("test", enabled);
@@ -86,6 +105,11 @@ public class AnalysisConsumersTest {
     @Override
     public void accept(JsFile jsFile) {}
 
+    @Override
+    public void accept(InputFile inputFile, EslintHookData data) {
+      hookData.add(data);
+    }
+
     @Override
     public void doneAnalysis(SensorContext context) {}
 
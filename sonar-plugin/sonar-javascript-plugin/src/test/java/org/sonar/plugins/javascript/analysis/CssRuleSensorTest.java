@@ -20,24 +20,26 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
-import com.google.gson.Gson;
+import com.google.gson.JsonParser;
 import java.io.File;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 import org.junit.jupiter.api.io.TempDir;
-import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.slf4j.event.Level;
@@ -64,8 +66,10 @@ import org.sonar.api.utils.TempFolder;
 import org.sonar.api.utils.Version;
 import org.sonar.css.CssLanguage;
 import org.sonar.plugins.javascript.bridge.BridgeServer;
-import org.sonar.plugins.javascript.bridge.BridgeServer.AnalysisResponse;
-import org.sonar.plugins.javascript.bridge.BridgeServer.CssAnalysisRequest;
+import org.sonar.plugins.javascript.bridge.BridgeServer.ProjectAnalysisRequest;
+import org.sonar.plugins.javascript.bridge.QueuedMessageHandler;
+import org.sonar.plugins.javascript.bridge.StylelintRule;
+import org.sonar.plugins.javascript.bridge.WebSocketMessageHandler;
 import org.sonar.plugins.javascript.nodejs.NodeCommandException;
 
 class CssRuleSensorTest {
@@ -98,14 +102,16 @@ class CssRuleSensorTest {
 
   private CssRuleSensor sensor;
 
+  private final List<BridgeServer.JsTsFile> sentFiles = new ArrayList<>();
+
+  private List<StylelintRule> sentCssRules;
+
   @BeforeEach
   public void setUp() throws IOException {
     MockitoAnnotations.initMocks(this);
     when(bridgeServerMock.isAlive()).thenReturn(true);
-    when(bridgeServerMock.analyzeCss(any())).thenReturn(
-      response(
-        "{ issues: [{\"line\":1,\"ruleId\":\"block-no-empty\",\"message\":\"Unexpected empty block\"}]}"
-      )
+    respondWith(
+      "{ issues: [{\"line\":1,\"ruleId\":\"block-no-empty\",\"message\":\"Unexpected empty block\"}]}"
     );
     when(bridgeServerMock.getCommandInfo()).thenReturn("bridgeServerMock command info");
     context = SensorContextTester.create(baseDir);
@@ -191,14 +197,15 @@ class CssRuleSensorTest {
     assertThat(String.join("\n", logTester.logs(Level.DEBUG)))
       .matches("(?s).*Analyzing file: \\S*file\\.css.*")
       .matches("(?s).*Found 1 issue\\(s\\).*");
+    assertThat(sentCssRules).hasSize(3);
+    verify(bridgeServerMock, never()).analyzeCss(any());
   }
 
   @Test
   void should_trim_rule_key_from_message() throws IOException {
-    AnalysisResponse responseIssues = response(
+    respondWith(
       "{ issues: [{\"line\":2,\"ruleId\":\"color-no-invalid-hex\",\"message\":\"some message (sonar/color-no-invalid-hex)\"}]}"
     );
-    when(bridgeServerMock.analyzeCss(any())).thenReturn(responseIssues);
 
     addInputFile("file-with-rule-id-message.css");
     sensor.execute(context);
@@ -271,7 +278,7 @@ class CssRuleSensorTest {
     InputFile httpFile = mock(InputFile.class);
     when(httpFile.filename()).thenReturn("file.css");
     when(httpFile.uri()).thenReturn(new URI("http://lost-on-earth.com/file.css"));
-    sensor.analyzeFile(httpFile, new JsTsContext<SensorContext>(context), Collections.emptyList());
+    assertThat(sensor.requestFile(httpFile, new JsTsContext<SensorContext>(context))).isNull();
     assertThat(String.join("\n", logTester.logs(Level.DEBUG)))
       .matches("(?s).*Skipping \\S*file.css as it has not 'file' scheme.*")
       .doesNotMatch("(?s).*\nAnalyzing \\S*file.css.*");
@@ -290,10 +297,9 @@ class CssRuleSensorTest {
 
   @Test
   void test_syntax_error() throws IOException {
-    AnalysisResponse responseIssues = response(
+    respondWith(
       "{ issues: [{\"line\":2,\"ruleId\":\"CssSyntaxError\",\"message\":\"Missed semicolon (CssSyntaxError)\"}]}"
     );
-    when(bridgeServerMock.analyzeCss(any())).thenReturn(responseIssues);
 
     InputFile inputFile = addInputFile("syntax-error.css");
     InputFile inputFileNotCss = addInputFile("syntax-error.html");
@@ -307,12 +313,25 @@ class CssRuleSensorTest {
     );
   }
 
+  @Test
+  void should_fail_when_the_analysis_of_a_file_fails() {
+    respondWith("{\"error\":\"Unexpected failure\"}");
+    var inputFile = addInputFile("file.css");
+
+    assertThatThrownBy(() -> sensor.execute(context))
+      .isInstanceOf(IllegalStateException.class)
+      .hasMessage("Analysis of CSS files failed")
+      .hasRootCauseMessage(
+        "Failure during analysis of " + inputFile.uri() + ": Unexpected failure"
+      );
+    assertThat(context.allIssues()).isEmpty();
+  }
+
   @Test
   void test_unknown_rule() throws IOException {
-    AnalysisResponse responseIssues = response(
+    respondWith(
       "{ issues: [{\"line\":2,\"ruleId\":\"unknown-rule-key\",\"message\":\"Some message\"}]}"
     );
-    when(bridgeServerMock.analyzeCss(any())).thenReturn(responseIssues);
 
     addInputFile("unknown-rule.css");
     sensor.execute(context);
@@ -334,12 +353,8 @@ class CssRuleSensorTest {
       .build();
     context.fileSystem().add(inputFile);
     sensor.execute(context);
-    ArgumentCaptor<CssAnalysisRequest> capturedRequest = ArgumentCaptor.forClass(
-      CssAnalysisRequest.class
-    );
-    verify(bridgeServerMock).analyzeCss(capturedRequest.capture());
-
-    assertThat(capturedRequest.getValue().fileContent()).isNull();
+    assertThat(sentFiles).hasSize(1);
+    assertThat(sentFiles.get(0).fileContent()).isNull();
   }
 
   @Test
@@ -352,12 +367,8 @@ class CssRuleSensorTest {
       .build();
     context.fileSystem().add(inputFile);
     sensor.execute(context);
-    ArgumentCaptor<CssAnalysisRequest> capturedRequest = ArgumentCaptor.forClass(
-      CssAnalysisRequest.class
-    );
-    verify(bridgeServerMock).analyzeCss(capturedRequest.capture());
-
-    assertThat(capturedRequest.getValue().fileContent()).isEqualTo("css content");
+    assertThat(sentFiles).hasSize(1);
+    assertThat(sentFiles.get(0).fileContent()).isEqualTo("css content");
   }
 
   @Test
@@ -365,12 +376,8 @@ class CssRuleSensorTest {
     context.setRuntime(SonarRuntimeImpl.forSonarLint(Version.create(7, 9)));
     addInputFile("file.css");
     sensor.execute(context);
-    ArgumentCaptor<CssAnalysisRequest> capturedRequest = ArgumentCaptor.forClass(
-      CssAnalysisRequest.class
-    );
-    verify(bridgeServerMock).analyzeCss(capturedRequest.capture());
-
-    assertThat(capturedRequest.getValue().fileContent()).isNotNull();
+    assertThat(sentFiles).hasSize(1);
+    assertThat(sentFiles.get(0).fileContent()).isNotNull();
   }
 
   private DefaultInputFile addInputFile(String relativePath) {
@@ -386,7 +393,34 @@ class CssRuleSensorTest {
     return inputFile;
   }
 
-  private AnalysisResponse response(String json) {
-    return new Gson().fromJson(json, AnalysisResponse.class);
+  /**
+   * Makes the bridge answer the given analysis result for every file it receives, going through
+   * the results queue the way the bridge server does
+   */
+  private void respondWith(String json) {
+    doAnswer(invocation -> {
+      WebSocketMessageHandler<ProjectAnalysisRequest> handler = new QueuedMessageHandler<>(
+        invocation.getArgument(0),
+        1,
+        10,
+        paused -> {}
+      );
+      var request = handler.getRequest();
+      sentCssRules = request.getCssRules();
+      sentFiles.clear();
+      sentFiles.addAll(request.getFiles().values());
+      for (var file : sentFiles) {
+        var result = JsonParser.parseString(json).getAsJsonObject();
+        result.addProperty("filename", file.filePath());
+        result.addProperty("messageType", "fileResult");
+        handler.handleMessage(result);
+      }
+      var meta = JsonParser.parseString("{\"messageType\":\"meta\"}").getAsJsonObject();
+      handler.handleMessage(meta);
+      handler.getFuture().join();
+      return null;
+    })
+      .when(bridgeServerMock)
+      .analyzeCssProject(any());
   }
 }
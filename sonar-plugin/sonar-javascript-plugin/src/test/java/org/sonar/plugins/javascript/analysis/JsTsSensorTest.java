@@ -23,6 +23,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -356,6 +357,87 @@ class JsTsSensorTest {
     ).isInstanceOf(IllegalStateException.class);
   }
 
+  @Test
+  void should_resume_analysis_after_bridge_crash() throws Exception {
+    var crashingFile = createInputFile(context, "dir/crash.ts");
+    var remainingFile = createInputFile(context, "dir/remaining.ts");
+    var analyzedFiles = new ArrayList<List<String>>();
+    doAnswer(invocation -> {
+      WebSocketMessageHandler<BridgeServer.ProjectAnalysisRequest> handler =
+        invocation.getArgument(0);
+      analyzedFiles.add(handler.getRequest().getFiles().keySet().stream().sorted().toList());
+      webSocketClient.registerHandler(handler);
+      if (analyzedFiles.size() == 1) {
+        for (var message : getWSMessages(createProjectResponse(List.of(inputFile)))) {
+          if (message.contains("fileResult")) {
+            webSocketClient.onMessage(message);
+          }
+        }
+        webSocketClient.onMessage(
+          "{messageType: 'crash', filename: '" + crashingFile.absolutePath() + "'}"
+        );
+        webSocketClient.onClose(1006, "Abnormal close event", true);
+      } else {
+        webSocketClient.onMessage("{messageType: 'meta', warnings: []}");
+      }
+      return handler.getFuture().join();
+    })
+      .when(bridgeServerMock)
+      .analyzeProject(any());
+
+    createSensor().execute(context);
+
+    assertThat(analyzedFiles).containsExactly(
+      List.of(crashingFile.absolutePath(), inputFile.absolutePath(), remainingFile.absolutePath()),
+      List.of(remainingFile.absolutePath())
+    );
+    verify(bridgeServerMock).restartServer(any());
+    assertThat(logTester.logs(Level.WARN)).contains(
+      "Skipping file " + crashingFile.absolutePath() + " which crashed the bridge server",
+      "The bridge server failed, resuming the analysis of the 1 remaining file(s)"
+    );
+    assertThat(analysisWarnings.warnings).containsExactly(
+      "The analysis of a JavaScript/TypeScript file crashed the bridge server, " +
+        "see the logs for more details"
+    );
+  }
+
+  @Test
+  void should_go_on_with_a_recycled_bridge_server() throws Exception {
+    var remainingFile = createInputFile(context, "dir/remaining.ts");
+    var analyzedFiles = new ArrayList<List<String>>();
+    doAnswer(invocation -> {
+      WebSocketMessageHandler<BridgeServer.ProjectAnalysisRequest> handler =
+        invocation.getArgument(0);
+      analyzedFiles.add(handler.getRequest().getFiles().keySet().stream().sorted().toList());
+      webSocketClient.registerHandler(handler);
+      if (analyzedFiles.size() == 1) {
+        for (var message : getWSMessages(createProjectResponse(List.of(inputFile)))) {
+          if (message.contains("fileResult")) {
+            webSocketClient.onMessage(message);
+          }
+        }
+        webSocketClient.onMessage("{messageType: 'recycle', warnings: ['recycled']}");
+      } else {
+        webSocketClient.onMessage("{messageType: 'meta', warnings: []}");
+      }
+      return handler.getFuture().join();
+    })
+      .when(bridgeServerMock)
+      .analyzeProject(any());
+    when(bridgeServerMock.recycleServer(any())).thenReturn(true);
+
+    createSensor().execute(context);
+
+    assertThat(analyzedFiles).containsExactly(
+      List.of(inputFile.absolutePath(), remainingFile.absolutePath()),
+      List.of(remainingFile.absolutePath())
+    );
+    verify(bridgeServerMock).recycleServer(any());
+    verify(bridgeServerMock, never()).restartServer(any());
+    assertThat(analysisWarnings.warnings).containsExactly("recycled");
+  }
+
   @Test
   void should_handle_warnings() {
     var warningMessage = "warning message";
@@ -1251,8 +1333,10 @@ class JsTsSensorTest {
 
   private void executeSensorMockingEvents(JsTsSensor sensor, Runnable events) {
     doAnswer(invocation -> {
-      WebSocketMessageHandler<AnalyzeProjectHandler> handler = invocation.getArgument(0);
-      handler.getRequest(); // we need to call this to prepare all the Maps in the sensor
+      WebSocketMessageHandler<BridgeServer.ProjectAnalysisRequest> handler =
+        invocation.getArgument(0);
+      // we need to resolve the files to prepare all the Maps in the sensor
+      handler.getRequest().getFiles();
       webSocketClient.registerHandler(handler);
       assertThat(webSocketClient.getMessageHandlers()).hasSize(1);
       events.run();
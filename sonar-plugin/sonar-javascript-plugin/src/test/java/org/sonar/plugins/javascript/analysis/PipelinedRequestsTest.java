@@ -0,0 +1,147 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2025 SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.plugins.javascript.analysis;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import org.junit.jupiter.api.Test;
+import org.sonar.api.config.internal.MapSettings;
+import org.sonar.plugins.javascript.CancellationException;
+
+class PipelinedRequestsTest {
+
+  @Test
+  void should_keep_requests_in_flight_and_handle_responses_in_order() throws Exception {
+    var allSent = new CountDownLatch(3);
+    var handled = new ArrayList<String>();
+    try (var requests = new PipelinedRequests<String>(3)) {
+      for (var file : List.of("a", "b", "c")) {
+        requests.submit(
+          () -> {
+            allSent.countDown();
+            // every request waits for the others: they can only complete if sent concurrently
+            assertThat(await(allSent)).isTrue();
+            return file;
+          },
+          handled::add
+        );
+      }
+      assertThat(handled).isEmpty();
+      requests.awaitAll();
+    }
+    assertThat(handled).containsExactly("a", "b", "c");
+  }
+
+  @Test
+  void should_not_exceed_max_in_flight_requests() throws Exception {
+    var inFlight = new AtomicInteger();
+    var maxInFlight = new AtomicInteger();
+    var handled = new ArrayList<Integer>();
+    try (var requests = new PipelinedRequests<Integer>(2)) {
+      for (var i = 0; i < 10; i++) {
+        var index = i;
+        requests.submit(
+          () -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+            inFlight.decrementAndGet();
+            return index;
+          },
+          handled::add
+        );
+      }
+      requests.awaitAll();
+    }
+    assertThat(maxInFlight.get()).isLessThanOrEqualTo(2);
+    assertThat(handled).containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+  }
+
+  @Test
+  void should_send_requests_sequentially_with_a_single_request_in_flight() throws Exception {
+    var handled = new ArrayList<String>();
+    var settings = new MapSettings();
+    settings.setProperty(PipelinedRequests.IN_FLIGHT_REQUESTS_PROPERTY, "1");
+    try (var requests = new PipelinedRequests<String>(settings.asConfig())) {
+      requests.submit(() -> Thread.currentThread().getName(), handled::add);
+    }
+    assertThat(handled).containsExactly(Thread.currentThread().getName());
+  }
+
+  @Test
+  void should_rethrow_request_failures() {
+    var requests = new PipelinedRequests<String>(2);
+    assertThatThrownBy(() -> {
+      requests.submit(
+        () -> {
+          throw new IOException("bridge failure");
+        },
+        response -> {}
+      );
+      requests.awaitAll();
+    })
+      .isInstanceOf(IOException.class)
+      .hasMessage("bridge failure");
+    requests.close();
+  }
+
+  @Test
+  void should_abort_requests_in_flight_when_cancelled() throws Exception {
+    var started = new CountDownLatch(1);
+    var interrupted = new CountDownLatch(1);
+    var requests = new PipelinedRequests<String>(2);
+    requests.submit(
+      () -> {
+        started.countDown();
+        try {
+          // a request the bridge takes forever to answer
+          Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+        } catch (InterruptedException e) {
+          interrupted.countDown();
+        }
+        return "a";
+      },
+      response -> {}
+    );
+    assertThat(await(started)).isTrue();
+    requests.cancel();
+    assertThatThrownBy(requests::awaitAll)
+      .isInstanceOf(CancellationException.class)
+      .hasMessage("Analysis interrupted because the SensorContext is in cancelled state");
+    assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+    assertThatThrownBy(() -> requests.submit(() -> "b", response -> {})).isInstanceOf(
+      CancellationException.class
+    );
+    requests.close();
+  }
+
+  private static boolean await(CountDownLatch latch) throws IOException {
+    try {
+      return latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    }
+  }
+}
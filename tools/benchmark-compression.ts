@@ -0,0 +1,104 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011-2025 SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the Sonar Source-Available License Version 1, as published by SonarSource SA.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+import fs from 'node:fs';
+import { performance } from 'node:perf_hooks';
+import { constants, gunzipSync, gzipSync } from 'node:zlib';
+
+/**
+ * Script measuring when compressing the payloads exchanged between the plugin and the bridge pays
+ * off, e.g. when the bridge runs in another container given by SONARJS_EXISTING_NODE_PROCESS_PORT.
+ *
+ * For each source file given as argument, it measures two payloads: the analysis request carrying
+ * the file content, and a result carrying a highlight and a CPD token per token of the file, which
+ * is what makes analysis results large. Compression pays off on links slower than the break-even
+ * bandwidth, where sending the saved bytes takes longer than compressing and inflating them.
+ *
+ * Usage: npx tsx tools/benchmark-compression.ts <file>...
+ */
+
+const RUNS = 20;
+// the level used by the plugin and the bridge, and the default level of zlib
+const LEVELS = [constants.Z_BEST_SPEED, 6];
+const MB = 1024 * 1024;
+
+const files = process.argv.slice(2);
+if (files.length === 0) {
+  console.error('Usage: npx tsx tools/benchmark-compression.ts <file>...');
+  process.exit(1);
+}
+
+console.log('| Payload | Size (KB) | Level | Ratio | Time (ms) | Break-even (MB/s) |');
+console.log('| ------- | --------: | ----: | ----: | --------: | ----------------: |');
+for (const file of files) {
+  const fileContent = fs.readFileSync(file, 'utf8');
+  const payloads = {
+    request: JSON.stringify({ filePath: file, fileType: 'MAIN', fileContent }),
+    result: JSON.stringify(syntheticResult(fileContent)),
+  };
+  for (const [kind, payload] of Object.entries(payloads)) {
+    const raw = Buffer.from(payload);
+    for (const level of LEVELS) {
+      const { size, time } = measure(raw, level);
+      const saved = raw.length - size;
+      console.log(
+        `| ${kind} of ${file} | ${(raw.length / 1024).toFixed(0)} | ${level} | ` +
+          `${(raw.length / size).toFixed(1)} | ${time.toFixed(2)} | ` +
+          `${(saved / MB / (time / 1000)).toFixed(0)} |`,
+      );
+    }
+  }
+}
+
+/**
+ * Returns the compressed size and the median time to compress and inflate the payload
+ */
+function measure(raw: Buffer, level: number) {
+  let size = 0;
+  const times: number[] = [];
+  for (let run = 0; run < RUNS; run++) {
+    const start = performance.now();
+    const compressed = gzipSync(raw, { level });
+    gunzipSync(compressed);
+    times.push(performance.now() - start);
+    size = compressed.length;
+  }
+  times.sort((a, b) => a - b);
+  return { size, time: times[Math.floor(RUNS / 2)] };
+}
+
+/**
+ * Builds a result shaped like the ones of the bridge, with a highlight and a CPD token per token
+ */
+function syntheticResult(fileContent: string) {
+  const highlights: { location: object; textType: string }[] = [];
+  const cpdTokens: { location: object; image: string }[] = [];
+  const lines = fileContent.split('\n');
+  for (let line = 0; line < lines.length; line++) {
+    for (const token of lines[line].matchAll(/\w+|[^\s\w]/g)) {
+      const column = token.index ?? 0;
+      const location = {
+        startLine: line + 1,
+        startCol: column,
+        endLine: line + 1,
+        endCol: column + token[0].length,
+      };
+      highlights.push({ location, textType: /^\w/.test(token[0]) ? 'KEYWORD' : 'STRING' });
+      cpdTokens.push({ location, image: token[0] });
+    }
+  }
+  return { issues: [], highlights, highlightedSymbols: [], cpdTokens, metrics: {} };
+}
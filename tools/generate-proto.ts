@@ -35,6 +35,11 @@ const PROTO_FILES = [
     js: 'packages/jsts/src/parsers/estree.js',
     dts: 'packages/jsts/src/parsers/estree.d.ts',
   },
+  {
+    proto: 'packages/bridge/src/proto/file-result.proto',
+    js: 'packages/bridge/src/proto/file-result.js',
+    dts: 'packages/bridge/src/proto/file-result.d.ts',
+  },
 ];
 
 function copyToLib(filePath: string) {